@@ -0,0 +1,83 @@
+package com.creaite.wardrobe_api;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Fixtures sintéticas para os benchmarks: fotos de celular de 1 a 10 MB.
+ * Ruído de sensor + gradiente + peça no centro deixam o JPEG com o tamanho de uma foto real.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Resolução da foto pelo tamanho aproximado do JPEG gerado.
+     * "1MB" = 2016x1512, "5MB" = 3264x4352, "10MB" = 4320x6480.
+     */
+    public static int[] dimensionsFor(String fixture) {
+        return switch (fixture) {
+            case "1MB" -> new int[]{2016, 1512};
+            case "5MB" -> new int[]{3264, 4352};
+            case "10MB" -> new int[]{4320, 6480};
+            default -> throw new IllegalArgumentException("Unknown fixture: " + fixture);
+        };
+    }
+
+    public static byte[] photoJpeg(String fixture) throws IOException {
+        int[] size = dimensionsFor(fixture);
+        return photoJpeg(size[0], size[1]);
+    }
+
+    public static byte[] photoJpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int base = 170 + (x * 40 / width) - (y * 30 / height);
+                int noise = random.nextInt(41) - 20;
+                int r = clamp(base + noise + 10);
+                int g = clamp(base + noise);
+                int b = clamp(base + noise - 15);
+                row[x] = (r << 16) | (g << 8) | b;
+            }
+            image.setRGB(0, y, width, 1, row, 0, width);
+        }
+
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(new Color(40, 70, 140));
+        g2d.fillRoundRect(width / 4, height / 5, width / 2, height * 3 / 5, width / 10, width / 10);
+        g2d.dispose();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(0.95f);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
@@ -0,0 +1,81 @@
+package com.creaite.wardrobe_api.dto;
+
+import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização da listagem de guarda-roupa (GET /user/clothes), com e sem as imagens base64.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ClothesJsonBenchmark {
+
+    @Param({"50", "500"})
+    public int items;
+
+    /**
+     * Tamanho de cada imagem base64 (foto processada + original) em KB; 0 = sem imagens
+     */
+    @Param({"0", "256"})
+    public int imageKb;
+
+    private ObjectMapper objectMapper;
+    private List<ClothesDTO> wardrobe;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Mesma configuração do ObjectMapper do Spring MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Random random = new Random(42);
+        String image = null;
+        if (imageKb > 0) {
+            byte[] bytes = new byte[imageKb * 1024 * 3 / 4];
+            random.nextBytes(bytes);
+            image = "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes);
+        }
+
+        ClothingCategory[] categories = ClothingCategory.values();
+        wardrobe = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            wardrobe.add(new ClothesDTO(
+                    UUID.randomUUID(),
+                    "Item " + i,
+                    categories[i % categories.length],
+                    "Blue",
+                    "#2F5DA8:81,#F4F4F2:19",
+                    "Brand " + (i % 17),
+                    image,
+                    image,
+                    "Description for item " + i,
+                    true,
+                    i % 5 == 0,
+                    Clothes.ProcessingStatus.COMPLETED,
+                    null,
+                    LocalDateTime.now().minusDays(i),
+                    LocalDateTime.now()
+            ));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(wardrobe);
+    }
+}
@@ -0,0 +1,62 @@
+package com.creaite.wardrobe_api.infra.security;
+
+import com.creaite.wardrobe_api.domain.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da autenticação: JWT em todo request, BCrypt no login.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private TokenService tokenService;
+    private User user;
+    private String accessToken;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "benchmark-access-secret");
+        ReflectionTestUtils.setField(tokenService, "refreshSecret", "benchmark-refresh-secret");
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("benchmark@creaite.app");
+        accessToken = tokenService.generateAccessToken(user);
+
+        // Mesmo encoder (strength padrão 10) do SecurityConfig
+        passwordEncoder = new BCryptPasswordEncoder();
+        passwordHash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return tokenService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String validateAccessToken() {
+        return tokenService.validateAccessToken(accessToken);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches(PASSWORD, passwordHash);
+    }
+}
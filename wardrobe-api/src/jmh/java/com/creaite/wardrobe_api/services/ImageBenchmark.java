@@ -0,0 +1,67 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.BenchmarkFixtures;
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
+import com.creaite.wardrobe_api.services.image.StudioEnhancer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de imagem do upload: base64 do payload, preparo para o DALL-E Edit e melhoria local de estúdio.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g", "-Djava.awt.headless=true"})
+public class ImageBenchmark {
+
+    @Param({"1MB", "5MB", "10MB"})
+    public String fixture;
+
+    private OpenAIService openAIService;
+    private StudioEnhancer studioEnhancer;
+    private byte[] photo;
+    private String photoBase64;
+    private byte[] processedPng;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        openAIService = new OpenAIService(new ProcessingMetrics(new SimpleMeterRegistry()), new RestTemplate());
+        studioEnhancer = new StudioEnhancer();
+        photo = BenchmarkFixtures.photoJpeg(fixture);
+        photoBase64 = Base64.getEncoder().encodeToString(photo);
+        processedPng = openAIService.processImageForOpenAI(photo);
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64.getDecoder().decode(photoBase64);
+    }
+
+    @Benchmark
+    public String base64Encode() {
+        return Base64.getEncoder().encodeToString(photo);
+    }
+
+    @Benchmark
+    public byte[] processImageForOpenAI() throws IOException {
+        return openAIService.processImageForOpenAI(photo);
+    }
+
+    @Benchmark
+    public byte[] createTransparentMask() throws IOException {
+        return openAIService.createTransparentMask(processedPng);
+    }
+
+    @Benchmark
+    public String studioEnhance() {
+        return studioEnhancer.enhance(photoBase64);
+    }
+}
@@ -0,0 +1,103 @@
+package com.creaite.wardrobe_api.loadtest;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Emite ID tokens no formato do Google, assinados por um certificado local.
+ * O stub publica o certificado no mesmo formato de https://www.googleapis.com/oauth2/v1/certs,
+ * então o GoogleIdTokenVerifier do AuthController valida os tokens sem falar com o Google.
+ */
+public class GoogleTokenIssuer {
+
+    private static final String KEY_ID = "loadtest-stub-key";
+    private static final String STORE_PASSWORD = "loadtest";
+
+    private final String clientId;
+    private final X509Certificate certificate;
+    private final Algorithm algorithm;
+
+    private GoogleTokenIssuer(String clientId, X509Certificate certificate, RSAPrivateKey privateKey) {
+        this.clientId = clientId;
+        this.certificate = certificate;
+        this.algorithm = Algorithm.RSA256((RSAPublicKey) certificate.getPublicKey(), privateKey);
+    }
+
+    /**
+     * Gera um par RSA com certificado autoassinado usando o keytool do próprio JDK
+     */
+    public static GoogleTokenIssuer create(String clientId) throws Exception {
+        Path dir = Files.createTempDirectory("loadtest-google");
+        Path keyStorePath = dir.resolve("google-stub.p12");
+        String keytool = Path.of(System.getProperty("java.home"), "bin", "keytool").toString();
+
+        Process process = new ProcessBuilder(
+                keytool, "-genkeypair",
+                "-alias", KEY_ID,
+                "-keyalg", "RSA",
+                "-keysize", "2048",
+                "-dname", "CN=google-stub",
+                "-validity", "7",
+                "-storetype", "PKCS12",
+                "-keystore", keyStorePath.toString(),
+                "-storepass", STORE_PASSWORD,
+                "-keypass", STORE_PASSWORD
+        ).redirectErrorStream(true).start();
+
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IOException("keytool failed: " + output);
+        }
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (var in = Files.newInputStream(keyStorePath)) {
+            keyStore.load(in, STORE_PASSWORD.toCharArray());
+        } finally {
+            Files.deleteIfExists(keyStorePath);
+            Files.deleteIfExists(dir);
+        }
+
+        RSAPrivateKey privateKey = (RSAPrivateKey) keyStore.getKey(KEY_ID, STORE_PASSWORD.toCharArray());
+        X509Certificate certificate = (X509Certificate) keyStore.getCertificate(KEY_ID);
+        return new GoogleTokenIssuer(clientId, certificate, privateKey);
+    }
+
+    public String issue(String email, String name) {
+        Instant now = Instant.now();
+        return JWT.create()
+                .withKeyId(KEY_ID)
+                .withIssuer("https://accounts.google.com")
+                .withAudience(clientId)
+                .withSubject(email)
+                .withClaim("email", email)
+                .withClaim("email_verified", true)
+                .withClaim("name", name)
+                .withIssuedAt(Date.from(now))
+                .withExpiresAt(Date.from(now.plusSeconds(3600)))
+                .sign(algorithm);
+    }
+
+    /**
+     * JSON { kid: certificado PEM }, igual ao endpoint v1/certs do Google
+     */
+    public byte[] certsJson(ObjectMapper objectMapper) throws Exception {
+        String pem = "-----BEGIN CERTIFICATE-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(certificate.getEncoded())
+                + "\n-----END CERTIFICATE-----\n";
+        return objectMapper.writeValueAsBytes(Map.of(KEY_ID, pem));
+    }
+}
@@ -0,0 +1,72 @@
+package com.creaite.wardrobe_api.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda todas as latências por operação e gera o relatório de percentis no fim.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String operation, long nanos, boolean success) {
+        samples.computeIfAbsent(operation, key -> new Samples()).add(nanos, success);
+    }
+
+    public String report(double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-22s %8s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+
+        new TreeMap<>(samples).forEach((operation, s) -> {
+            long[] sorted = s.sorted();
+            sb.append(String.format("%-22s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation,
+                    sorted.length,
+                    s.errors(),
+                    sorted.length / elapsedSeconds,
+                    percentileMs(sorted, 0.50),
+                    percentileMs(sorted, 0.90),
+                    percentileMs(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+        });
+        return sb.toString();
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
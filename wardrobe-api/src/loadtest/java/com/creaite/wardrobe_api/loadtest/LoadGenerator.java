@@ -0,0 +1,203 @@
+package com.creaite.wardrobe_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Usuários virtuais executando o fluxo do app:
+ * cadastro/login (ou Google) -> upload em lote -> polling do status -> listagem do guarda-roupa.
+ */
+public class LoadGenerator {
+
+    public record Profile(int users,
+                          int iterations,
+                          int batchSize,
+                          double googleRatio,
+                          boolean processWithAI,
+                          Duration pollInterval,
+                          Duration pollTimeout) {
+    }
+
+    private final String apiBaseUrl;
+    private final Profile profile;
+    private final GoogleTokenIssuer googleTokenIssuer;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String uploadImage;
+
+    public LoadGenerator(String apiBaseUrl, Profile profile, GoogleTokenIssuer googleTokenIssuer) throws IOException {
+        this.apiBaseUrl = apiBaseUrl;
+        this.profile = profile;
+        this.googleTokenIssuer = googleTokenIssuer;
+        this.uploadImage = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(renderUploadPhoto());
+    }
+
+    /**
+     * Executa todos os usuários virtuais e devolve o relatório de throughput/percentis
+     */
+    public String run() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(profile.users());
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < profile.users(); i++) {
+                futures.add(executor.submit(() -> {
+                    runUser();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        return String.format("Elapsed: %.1fs%n", elapsedSeconds) + recorder.report(elapsedSeconds);
+    }
+
+    private void runUser() throws Exception {
+        String token = ThreadLocalRandom.current().nextDouble() < profile.googleRatio()
+                ? signInWithGoogle()
+                : registerAndLogin();
+        if (token == null) {
+            return;
+        }
+
+        for (int i = 0; i < profile.iterations(); i++) {
+            List<String> imagesBase64 = new ArrayList<>();
+            for (int j = 0; j < profile.batchSize(); j++) {
+                imagesBase64.add(uploadImage);
+            }
+
+            long uploadStart = System.nanoTime();
+            JsonNode upload = call("upload_batch", post("/clothes/upload/batch", token,
+                    Map.of("imagesBase64", imagesBase64, "processWithAI", profile.processWithAI())));
+            if (upload != null) {
+                for (JsonNode id : upload.path("clothingIds")) {
+                    awaitProcessing(token, id.asText(), uploadStart);
+                }
+            }
+
+            call("list_clothes", get("/user/clothes", token));
+        }
+    }
+
+    private String registerAndLogin() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 12);
+        String email = "load-" + suffix + "@loadtest.local";
+        String password = "loadtest-" + suffix;
+
+        call("register", post("/auth/register", null, Map.of(
+                "username", "load" + suffix,
+                "email", email,
+                "password", password,
+                "name", "Load " + suffix,
+                "language", "en"
+        )));
+
+        JsonNode login = call("login", post("/auth/login", null, Map.of("email", email, "password", password)));
+        return login == null ? null : login.path("token").asText(null);
+    }
+
+    private String signInWithGoogle() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 12);
+        String idToken = googleTokenIssuer.issue("google-" + suffix + "@loadtest.local", "Google " + suffix);
+        JsonNode response = call("google_auth", post("/auth/google", null, Map.of("idToken", idToken)));
+        return response == null ? null : response.path("token").asText(null);
+    }
+
+    /**
+     * Faz polling do status até um estado final e registra o tempo ponta a ponta do item
+     */
+    private void awaitProcessing(String token, String clothingId, long uploadStart) throws Exception {
+        long deadline = System.nanoTime() + profile.pollTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            JsonNode status = call("status_poll", get("/clothes/status/" + clothingId + "?fields=processingStatus", token));
+            String processingStatus = status == null ? null : status.path("processingStatus").asText();
+            if ("COMPLETED".equals(processingStatus) || "FAILED".equals(processingStatus)) {
+                recorder.record("item_end_to_end", System.nanoTime() - uploadStart, "COMPLETED".equals(processingStatus));
+                return;
+            }
+            Thread.sleep(profile.pollInterval().toMillis());
+        }
+        recorder.record("item_end_to_end", System.nanoTime() - uploadStart, false);
+    }
+
+    private JsonNode call(String operation, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(operation, System.nanoTime() - start, success);
+            if (!success || response.body().length == 0) {
+                return null;
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            recorder.record(operation, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(apiBaseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(apiBaseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    /**
+     * Foto de upload típica (~1200x1600 JPEG)
+     */
+    private static byte[] renderUploadPhoto() throws IOException {
+        BufferedImage image = new BufferedImage(1200, 1600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(new Color(214, 208, 196));
+        g2d.fillRect(0, 0, 1200, 1600);
+        g2d.setColor(new Color(40, 70, 140));
+        g2d.fillRoundRect(300, 250, 600, 1100, 120, 120);
+        g2d.dispose();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", baos);
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package com.creaite.wardrobe_api.loadtest;
+
+import com.creaite.wardrobe_api.WardrobeApiApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Teste de carga offline: Postgres embutido + stubs dos provedores + API real + gerador de carga.
+ *
+ * <pre>
+ * ./mvnw -Ploadtest -DskipTests test-compile exec:exec@loadtest -Dloadtest.args="--users=20 --iterations=3"
+ * </pre>
+ *
+ * Opções (todas opcionais):
+ * --users=10 --iterations=2 --batch-size=3 --google-ratio=0.2 --process-with-ai=true
+ * --poll-interval-ms=500 --poll-timeout-s=120
+ * --openai=800,400,0.02,0.02 --removebg=500,250,0.02,0.02 --google=20,0,0,0
+ *   (latencyMs,jitterMs,errorRate,rateLimitRate de cada stub)
+ * --jdbc-url=... --jdbc-user=... --jdbc-password=...
+ *   (usa um Postgres existente; o embutido recusa rodar como root)
+ */
+public class LoadTestHarness {
+
+    private static final String GOOGLE_CLIENT_ID = "loadtest-client-id.apps.googleusercontent.com";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        LoadGenerator.Profile profile = new LoadGenerator.Profile(
+                Integer.parseInt(options.getOrDefault("users", "10")),
+                Integer.parseInt(options.getOrDefault("iterations", "2")),
+                Integer.parseInt(options.getOrDefault("batch-size", "3")),
+                Double.parseDouble(options.getOrDefault("google-ratio", "0.2")),
+                Boolean.parseBoolean(options.getOrDefault("process-with-ai", "true")),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("poll-interval-ms", "500"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("poll-timeout-s", "120")))
+        );
+        StubBehavior openAi = StubBehavior.parse(options.getOrDefault("openai", "800,400,0.02,0.02"));
+        StubBehavior removeBg = StubBehavior.parse(options.getOrDefault("removebg", "500,250,0.02,0.02"));
+        StubBehavior google = StubBehavior.parse(options.getOrDefault("google", "20,0,0,0"));
+
+        EmbeddedPostgres embeddedPostgres = null;
+        String jdbcUrl = options.get("jdbc-url");
+        String jdbcUser = options.getOrDefault("jdbc-user", "postgres");
+        String jdbcPassword = options.getOrDefault("jdbc-password", "");
+        if (jdbcUrl == null) {
+            System.out.println("Starting embedded PostgreSQL...");
+            embeddedPostgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = embeddedPostgres.getJdbcUrl("postgres", "postgres");
+        }
+
+        GoogleTokenIssuer googleTokenIssuer = GoogleTokenIssuer.create(GOOGLE_CLIENT_ID);
+
+        try (ProviderStubServer stubs = new ProviderStubServer(openAi, removeBg, google, googleTokenIssuer)) {
+            stubs.start();
+            System.out.println("Provider stubs at " + stubs.baseUrl());
+            System.out.println("  OpenAI:    " + openAi);
+            System.out.println("  remove.bg: " + removeBg);
+            System.out.println("  Google:    " + google);
+
+            // System properties: precisam vencer os placeholders ${...} do application.properties
+            Map<String, String> properties = new HashMap<>();
+            properties.put("server.port", "0");
+            properties.put("JDBC_DATABASE_URL", jdbcUrl);
+            properties.put("JDBC_DATABASE_USERNAME", jdbcUser);
+            properties.put("JDBC_DATABASE_PASSWORD", jdbcPassword);
+            properties.put("TOKEN_SECRET", "loadtest-access-secret");
+            properties.put("REFRESH_SECRET", "loadtest-refresh-secret");
+            properties.put("GOOGLE_CLIENT_ID", GOOGLE_CLIENT_ID);
+            properties.put("GOOGLE_CLIENT_SECRET", "loadtest");
+            properties.put("GOOGLE_REDIRECT_URI", "http://127.0.0.1/login/oauth2/code/google");
+            properties.put("OPENAI_API_KEY", "sk-loadtest");
+            properties.put("REMOVEBG_API_KEY", "loadtest");
+            properties.put("OPENAI_BASE_URL", stubs.baseUrl());
+            properties.put("REMOVEBG_API_URL", stubs.baseUrl() + "removebg");
+            properties.put("GOOGLE_CERTS_URL", stubs.baseUrl() + "oauth2/v1/certs");
+            properties.put("spring.devtools.restart.enabled", "false");
+            properties.put("logging.level.root", "WARN");
+
+            properties.forEach(System::setProperty);
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WardrobeApiApplication.class).run()) {
+                String apiBaseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                System.out.println("API at " + apiBaseUrl);
+                System.out.println("Profile: " + profile);
+
+                String report = new LoadGenerator(apiBaseUrl, profile, googleTokenIssuer).run();
+
+                System.out.println();
+                System.out.println(report);
+                System.out.println("Stub responses: " + stubs.responseCounts());
+            }
+        } finally {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid option: " + arg + " (expected --name=value)");
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
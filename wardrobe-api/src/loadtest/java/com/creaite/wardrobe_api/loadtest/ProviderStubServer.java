@@ -0,0 +1,158 @@
+package com.creaite.wardrobe_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor HTTP local que imita os provedores externos:
+ * - POST /v1/images/edits (DALL-E Edit) devolvendo uma URL em /files/
+ * - GET  /files/{name}.png (download do resultado)
+ * - POST /removebg (remove.bg)
+ * - GET  /oauth2/v1/certs (certificados do Google)
+ */
+public class ProviderStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LongAdder> responseCounts = new ConcurrentHashMap<>();
+
+    private final StubBehavior openAiBehavior;
+    private final StubBehavior removeBgBehavior;
+    private final StubBehavior googleBehavior;
+    private final byte[] cutoutPng;
+    private final byte[] googleCerts;
+
+    public ProviderStubServer(StubBehavior openAiBehavior,
+                              StubBehavior removeBgBehavior,
+                              StubBehavior googleBehavior,
+                              GoogleTokenIssuer googleTokenIssuer) throws Exception {
+        this.openAiBehavior = openAiBehavior;
+        this.removeBgBehavior = removeBgBehavior;
+        this.googleBehavior = googleBehavior;
+        this.cutoutPng = renderCutout();
+        this.googleCerts = googleTokenIssuer.certsJson(objectMapper);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        // Latência simulada com sleep: cada requisição precisa da própria thread
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+
+        server.createContext("/v1/images/edits", exchange -> handle(exchange, "openai_edit", openAiBehavior, this::imageEdit));
+        server.createContext("/files/", exchange -> handle(exchange, "openai_download", StubBehavior.INSTANT,
+                ex -> respond(ex, 200, "image/png", cutoutPng)));
+        server.createContext("/removebg", exchange -> handle(exchange, "removebg", removeBgBehavior,
+                ex -> respond(ex, 200, "image/png", cutoutPng)));
+        server.createContext("/oauth2/v1/certs", exchange -> handle(exchange, "google_certs", googleBehavior,
+                ex -> {
+                    ex.getResponseHeaders().add("Cache-Control", "public, max-age=3600");
+                    respond(ex, 200, "application/json", googleCerts);
+                }));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public Map<String, Long> responseCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        responseCounts.forEach((key, value) -> counts.put(key, value.sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void imageEdit(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = Map.of(
+                "created", System.currentTimeMillis() / 1000,
+                "data", List.of(Map.of("url", baseUrl() + "files/result.png"))
+        );
+        respond(exchange, 200, "application/json", objectMapper.writeValueAsBytes(body));
+    }
+
+    private void handle(HttpExchange exchange, String endpoint, StubBehavior behavior, Responder responder) throws IOException {
+        try (exchange) {
+            // Consome o upload inteiro, como o provedor real faria
+            try (InputStream in = exchange.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+
+            long latency = behavior.sampleLatencyMs();
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+
+            int status = behavior.sampleStatus();
+            count(endpoint, status);
+
+            if (status == 429) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, "application/json", "{\"error\":{\"message\":\"Rate limit exceeded\"}}".getBytes());
+            } else if (status != 200) {
+                respond(exchange, status, "application/json", "{\"error\":{\"message\":\"Simulated failure\"}}".getBytes());
+            } else {
+                responder.respond(exchange);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void count(String endpoint, int status) {
+        responseCounts.computeIfAbsent(endpoint + " " + status, key -> new LongAdder()).increment();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * PNG 1024x1024 com fundo transparente, no formato devolvido pelos provedores
+     */
+    private static byte[] renderCutout() throws IOException {
+        BufferedImage image = new BufferedImage(1024, 1024, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(new Color(40, 70, 140));
+        g2d.fillRoundRect(256, 160, 512, 704, 96, 96);
+        g2d.dispose();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", baos);
+        return baos.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Responder {
+        void respond(HttpExchange exchange) throws IOException;
+    }
+}
@@ -0,0 +1,51 @@
+package com.creaite.wardrobe_api.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Comportamento de um provedor simulado: latência (base + jitter) e taxas de 500 / 429.
+ * Formato na linha de comando: "latencyMs,jitterMs,errorRate,rateLimitRate" (ex.: "800,400,0.02,0.05").
+ */
+public record StubBehavior(long latencyMs, long jitterMs, double errorRate, double rateLimitRate) {
+
+    public static final StubBehavior INSTANT = new StubBehavior(0, 0, 0, 0);
+
+    public static StubBehavior parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Expected latencyMs,jitterMs,errorRate,rateLimitRate but got: " + value);
+        }
+        return new StubBehavior(
+                Long.parseLong(parts[0].trim()),
+                Long.parseLong(parts[1].trim()),
+                Double.parseDouble(parts[2].trim()),
+                Double.parseDouble(parts[3].trim())
+        );
+    }
+
+    public long sampleLatencyMs() {
+        if (jitterMs <= 0) {
+            return latencyMs;
+        }
+        return latencyMs + ThreadLocalRandom.current().nextLong(jitterMs + 1);
+    }
+
+    /**
+     * Sorteia o resultado da chamada: 429, 500 ou 200
+     */
+    public int sampleStatus() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < rateLimitRate) {
+            return 429;
+        }
+        if (roll < rateLimitRate + errorRate) {
+            return 500;
+        }
+        return 200;
+    }
+
+    @Override
+    public String toString() {
+        return latencyMs + "ms (+" + jitterMs + "ms jitter), errors " + errorRate + ", 429s " + rateLimitRate;
+    }
+}
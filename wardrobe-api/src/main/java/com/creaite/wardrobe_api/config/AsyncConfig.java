@@ -1,19 +1,29 @@
 // wardrobe-api/src/main/java/com/creaite/wardrobe_api/config/AsyncConfig.java
 package com.creaite.wardrobe_api.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
 
-import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
-public class AsyncConfig {
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${spring.mvc.async.request-timeout:5m}")
+    private Duration requestTimeout;
 
+    /**
+     * Processamento das peças. A capacidade (threads + fila) é conferida antes de aceitar uploads: ver ProcessingAdmission
+     */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public ThreadPoolTaskExecutor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
@@ -22,4 +32,41 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Threads das respostas em streaming (StreamingResponseBody de /user/clothes).
+     * Limitado abaixo do pool do Hikari: cada resposta segura uma conexão do banco enquanto escreve.
+     */
+    @Bean(name = "streamingExecutor")
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(6);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("streaming-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Exports (/user/export): poucas threads só para eles, já que cada um segura uma conexão e uma transação
+     * REPEATABLE READ durante o download inteiro e não pode tomar as threads das outras respostas.
+     * Quantos esperam na fila é limitado antes (WardrobeExportService.tryAcquire), então a fila nunca enche.
+     */
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor());
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+    }
+}
@@ -6,6 +6,7 @@ import com.creaite.wardrobe_api.infra.security.TokenService;
 import com.creaite.wardrobe_api.repositories.UserRepository;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import jakarta.validation.Valid;
@@ -36,6 +37,13 @@ public class AuthController {
     @Value("${GOOGLE_CLIENT_ID}")
     private String googleClientId;
 
+    // Sobrescrito no harness de carga para apontar para o stub local
+    @Value("${api.google.certs-url:https://www.googleapis.com/oauth2/v1/certs}")
+    private String googleCertsUrl;
+
+    // Reaproveitado entre requisições para manter o cache de chaves públicas do Google
+    private volatile GoogleIdTokenVerifier googleIdTokenVerifier;
+
     @GetMapping("/check-email")
     public ResponseEntity<?> checkEmail(@RequestParam String email) {
         log.info("=== CHECK EMAIL REQUEST ===");
@@ -255,12 +263,7 @@ public class AuthController {
 
             log.info("Received idToken (length: {})", body.idToken().length());
 
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance()
-            )
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
+            GoogleIdTokenVerifier verifier = getGoogleIdTokenVerifier();
 
             log.info("Verifying token with Google API...");
 
@@ -341,6 +344,26 @@ public class AuthController {
         }
     }
 
+    private GoogleIdTokenVerifier getGoogleIdTokenVerifier() {
+        if (googleIdTokenVerifier == null) {
+            synchronized (this) {
+                if (googleIdTokenVerifier == null) {
+                    GooglePublicKeysManager publicKeysManager = new GooglePublicKeysManager.Builder(
+                            new NetHttpTransport(),
+                            GsonFactory.getDefaultInstance()
+                    )
+                            .setPublicCertsEncodedUrl(googleCertsUrl)
+                            .build();
+
+                    googleIdTokenVerifier = new GoogleIdTokenVerifier.Builder(publicKeysManager)
+                            .setAudience(Collections.singletonList(googleClientId))
+                            .build();
+                }
+            }
+        }
+        return googleIdTokenVerifier;
+    }
+
     private User createGoogleUser(String email, String name, String picture) {
         log.info("=== Creating New Google User ===");
 
@@ -1,23 +1,41 @@
 package com.creaite.wardrobe_api.controllers;
 
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
 import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.DuplicatePolicy;
+import com.creaite.wardrobe_api.domain.user.EnhancementMode;
 import com.creaite.wardrobe_api.domain.user.ClothingCategory;
 import com.creaite.wardrobe_api.domain.user.User;
 import com.creaite.wardrobe_api.dto.*;
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
 import com.creaite.wardrobe_api.repositories.ClothesRepository;
 import com.creaite.wardrobe_api.repositories.UserRepository;
+import com.creaite.wardrobe_api.services.BackgroundRemovalService;
+import com.creaite.wardrobe_api.services.ClothesBulkService;
+import com.creaite.wardrobe_api.services.ClothesMetadataCache;
 import com.creaite.wardrobe_api.services.ClothesProcessingService;
+import com.creaite.wardrobe_api.services.DuplicateImageIndex;
+import com.creaite.wardrobe_api.services.ProcessingAdmission;
+import com.creaite.wardrobe_api.services.PublicFeedService;
+import com.creaite.wardrobe_api.services.VisualSimilarityIndex;
+import com.creaite.wardrobe_api.services.image.PerceptualHasher;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -28,11 +46,29 @@ public class ClothesController {
     private final UserRepository userRepository;
     private final ClothesRepository clothesRepository;
     private final ClothesProcessingService processingService;
+    private final ClothesMetadataCache metadataCache;
+    private final BackgroundRemovalService backgroundRemovalService;
+    private final PerceptualHasher perceptualHasher;
+    private final DuplicateImageIndex duplicateIndex;
+    private final VisualSimilarityIndex similarityIndex;
+    private final PublicFeedService feedService;
+    private final ClothesBulkService bulkService;
+    private final ProcessingAdmission processingAdmission;
+    private final ProcessingMetrics metrics;
+
+    private static final Set<ClothesField> FAVORITE_RESPONSE =
+            EnumSet.of(ClothesField.ID, ClothesField.IS_FAVORITE, ClothesField.UPDATED_AT);
+
+    // Peça existente quase idêntica à foto enviada (uploads unitários)
+    private static final String DUPLICATE_OF_HEADER = "X-Duplicate-Of";
+    private static final String PREFER_HEADER = "Prefer";
+    private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
 
     @PostMapping("/upload")
     public ResponseEntity<?> uploadClothing(
             @AuthenticationPrincipal User userBody,
-            @RequestBody @Valid ClothesUploadRequestDTO body) {
+            @RequestBody @Valid ClothesUploadRequestDTO body,
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer) {
         try {
             log.info("=== Upload Clothing Request ===");
             log.info("Process with AI: {}", body.processWithAI());
@@ -40,10 +76,23 @@ public class ClothesController {
             User user = userRepository.findByEmail(userBody.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            ProcessingAdmission.Decision admission = processingAdmission.check(ProcessingAdmission.prefersAsync(prefer));
+            if (admission == ProcessingAdmission.Decision.REJECT) {
+                return processingBusy();
+            }
+
+            Long imageHash = hashImage(body.imageBase64());
+            DuplicatePolicy policy = DuplicatePolicy.orFlag(body.duplicates());
+            Optional<DuplicateImageIndex.Duplicate> duplicate = findDuplicate(user.getId(), imageHash, policy);
+            if (duplicate.isPresent() && policy == DuplicatePolicy.SKIP) {
+                return duplicateConflict(duplicate.get());
+            }
+
             Clothes newClothing = new Clothes();
             newClothing.setUserId(user.getId());
             newClothing.setOriginalImageUrl(body.imageBase64());
             newClothing.setClothingPictureUrl(body.imageBase64()); // Temporário
+            newClothing.setImageHash(imageHash);
             newClothing.setProcessingStatus(Clothes.ProcessingStatus.PENDING);
             newClothing.setName("New Item");
             newClothing.setCategory(ClothingCategory.SHIRT);
@@ -53,13 +102,17 @@ public class ClothesController {
             newClothing.setIsFavorite(false);
 
             Clothes saved = clothesRepository.save(newClothing);
+            metadataCache.invalidate(user.getId());
+            rememberHash(user.getId(), saved.getId(), imageHash);
             log.info("✅ Clothing saved with ID: {}", saved.getId());
 
             // Inicia processamento assíncrono
-            log.info("Starting async processing (AI: {})...", body.processWithAI());
-            processingService.processClothingImageAsync(saved.getId(), body.processWithAI());
+            BackgroundRemovalEngine engine = backgroundRemovalService.resolveEngine(body.backgroundRemover(), user.getBackgroundRemover());
+            log.info("Starting async processing (enhancement: {}, background: {})...", body.processWithAI(), engine);
+            boolean deferred = processingAdmission.start(admission, List.of(saved.getId()), body.processWithAI(), engine,
+                    () -> processingService.processClothingImageAsync(saved.getId(), body.processWithAI(), engine));
 
-            return ResponseEntity.ok(convertToDTO(saved));
+            return okFlagging(duplicate, deferred).body(ClothesSummaryDTO.from(saved));
 
         } catch (Exception e) {
             log.error("❌ Upload error: {}", e.getMessage(), e);
@@ -71,7 +124,8 @@ public class ClothesController {
     @PostMapping("/upload/batch")
     public ResponseEntity<?> uploadBatchClothing(
             @AuthenticationPrincipal User userBody,
-            @RequestBody @Valid BatchUploadRequestDTO body) {
+            @RequestBody @Valid BatchUploadRequestDTO body,
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer) {
         try {
             log.info("=== Batch Upload Request ===");
             log.info("Number of images: {}", body.imagesBase64().size());
@@ -80,13 +134,30 @@ public class ClothesController {
             User user = userRepository.findByEmail(userBody.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            ProcessingAdmission.Decision admission = processingAdmission.check(ProcessingAdmission.prefersAsync(prefer));
+            if (admission == ProcessingAdmission.Decision.REJECT) {
+                return processingBusy();
+            }
+
             List<UUID> clothingIds = new ArrayList<>();
+            List<DuplicateImageDTO> duplicates = new ArrayList<>();
+            DuplicatePolicy policy = DuplicatePolicy.orFlag(body.duplicates());
+
+            for (int index = 0; index < body.imagesBase64().size(); index++) {
+                String imageBase64 = body.imagesBase64().get(index);
+                Long imageHash = hashImage(imageBase64);
+                Optional<DuplicateImageIndex.Duplicate> duplicate = findDuplicate(user.getId(), imageHash, policy);
+                if (duplicate.isPresent()) {
+                    duplicates.add(new DuplicateImageDTO(index, duplicate.get().clothingId(),
+                            duplicate.get().distance(), policy == DuplicatePolicy.SKIP));
+                    if (policy == DuplicatePolicy.SKIP) continue;
+                }
 
-            for (String imageBase64 : body.imagesBase64()) {
                 Clothes newClothing = new Clothes();
                 newClothing.setUserId(user.getId());
                 newClothing.setOriginalImageUrl(imageBase64);
                 newClothing.setClothingPictureUrl(imageBase64); // Temporário
+                newClothing.setImageHash(imageHash);
                 newClothing.setProcessingStatus(Clothes.ProcessingStatus.PENDING);
                 newClothing.setName("New Item");
                 newClothing.setCategory(ClothingCategory.SHIRT);
@@ -96,23 +167,29 @@ public class ClothesController {
                 newClothing.setIsFavorite(false);
 
                 Clothes saved = clothesRepository.save(newClothing);
+                metadataCache.invalidate(user.getId());
+                // Fotos repetidas dentro do próprio lote também são encontradas
+                rememberHash(user.getId(), saved.getId(), imageHash);
                 clothingIds.add(saved.getId());
             }
 
-            log.info("✅ {} items saved", clothingIds.size());
+            log.info("✅ {} items saved ({} duplicates)", clothingIds.size(), duplicates.size());
 
             // Inicia processamento em batch
-            log.info("Starting batch async processing (AI: {})...", body.processWithAI());
-            processingService.processBatchClothingImagesAsync(clothingIds, body.processWithAI());
+            BackgroundRemovalEngine engine = backgroundRemovalService.resolveEngine(body.backgroundRemover(), user.getBackgroundRemover());
+            log.info("Starting batch async processing (enhancement: {}, background: {})...", body.processWithAI(), engine);
+            boolean deferred = processingAdmission.start(admission, clothingIds, body.processWithAI(), engine,
+                    () -> processingService.processBatchClothingImagesAsync(clothingIds, body.processWithAI(), engine));
 
             List<String> clothingIdsAsStrings = clothingIds.stream()
                     .map(UUID::toString)
                     .toList();
 
-            return ResponseEntity.ok(new BatchUploadResponseDTO(
+            return ResponseEntity.status(deferred ? 202 : 200).body(new BatchUploadResponseDTO(
                     clothingIdsAsStrings,
-                    "Upload successful - processing in background",
-                    clothingIds.size()
+                    deferred ? "Upload successful - processing deferred" : "Upload successful - processing in background",
+                    clothingIds.size(),
+                    duplicates
             ));
 
         } catch (Exception e) {
@@ -134,10 +211,18 @@ public class ClothesController {
             User user = userRepository.findByEmail(userBody.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            Long imageHash = hashImage(body.imageBase64());
+            DuplicatePolicy policy = DuplicatePolicy.orFlag(body.duplicates());
+            Optional<DuplicateImageIndex.Duplicate> duplicate = findDuplicate(user.getId(), imageHash, policy);
+            if (duplicate.isPresent() && policy == DuplicatePolicy.SKIP) {
+                return duplicateConflict(duplicate.get());
+            }
+
             Clothes newClothing = new Clothes();
             newClothing.setUserId(user.getId());
             newClothing.setOriginalImageUrl(body.imageBase64());
             newClothing.setClothingPictureUrl(body.imageBase64());
+            newClothing.setImageHash(imageHash);
 
             // Metadados customizados
             newClothing.setName(body.name() != null ? body.name() : "New Item");
@@ -150,9 +235,12 @@ public class ClothesController {
             newClothing.setProcessingStatus(Clothes.ProcessingStatus.COMPLETED);
 
             Clothes saved = clothesRepository.save(newClothing);
+            metadataCache.invalidate(user.getId());
+            rememberHash(user.getId(), saved.getId(), imageHash);
+            feedService.sync(saved.getId());
             log.info("✅ Advanced clothing saved with ID: {}", saved.getId());
 
-            return ResponseEntity.ok(convertToDTO(saved));
+            return okFlagging(duplicate).body(ClothesSummaryDTO.from(saved));
 
         } catch (Exception e) {
             log.error("❌ Advanced upload error: {}", e.getMessage(), e);
@@ -164,7 +252,8 @@ public class ClothesController {
     @PostMapping("/upload/batch-advanced")
     public ResponseEntity<?> uploadBatchAdvanced(
             @AuthenticationPrincipal User userBody,
-            @RequestBody @Valid BatchAdvancedUploadRequestDTO body) {
+            @RequestBody @Valid BatchAdvancedUploadRequestDTO body,
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer) {
         try {
             log.info("=== Batch Advanced Upload Request ===");
             log.info("Number of items: {}", body.items().size());
@@ -173,13 +262,31 @@ public class ClothesController {
             User user = userRepository.findByEmail(userBody.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            ProcessingAdmission.Decision admission = processingAdmission.check(ProcessingAdmission.prefersAsync(prefer));
+            if (admission == ProcessingAdmission.Decision.REJECT) {
+                return processingBusy();
+            }
+
             List<UUID> clothingIds = new ArrayList<>();
+            List<DuplicateImageDTO> duplicates = new ArrayList<>();
+
+            for (int index = 0; index < body.items().size(); index++) {
+                BatchAdvancedItemDTO item = body.items().get(index);
+                // A política do item, se vier, vale sobre a do lote
+                DuplicatePolicy policy = DuplicatePolicy.orFlag(item.duplicates() != null ? item.duplicates() : body.duplicates());
+                Long imageHash = hashImage(item.imageBase64());
+                Optional<DuplicateImageIndex.Duplicate> duplicate = findDuplicate(user.getId(), imageHash, policy);
+                if (duplicate.isPresent()) {
+                    duplicates.add(new DuplicateImageDTO(index, duplicate.get().clothingId(),
+                            duplicate.get().distance(), policy == DuplicatePolicy.SKIP));
+                    if (policy == DuplicatePolicy.SKIP) continue;
+                }
 
-            for (BatchAdvancedItemDTO item : body.items()) {
                 Clothes clothing = new Clothes();
                 clothing.setUserId(user.getId());
                 clothing.setOriginalImageUrl(item.imageBase64());
                 clothing.setClothingPictureUrl(item.imageBase64()); // Temporário
+                clothing.setImageHash(imageHash);
                 clothing.setProcessingStatus(Clothes.ProcessingStatus.PENDING);
                 clothing.setName(item.name() != null ? item.name() : "New Item");
                 clothing.setCategory(item.category() != null ? item.category() : ClothingCategory.SHIRT);
@@ -190,23 +297,30 @@ public class ClothesController {
                 clothing.setIsFavorite(false);
 
                 Clothes saved = clothesRepository.save(clothing);
+                metadataCache.invalidate(user.getId());
+                rememberHash(user.getId(), saved.getId(), imageHash);
                 clothingIds.add(saved.getId());
             }
 
-            log.info("Saved {} advanced items", clothingIds.size());
+            log.info("Saved {} advanced items ({} duplicates)", clothingIds.size(), duplicates.size());
 
             // Inicia processamento em batch
-            log.info("Starting batch-advanced async processing (AI: {})...", body.processWithAI());
-            processingService.processBatchClothingImagesAsync(clothingIds, body.processWithAI());
+            BackgroundRemovalEngine engine = backgroundRemovalService.resolveEngine(body.backgroundRemover(), user.getBackgroundRemover());
+            log.info("Starting batch-advanced async processing (enhancement: {}, background: {})...", body.processWithAI(), engine);
+            EnhancementMode enhancement = EnhancementMode.orNone(body.processWithAI());
+            boolean deferred = processingAdmission.start(admission, clothingIds, enhancement, engine,
+                    () -> processingService.processBatchClothingImagesAsync(clothingIds, enhancement, engine));
 
             List<String> clothingIdsAsStrings = clothingIds.stream()
                     .map(UUID::toString)
                     .toList();
 
-            return ResponseEntity.ok(new BatchUploadResponseDTO(
+            return ResponseEntity.status(deferred ? 202 : 200).body(new BatchUploadResponseDTO(
                     clothingIdsAsStrings,
-                    "Advanced batch upload successful - processing in background",
-                    clothingIds.size()
+                    deferred ? "Advanced batch upload successful - processing deferred"
+                            : "Advanced batch upload successful - processing in background",
+                    clothingIds.size(),
+                    duplicates
             ));
 
         } catch (Exception e) {
@@ -216,6 +330,48 @@ public class ClothesController {
         }
     }
 
+    /**
+     * Várias alterações de uma vez (SET, TOGGLE_FAVORITE, DELETE), aplicadas em ordem numa transação.
+     * Se algum id não existir ou não for do usuário, nada é aplicado (404 com os ids).
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulk(
+            @AuthenticationPrincipal User userBody,
+            @RequestBody @Valid ClothesBulkRequestDTO body) {
+        try {
+            UUID userId = userBody.getId();
+            ClothesBulkService.Outcome outcome = bulkService.apply(userId, body.operations());
+            if (!outcome.missing().isEmpty()) {
+                return ResponseEntity.status(404).body(new ErrorResponseDTO("Clothing not found",
+                        outcome.missing().stream().map(UUID::toString).collect(Collectors.joining(","))));
+            }
+
+            metadataCache.invalidate(userId);
+            if (!outcome.deleted().isEmpty()) {
+                duplicateIndex.invalidate(userId);
+                outcome.deleted().forEach(id -> similarityIndex.remove(userId, id));
+            }
+            // Peças que ficaram públicas entram no feed com miniatura: só id + imagem dessas são lidos
+            if (!outcome.toPublish().isEmpty()) {
+                feedService.sync(outcome.toPublish());
+            }
+
+            ClothesMetadataCache.Wardrobe wardrobe = metadataCache.get(userId);
+            List<Map<String, Object>> items = outcome.touched().stream()
+                    .map(wardrobe::find)
+                    .flatMap(Optional::stream)
+                    .toList();
+            return ResponseEntity.ok(new ClothesBulkResultDTO(outcome.affected(), List.copyOf(outcome.deleted()), items));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponseDTO("Invalid bulk request", e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Bulk update error: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponseDTO("Bulk update failed", e.getMessage()));
+        }
+    }
+
     @PatchMapping("/{id}/favorite")
     public ResponseEntity<?> toggleFavorite(
             @AuthenticationPrincipal User userBody,
@@ -227,18 +383,18 @@ public class ClothesController {
             User user = userRepository.findByEmail(userBody.getEmail())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            Clothes clothing = clothesRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Clothing not found"));
-
-            if (!clothing.getUserId().equals(user.getId())) {
-                return ResponseEntity.status(403).body("Access denied");
+            // UPDATE direto + releitura só dos campos do resumo: as imagens não saem do banco
+            if (clothesRepository.toggleFavorite(id, user.getId(), LocalDateTime.now()) == 0) {
+                return ResponseEntity.status(404).body(new ErrorResponseDTO("Clothing not found"));
             }
+            metadataCache.invalidate(user.getId());
 
-            clothing.setIsFavorite(!clothing.getIsFavorite());
-            clothesRepository.save(clothing);
+            Map<String, Object> summary = clothesRepository.findProjection(user.getId(), id, FAVORITE_RESPONSE)
+                    .map(tuple -> ClothesField.toMap(tuple, FAVORITE_RESPONSE))
+                    .orElseThrow(() -> new RuntimeException("Clothing not found"));
 
-            log.info("✅ Favorite toggled: {}", clothing.getIsFavorite());
-            return ResponseEntity.ok(convertToDTO(clothing));
+            log.info("✅ Favorite toggled: {}", summary.get("isFavorite"));
+            return ResponseEntity.ok(summary);
 
         } catch (Exception e) {
             log.error("❌ Toggle favorite error: {}", e.getMessage());
@@ -247,22 +403,28 @@ public class ClothesController {
         }
     }
 
+    /**
+     * ?view=summary ou ?fields=processingStatus,... para polling sem trafegar as imagens
+     */
     @GetMapping("/status/{id}")
     public ResponseEntity<?> getClothingStatus(
             @AuthenticationPrincipal User userBody,
-            @PathVariable UUID id) {
+            @PathVariable UUID id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
         try {
-            User user = userRepository.findByEmail(userBody.getEmail())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            Clothes clothing = clothesRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Clothing not found"));
-
-            if (!clothing.getUserId().equals(user.getId())) {
-                return ResponseEntity.status(403).body("Access denied");
+            // Polling frequente: o usuário vem do SecurityFilter e, sem imagens no pedido, o item vem do cache
+            UUID userId = userBody.getId();
+            Set<ClothesField> selected = ClothesField.parse(fields, view, ClothesField.FULL);
+            Optional<Map<String, Object>> clothing = ClothesField.SUMMARY.containsAll(selected)
+                    ? metadataCache.get(userId).find(id).map(item -> ClothesField.select(item, selected))
+                    : clothesRepository.findProjection(userId, id, selected).map(tuple -> ClothesField.toMap(tuple, selected));
+
+            if (clothing.isEmpty()) {
+                return ResponseEntity.status(404).body(new ErrorResponseDTO("Clothing not found"));
             }
 
-            return ResponseEntity.ok(convertToDTO(clothing));
+            return ResponseEntity.ok(clothing.get());
 
         } catch (Exception e) {
             log.error("❌ Get status error: {}", e.getMessage());
@@ -271,6 +433,43 @@ public class ClothesController {
         }
     }
 
+    /**
+     * Peças do usuário mais parecidas visualmente (cor e silhueta do recorte), da mais para a menos parecida
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarClothing(
+            @AuthenticationPrincipal User userBody,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "" + VisualSimilarityIndex.DEFAULT_LIMIT) int limit) {
+        try {
+            UUID userId = userBody.getId();
+            ClothesMetadataCache.Wardrobe wardrobe = metadataCache.get(userId);
+            if (wardrobe.find(id).isEmpty()) {
+                return ResponseEntity.status(404).body(new ErrorResponseDTO("Clothing not found"));
+            }
+
+            int size = Math.max(1, Math.min(VisualSimilarityIndex.MAX_LIMIT, limit));
+            Optional<List<VisualSimilarityIndex.Similar>> similar = similarityIndex.similar(userId, id, size);
+            if (similar.isEmpty()) {
+                return ResponseEntity.status(409).body(new ErrorResponseDTO("Visual features not available",
+                        "Clothing is still processing or was processed before similarity search was available"));
+            }
+
+            // O grafo pode ter itens excluídos por outra réplica: só vale o que está nos metadados
+            List<SimilarClothesDTO> items = new ArrayList<>();
+            for (VisualSimilarityIndex.Similar match : similar.get()) {
+                wardrobe.find(match.clothingId())
+                        .ifPresent(item -> items.add(new SimilarClothesDTO(match.similarity(), item)));
+            }
+            return ResponseEntity.ok(items);
+
+        } catch (Exception e) {
+            log.error("❌ Similar clothing error: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponseDTO("Failed to find similar clothing", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(
             @AuthenticationPrincipal User userBody,
@@ -286,6 +485,9 @@ public class ClothesController {
             }
 
             clothesRepository.delete(clothesOpt.get());
+            metadataCache.invalidate(user.getId());
+            duplicateIndex.invalidate(user.getId());
+            similarityIndex.remove(user.getId(), id);
             return ResponseEntity.ok("Clothing item deleted successfully");
 
         } catch (RuntimeException e) {
@@ -324,8 +526,10 @@ public class ClothesController {
             if (body.isPublic() != null) clothing.setIsPublic(body.isPublic());
 
             clothesRepository.save(clothing);
+            metadataCache.invalidate(user.getId());
+            feedService.sync(clothing.getId());
 
-            return ResponseEntity.ok(convertToDTO(clothing));
+            return ResponseEntity.ok(ClothesSummaryDTO.from(clothing));
 
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -354,8 +558,10 @@ public class ClothesController {
             newClothing.setProcessingStatus(Clothes.ProcessingStatus.COMPLETED);
 
             clothesRepository.save(newClothing);
+            metadataCache.invalidate(user.getId());
+            feedService.sync(newClothing.getId());
 
-            return ResponseEntity.ok(convertToDTO(newClothing));
+            return ResponseEntity.ok(ClothesSummaryDTO.from(newClothing));
 
         } catch (RuntimeException e) {
             e.printStackTrace();
@@ -363,22 +569,67 @@ public class ClothesController {
         }
     }
 
-    private ClothesDTO convertToDTO(Clothes clothing) {
-        return new ClothesDTO(
-                clothing.getId(),
-                clothing.getName(),
-                clothing.getCategory(),
-                clothing.getColor(),
-                clothing.getBrand(),
-                clothing.getClothingPictureUrl(),
-                clothing.getOriginalImageUrl(),
-                clothing.getDescription(),
-                clothing.getIsPublic(),
-                clothing.getIsFavorite(),
-                clothing.getProcessingStatus(),
-                clothing.getProcessingError(),
-                clothing.getCreatedAt(),
-                clothing.getUpdatedAt()
-        );
+    /**
+     * Hash perceptual da foto; null se não der para decodificar (o processamento reporta o erro depois)
+     */
+    private Long hashImage(String imageBase64) {
+        try {
+            return metrics.stage(ProcessingMetrics.STAGE_PHASH).recordCallable(() -> perceptualHasher.hash(imageBase64));
+        } catch (Exception e) {
+            log.warn("⚠️ Could not hash uploaded image: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Optional<DuplicateImageIndex.Duplicate> findDuplicate(UUID userId, Long imageHash, DuplicatePolicy policy) {
+        if (imageHash == null) {
+            return Optional.empty();
+        }
+        Optional<DuplicateImageIndex.Duplicate> duplicate = duplicateIndex.find(userId, imageHash);
+        duplicate.ifPresent(found -> {
+            metrics.duplicate(policy.name().toLowerCase());
+            log.info("⚠️ Upload looks like clothing {} (distance {}), policy {}", found.clothingId(), found.distance(), policy);
+        });
+        return duplicate;
+    }
+
+    private void rememberHash(UUID userId, UUID clothingId, Long imageHash) {
+        if (imageHash != null) {
+            duplicateIndex.add(userId, clothingId, imageHash);
+        }
+    }
+
+    private static ResponseEntity.BodyBuilder okFlagging(Optional<DuplicateImageIndex.Duplicate> duplicate) {
+        return okFlagging(duplicate, false);
+    }
+
+    /**
+     * deferred: aceito na fila durável, processamento começa quando houver capacidade (202)
+     */
+    private static ResponseEntity.BodyBuilder okFlagging(Optional<DuplicateImageIndex.Duplicate> duplicate, boolean deferred) {
+        ResponseEntity.BodyBuilder response = deferred
+                ? ResponseEntity.accepted().header(PREFERENCE_APPLIED_HEADER, "respond-async")
+                : ResponseEntity.ok();
+        duplicate.ifPresent(found -> response.header(DUPLICATE_OF_HEADER, found.clothingId().toString()));
+        return response;
+    }
+
+    /**
+     * Executor de processamento cheio: nada foi salvo, o cliente tenta de novo depois (ou pede processamento adiado)
+     */
+    private ResponseEntity<?> processingBusy() {
+        long seconds = processingAdmission.retryAfter().toSeconds();
+        log.warn("⚠️ Processing saturated - rejecting upload, retry after {} s", seconds);
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(new ErrorResponseDTO("Processing queue is full",
+                        "Retry in " + seconds + " s or send '" + PREFER_HEADER + ": respond-async' to queue the upload"));
+    }
+
+    private static ResponseEntity<?> duplicateConflict(DuplicateImageIndex.Duplicate duplicate) {
+        return ResponseEntity.status(409)
+                .header(DUPLICATE_OF_HEADER, duplicate.clothingId().toString())
+                .body(new ErrorResponseDTO("Duplicate image",
+                        "Similar to clothing " + duplicate.clothingId() + " (distance " + duplicate.distance() + ")"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.creaite.wardrobe_api.controllers;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ErrorResponseDTO;
+import com.creaite.wardrobe_api.services.PublicFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final PublicFeedService feedService;
+
+    /**
+     * Peças públicas recém-concluídas de todos os usuários, paginadas por cursor (nextCursor da página anterior)
+     */
+    @GetMapping
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + PublicFeedService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            ClothingCategory categoryEnum = category != null ? ClothingCategory.valueOf(category.toUpperCase()) : null;
+            return ResponseEntity.ok(feedService.page(categoryEnum, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponseDTO("Invalid feed request", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.creaite.wardrobe_api.controllers;
+
+import com.creaite.wardrobe_api.domain.user.User;
+import com.creaite.wardrobe_api.dto.ErrorResponseDTO;
+import com.creaite.wardrobe_api.dto.OutfitDTO;
+import com.creaite.wardrobe_api.dto.OutfitGenerateRequestDTO;
+import com.creaite.wardrobe_api.services.ClothesMetadataCache;
+import com.creaite.wardrobe_api.services.OutfitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/outfits")
+@RequiredArgsConstructor
+public class OutfitController {
+
+    private final OutfitService outfitService;
+    private final ClothesMetadataCache metadataCache;
+
+    /**
+     * Looks montados com as peças do usuário, do melhor para o pior (corpo opcional)
+     */
+    @PostMapping("/generate")
+    public ResponseEntity<?> generate(
+            @AuthenticationPrincipal User userBody,
+            @RequestBody(required = false) OutfitGenerateRequestDTO body) {
+        try {
+            UUID userId = userBody.getId();
+            int limit = body != null && body.limit() != null ? body.limit() : OutfitService.DEFAULT_LIMIT;
+            boolean accessories = body == null || body.accessories() == null || body.accessories();
+            UUID anchorId = body != null ? body.anchorId() : null;
+
+            if (anchorId != null && metadataCache.get(userId).find(anchorId).isEmpty()) {
+                return ResponseEntity.status(404).body(new ErrorResponseDTO("Clothing not found"));
+            }
+
+            List<OutfitDTO> outfits = outfitService.generate(userId, limit, accessories, anchorId);
+            return ResponseEntity.ok(outfits);
+
+        } catch (Exception e) {
+            log.error("❌ Outfit generation error: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponseDTO("Failed to generate outfits", e.getMessage()));
+        }
+    }
+}
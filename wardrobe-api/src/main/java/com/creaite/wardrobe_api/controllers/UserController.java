@@ -1,30 +1,71 @@
 package com.creaite.wardrobe_api.controllers;
 
-import com.creaite.wardrobe_api.domain.user.Clothes;
 import com.creaite.wardrobe_api.domain.user.ClothingCategory;
 import com.creaite.wardrobe_api.domain.user.User;
-import com.creaite.wardrobe_api.dto.ClothesDTO;
+import com.creaite.wardrobe_api.dto.ClothesChangesDTO;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import com.creaite.wardrobe_api.dto.ErrorResponseDTO;
 import com.creaite.wardrobe_api.dto.UserDTO;
-import com.creaite.wardrobe_api.repositories.ClothesRepository;
 import com.creaite.wardrobe_api.repositories.UserRepository;
+import com.creaite.wardrobe_api.services.AccountPurgeService;
+import com.creaite.wardrobe_api.services.ClothesMetadataCache;
+import com.creaite.wardrobe_api.services.ClothesSearchService;
+import com.creaite.wardrobe_api.services.ClothesSheetService;
+import com.creaite.wardrobe_api.services.ClothesStreamingService;
+import com.creaite.wardrobe_api.services.ClothesSyncService;
+import com.creaite.wardrobe_api.services.DuplicateImageIndex;
+import com.creaite.wardrobe_api.services.PublicFeedService;
+import com.creaite.wardrobe_api.services.VisualSimilarityIndex;
+import com.creaite.wardrobe_api.services.WardrobeExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @RestController
 @RequestMapping("/user")
 @RequiredArgsConstructor
 public class UserController {
+    private static final long EXPORT_RETRY_AFTER_SECONDS = 60;
+
     private final UserRepository repository;
-    private final ClothesRepository clothesRepository;
+    private final ClothesMetadataCache metadataCache;
+    private final DuplicateImageIndex duplicateIndex;
+    private final VisualSimilarityIndex similarityIndex;
+    private final WardrobeExportService exportService;
+    private final ClothesStreamingService clothesStreamingService;
+    private final ClothesSyncService clothesSyncService;
+    private final ClothesSearchService clothesSearchService;
+    private final ClothesSheetService clothesSheetService;
+    private final PublicFeedService feedService;
+    private final AccountPurgeService accountPurgeService;
+    private final AsyncTaskExecutor exportExecutor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.timeout:30m}")
+    private Duration exportTimeout;
 
     @GetMapping
     public ResponseEntity<UserDTO> getUser(@AuthenticationPrincipal User userBody) {
@@ -42,7 +83,8 @@ public class UserController {
                 user.getStatus(),
                 user.getLastLogin(),
                 user.getEmail(),
-                user.getOauthProvider()
+                user.getOauthProvider(),
+                user.getBackgroundRemover()
         ));
     }
 
@@ -55,6 +97,7 @@ public class UserController {
             if (body.profilePictureUrl() != null) userBody.setProfilePictureUrl(body.profilePictureUrl());
             if (body.bio() != null) userBody.setBio(body.bio());
             if (body.birthDate() != null) userBody.setBirthDate(body.birthDate());
+            if (body.backgroundRemover() != null) userBody.setBackgroundRemover(body.backgroundRemover());
 
             this.repository.save(userBody);
 
@@ -69,7 +112,8 @@ public class UserController {
                     userBody.getStatus(),
                     userBody.getLastLogin(),
                     userBody.getEmail(),
-                    userBody.getOauthProvider()
+                    userBody.getOauthProvider(),
+                    userBody.getBackgroundRemover()
             ));
 
         } catch (RuntimeException e) {
@@ -100,39 +144,36 @@ public class UserController {
         }
     }
 
+    /**
+     * Lista as roupas do usuário em streaming (ver ClothesStreamingService): o JSON sai
+     * enquanto as linhas são lidas, sem montar a lista inteira em memória.
+     * ?view=summary ou ?fields=id,name,... seleciona só essas colunas (sem os blobs de imagem).
+     * Com If-None-Match igual à versão atual da coleção responde 304 sem ler nenhuma linha.
+     */
     @GetMapping("/clothes")
-    public ResponseEntity<List<ClothesDTO>> getClothes(@AuthenticationPrincipal User userBody, @RequestParam(required = false) String category) {
+    public ResponseEntity<StreamingResponseBody> getClothes(
+            @AuthenticationPrincipal User userBody,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            WebRequest webRequest) {
         try {
-            User user = repository.findByEmail(userBody.getEmail()).orElseThrow(() -> new RuntimeException("User not found"));
-            List<Clothes> clothesList;
+            ClothingCategory categoryEnum = category != null ? ClothingCategory.valueOf(category.toUpperCase()) : null;
+            Set<ClothesField> selected = ClothesField.parse(fields, view, ClothesField.FULL);
 
-            if (category != null) {
-                ClothingCategory categoryEnum = ClothingCategory.valueOf(category.toUpperCase());
-                clothesList = clothesRepository.findByUserIdAndCategory(user.getId(), categoryEnum);
-            } else {
-                clothesList = clothesRepository.findByUserId(user.getId());
+            // O usuário já vem carregado do SecurityFilter e a versão sai do cache: 304 sem ir ao banco
+            UUID userId = userBody.getId();
+            String etag = metadataCache.get(userId).version().etag(categoryEnum + "|" + selected);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
             }
 
-            List<ClothesDTO> clothesDTOList = clothesList.stream()
-                    .map((Clothes clothes) -> new ClothesDTO(
-                            clothes.getId(),
-                            clothes.getName(),
-                            clothes.getCategory(),
-                            clothes.getColor(),
-                            clothes.getBrand(),
-                            clothes.getClothingPictureUrl(),
-                            clothes.getOriginalImageUrl(),
-                            clothes.getDescription(),
-                            clothes.getIsPublic(),      // isPublic
-                            clothes.getIsFavorite(),    // isFavorite -> ajuste para isFavorite() se necessário
-                            clothes.getProcessingStatus(),
-                            clothes.getProcessingError(),
-                            clothes.getCreatedAt(),
-                            clothes.getUpdatedAt()
-                    ))
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(clothesDTOList);
+            StreamingResponseBody body = out -> clothesStreamingService.writeClothes(userId, categoryEnum, selected, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(body);
 
         } catch (RuntimeException e) {
             e.printStackTrace();
@@ -140,12 +181,133 @@ public class UserController {
         }
     }
 
+    /**
+     * Delta sync: o que mudou desde ?since=<nextToken da chamada anterior>.
+     * Sem since devolve tudo (carga inicial); deleted traz os ids excluídos desde o token.
+     * Repetir com nextToken enquanto hasMore for true.
+     */
+    @GetMapping("/clothes/changes")
+    public ResponseEntity<?> getClothesChanges(
+            @AuthenticationPrincipal User userBody,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + ClothesSyncService.DEFAULT_LIMIT) int limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        try {
+            Set<ClothesField> selected = ClothesField.parse(fields, view, ClothesField.FULL);
+            ClothesChangesDTO changes = clothesSyncService.changesSince(userBody.getId(), since, limit, selected);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponseDTO("Invalid sync request", e.getMessage()));
+        }
+    }
+
+    /**
+     * Busca por texto (nome, marca, cor, descrição; prefixo em cada termo) com filtros opcionais,
+     * paginada e sem imagens, com as contagens por categoria, cor, marca e favorito do resultado.
+     */
+    @GetMapping("/clothes/search")
+    public ResponseEntity<?> searchClothes(
+            @AuthenticationPrincipal User userBody,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Boolean favorite,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + ClothesSearchService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            ClothingCategory categoryEnum = category != null ? ClothingCategory.valueOf(category.toUpperCase()) : null;
+            return ResponseEntity.ok(clothesSearchService.search(
+                    userBody.getId(), q, categoryEnum, color, brand, favorite, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponseDTO("Invalid search request", e.getMessage()));
+        }
+    }
+
+    /**
+     * Folha de contato: miniaturas de uma página do guarda-roupa num único JPEG + a posição de cada peça.
+     * Com If-None-Match igual à versão atual da coleção responde 304 sem renderizar.
+     */
+    @GetMapping("/clothes/sheet")
+    public ResponseEntity<?> getClothesSheet(
+            @AuthenticationPrincipal User userBody,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + ClothesSheetService.DEFAULT_PAGE_SIZE) int size,
+            WebRequest webRequest) {
+        try {
+            ClothingCategory categoryEnum = category != null ? ClothingCategory.valueOf(category.toUpperCase()) : null;
+            UUID userId = userBody.getId();
+            ClothesMetadataCache.Wardrobe wardrobe = metadataCache.get(userId);
+            String etag = wardrobe.version().etag("sheet|" + categoryEnum + "|" + page + "|" + size);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(clothesSheetService.sheet(userId, wardrobe, categoryEnum, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponseDTO("Invalid sheet request", e.getMessage()));
+        }
+    }
+
+    /**
+     * Backup do guarda-roupa: ZIP com as imagens e manifest.json, escrito enquanto lê do banco.
+     * Roda no exportExecutor com timeout próprio, não no executor das outras respostas em streaming;
+     * um export por vez por usuário (429 enquanto o anterior não termina).
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(@AuthenticationPrincipal User userBody, HttpServletResponse response) throws IOException {
+        User user = repository.findByEmail(userBody.getEmail())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!exportService.tryAcquire(user.getId())) {
+            log.warn("⚠️ Export for user {} rejected: another export is still running", user.getId());
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(EXPORT_RETRY_AFTER_SECONDS));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDTO("Export already in progress",
+                    "Wait for the current export to finish before starting another"));
+            return null;
+        }
+
+        log.info("=== Wardrobe export for user {} ===", user.getId());
+        String filename = "wardrobe-" + user.getUsername() + "-" + LocalDate.now() + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+
+        // Terminou por timeout/erro antes de a tarefa sair da fila: não abre transação para uma resposta que já acabou
+        AtomicBoolean finished = new AtomicBoolean();
+        WebAsyncTask<Void> task = new WebAsyncTask<>(exportTimeout.toMillis(), exportExecutor, () -> {
+            try {
+                if (!finished.get()) {
+                    exportService.writeExport(user, response.getOutputStream());
+                }
+                return null;
+            } finally {
+                exportService.release(user.getId());
+            }
+        });
+        task.onCompletion(() -> finished.set(true));
+        return task;
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<?> delete(@AuthenticationPrincipal User userBody) {
         try {
             User user = repository.findByEmail(userBody.getEmail()).orElseThrow(() -> new RuntimeException("User not found"));
 
-            this.repository.delete(user);
+            // As peças (e as imagens) são apagadas em segundo plano, em lotes
+            accountPurgeService.deleteAccount(user.getId());
+            metadataCache.invalidate(user.getId());
+            duplicateIndex.invalidate(user.getId());
+            similarityIndex.invalidate(user.getId());
+            feedService.withdrawUser(user.getId());
             return ResponseEntity.ok("User deleted successfully");
         } catch (RuntimeException e) {
             e.printStackTrace();
@@ -0,0 +1,6 @@
+package com.creaite.wardrobe_api.domain.user;
+
+public enum BackgroundRemovalEngine {
+    REMOTE,     // remove.bg (fallback automático para LOCAL se falhar)
+    LOCAL       // LocalBackgroundRemover, sem chamada de rede
+}
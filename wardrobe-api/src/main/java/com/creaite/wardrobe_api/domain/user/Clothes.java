@@ -36,6 +36,10 @@ public class Clothes {
     @Column(name = "color")
     private String color;
 
+    // "#RRGGBB:percentual" separados por vírgula, preenchido no processamento (V8)
+    @Column(name = "color_palette", length = 64)
+    private String colorPalette;
+
     @Column(name = "brand")
     private String brand;
 
@@ -45,6 +49,14 @@ public class Clothes {
     @Column(name = "original_image_url", columnDefinition = "TEXT")
     private String originalImageUrl;
 
+    // dHash de 64 bits da foto enviada, para detectar duplicatas (V9); null em itens anteriores
+    @Column(name = "image_hash")
+    private Long imageHash;
+
+    // Vetor para a busca por peças parecidas (V10), preenchido no processamento; ver VisualFeatureExtractor
+    @Column(name = "visual_features")
+    private byte[] visualFeatures;
+
     @Column(name = "description")
     private String description;
 
@@ -67,6 +79,10 @@ public class Clothes {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Preenchido pelo trigger do banco (V5) em todo INSERT/UPDATE; base do delta sync
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,31 @@
+package com.creaite.wardrobe_api.domain.user;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Registro de exclusão de uma roupa para o delta sync. Gravado pelo trigger de DELETE em clothing_items.
+ */
+@Entity
+@Table(name = "clothing_tombstones")
+@Getter
+@NoArgsConstructor
+public class ClothingTombstone {
+
+    @Id
+    @Column(name = "clothing_id", nullable = false)
+    private UUID clothingId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
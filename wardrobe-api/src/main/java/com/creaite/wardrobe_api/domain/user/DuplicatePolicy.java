@@ -0,0 +1,20 @@
+package com.creaite.wardrobe_api.domain.user;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * O que fazer quando a foto enviada é quase idêntica a uma peça que o usuário já tem
+ */
+public enum DuplicatePolicy {
+    FLAG,       // cria e processa normalmente, mas avisa qual é a peça parecida (padrão)
+    SKIP;       // não cria nem processa: responde com a peça existente
+
+    @JsonCreator
+    public static DuplicatePolicy fromJson(String value) {
+        return value == null ? null : DuplicatePolicy.valueOf(value.trim().toUpperCase());
+    }
+
+    public static DuplicatePolicy orFlag(DuplicatePolicy policy) {
+        return policy != null ? policy : FLAG;
+    }
+}
@@ -0,0 +1,28 @@
+package com.creaite.wardrobe_api.domain.user;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Modo de melhoria da foto antes da remoção de fundo, vindo do campo processWithAI.
+ * Aceita o booleano antigo (true = AI, false = NONE) além do nome do modo.
+ */
+public enum EnhancementMode {
+    NONE,       // só remoção de fundo
+    AI,         // DALL-E Edit (lento, depende da OpenAI)
+    STUDIO;     // StudioEnhancer local, determinístico
+
+    @JsonCreator
+    public static EnhancementMode fromJson(Object value) {
+        if (value == null) return null;
+        if (value instanceof Boolean flag) return flag ? AI : NONE;
+
+        String text = value.toString().trim();
+        if (text.equalsIgnoreCase("true")) return AI;
+        if (text.equalsIgnoreCase("false")) return NONE;
+        return EnhancementMode.valueOf(text.toUpperCase());
+    }
+
+    public static EnhancementMode orNone(EnhancementMode mode) {
+        return mode != null ? mode : NONE;
+    }
+}
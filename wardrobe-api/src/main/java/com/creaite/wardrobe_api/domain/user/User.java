@@ -71,6 +71,11 @@ public class User {
     @Column(name = "has_completed_onboarding")
     private Boolean hasCompletedOnboarding = false;
 
+    // Motor de remoção de fundo preferido; null = padrão do servidor
+    @Enumerated(EnumType.STRING)
+    @Column(name = "background_remover", length = 20)
+    private BackgroundRemovalEngine backgroundRemover;
+
     public boolean isOAuthUser() {
         return oauthProvider != null && !oauthProvider.isEmpty();
     }
@@ -1,6 +1,7 @@
 package com.creaite.wardrobe_api.dto;
 
 import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.domain.user.DuplicatePolicy;
 import jakarta.validation.constraints.NotNull;
 
 public record BatchAdvancedItemDTO(
@@ -10,5 +11,7 @@ public record BatchAdvancedItemDTO(
         String color,
         String brand,
         String description,
-        Boolean isPublic
+        Boolean isPublic,
+        // Opcional: FLAG (padrão) ou SKIP para fotos quase idênticas a uma peça existente
+        DuplicatePolicy duplicates
 ) {}
@@ -1,9 +1,15 @@
 package com.creaite.wardrobe_api.dto;
 
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
+import com.creaite.wardrobe_api.domain.user.DuplicatePolicy;
+import com.creaite.wardrobe_api.domain.user.EnhancementMode;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
 public record BatchAdvancedUploadRequestDTO(
         @NotNull List<BatchAdvancedItemDTO> items,
-        boolean processWithAI
+        EnhancementMode processWithAI,
+        BackgroundRemovalEngine backgroundRemover,
+        // Opcional: FLAG (padrão) ou SKIP; cada item pode sobrescrever
+        DuplicatePolicy duplicates
 ) {}
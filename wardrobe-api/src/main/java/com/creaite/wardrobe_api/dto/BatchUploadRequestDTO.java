@@ -1,6 +1,9 @@
 // wardrobe-api/src/main/java/com/creaite/wardrobe_api/dto/BatchUploadRequestDTO.java
 package com.creaite.wardrobe_api.dto;
 
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
+import com.creaite.wardrobe_api.domain.user.DuplicatePolicy;
+import com.creaite.wardrobe_api.domain.user.EnhancementMode;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
@@ -9,6 +12,13 @@ public record BatchUploadRequestDTO(
         @NotEmpty(message = "At least one image is required")
         List<String> imagesBase64,
 
+        // true/false (legado) ou NONE / AI / STUDIO
         @NotNull(message = "Process with AI flag is required")
-        Boolean processWithAI
+        EnhancementMode processWithAI,
+
+        // Opcional: sobrescreve a preferência do usuário
+        BackgroundRemovalEngine backgroundRemover,
+
+        // Opcional: FLAG (padrão) ou SKIP para fotos quase idênticas a uma peça existente
+        DuplicatePolicy duplicates
 ) {}
\ No newline at end of file
@@ -6,5 +6,6 @@ import java.util.List;
 public record BatchUploadResponseDTO(
         List<String> clothingIds,  // ✅ Mudou de UUID para String
         String message,
-        Integer totalUploaded
+        Integer totalUploaded,
+        List<DuplicateImageDTO> duplicates  // fotos quase idênticas a peças existentes ou do próprio lote
 ) {}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.creaite.wardrobe_api.dto;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Operações aplicadas em ordem, todas ou nenhuma (POST /clothes/bulk)
+ */
+public record ClothesBulkRequestDTO(
+        @NotEmpty(message = "At least one operation is required")
+        List<@Valid Operation> operations
+) {
+    /**
+     * @param set campos a gravar (só em SET); os nulos ficam como estão
+     */
+    public record Operation(
+            @NotNull(message = "Operation type is required")
+            Type type,
+
+            @NotEmpty(message = "At least one clothing id is required")
+            List<UUID> ids,
+
+            Fields set
+    ) {}
+
+    public enum Type {
+        SET,
+        TOGGLE_FAVORITE,
+        DELETE;
+
+        @JsonCreator
+        public static Type fromJson(String value) {
+            return value == null ? null : Type.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    public record Fields(
+            String name,
+            ClothingCategory category,
+            String color,
+            String brand,
+            String description,
+            Boolean isPublic,
+            Boolean isFavorite
+    ) {}
+}
@@ -0,0 +1,15 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @param affected linhas alteradas/excluídas por operação, na ordem do pedido
+ * @param items resumo atualizado das peças tocadas que não foram excluídas
+ */
+public record ClothesBulkResultDTO(
+        List<Integer> affected,
+        List<UUID> deleted,
+        List<Map<String, Object>> items
+) {}
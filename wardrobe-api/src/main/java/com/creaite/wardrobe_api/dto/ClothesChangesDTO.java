@@ -0,0 +1,16 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Página do delta sync: itens criados/alterados (com os campos pedidos), ids excluídos e o
+ * token para a próxima chamada. hasMore = ainda há mudanças depois de nextToken.
+ */
+public record ClothesChangesDTO(
+        List<Map<String, Object>> changed,
+        List<UUID> deleted,
+        String nextToken,
+        boolean hasMore
+) {}
@@ -0,0 +1,19 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versão do guarda-roupa de um usuário: muda em toda inclusão, alteração ou exclusão de item
+ */
+public record ClothesCollectionVersion(long count, LocalDateTime lastUpdatedAt) {
+
+    /**
+     * ETag fraco da listagem; variant diferencia representações (filtro de categoria, fields/view)
+     */
+    public String etag(String variant) {
+        long updated = lastUpdatedAt == null ? 0
+                : lastUpdatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastUpdatedAt.getNano() / 1_000;
+        return "W/\"" + count + "-" + Long.toString(updated, 36) + "-" + Integer.toHexString(variant.hashCode()) + "\"";
+    }
+}
@@ -11,6 +11,7 @@ public record ClothesDTO(
         String name,
         ClothingCategory category,
         String color,
+        String colorPalette,
         String brand,
         String clothingPictureUrl,
         String originalImageUrl,
@@ -21,4 +22,24 @@ public record ClothesDTO(
         String processingError,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
-) {}
+) {
+    public static ClothesDTO from(Clothes clothing) {
+        return new ClothesDTO(
+                clothing.getId(),
+                clothing.getName(),
+                clothing.getCategory(),
+                clothing.getColor(),
+                clothing.getColorPalette(),
+                clothing.getBrand(),
+                clothing.getClothingPictureUrl(),
+                clothing.getOriginalImageUrl(),
+                clothing.getDescription(),
+                clothing.getIsPublic(),
+                clothing.getIsFavorite(),
+                clothing.getProcessingStatus(),
+                clothing.getProcessingError(),
+                clothing.getCreatedAt(),
+                clothing.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package com.creaite.wardrobe_api.dto;
+
+import jakarta.persistence.Tuple;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Campos de ClothesDTO selecionáveis por ?fields= / ?view=.
+ * O nome do campo no JSON é o mesmo atributo da entidade, então serve tanto para a
+ * projeção no SQL quanto para a escrita da resposta.
+ */
+public enum ClothesField {
+    ID("id"),
+    NAME("name"),
+    CATEGORY("category"),
+    COLOR("color"),
+    COLOR_PALETTE("colorPalette"),
+    BRAND("brand"),
+    CLOTHING_PICTURE_URL("clothingPictureUrl"),
+    ORIGINAL_IMAGE_URL("originalImageUrl"),
+    DESCRIPTION("description"),
+    IS_PUBLIC("isPublic"),
+    IS_FAVORITE("isFavorite"),
+    PROCESSING_STATUS("processingStatus"),
+    PROCESSING_ERROR("processingError"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    // Tudo menos os blobs base64 (imagem processada e original)
+    public static final Set<ClothesField> SUMMARY =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(CLOTHING_PICTURE_URL, ORIGINAL_IMAGE_URL)));
+    public static final Set<ClothesField> FULL = Collections.unmodifiableSet(EnumSet.allOf(ClothesField.class));
+
+    private final String attribute;
+
+    ClothesField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * fields (lista separada por vírgula) tem prioridade sobre view (summary | full).
+     * O id sempre vem, para o cliente conseguir casar a resposta com o item.
+     */
+    public static Set<ClothesField> parse(String fields, String view, Set<ClothesField> defaultView) {
+        if (fields != null && !fields.isBlank()) {
+            EnumSet<ClothesField> selected = EnumSet.of(ID);
+            for (String name : fields.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) continue;
+                selected.add(Arrays.stream(values())
+                        .filter(field -> field.attribute.equalsIgnoreCase(trimmed))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + trimmed)));
+            }
+            return selected;
+        }
+        if (view == null || view.isBlank()) {
+            return defaultView;
+        }
+        return switch (view.trim().toLowerCase()) {
+            case "summary" -> SUMMARY;
+            case "full" -> FULL;
+            default -> throw new IllegalArgumentException("Unknown view: " + view);
+        };
+    }
+
+    /**
+     * Resposta de um item projetado, na ordem dos campos do ClothesDTO
+     */
+    public static Map<String, Object> toMap(Tuple tuple, Set<ClothesField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ClothesField field : fields) {
+            values.put(field.attribute, tuple.get(field.attribute));
+        }
+        return values;
+    }
+
+    /**
+     * Subconjunto fields de um item já montado (ex.: do cache de metadados)
+     */
+    public static Map<String, Object> select(Map<String, Object> item, Set<ClothesField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ClothesField field : fields) {
+            values.put(field.attribute, item.get(field.attribute));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,17 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página da busca (sem imagens) + contagens por faceta sobre todo o resultado, não só a página.
+ * facets: category, color, brand e isFavorite -> valor -> quantidade, maiores primeiro.
+ */
+public record ClothesSearchResultDTO(
+        List<ClothesSummaryDTO> items,
+        int page,
+        int size,
+        long total,
+        boolean hasMore,
+        Map<String, Map<String, Long>> facets
+) {}
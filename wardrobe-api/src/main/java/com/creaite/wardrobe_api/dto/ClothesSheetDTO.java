@@ -0,0 +1,23 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Folha de contato de uma página do guarda-roupa: image é um único JPEG (data URL) com as miniaturas
+ * em grade de columns colunas; cada tile diz onde está a célula (tileSize x tileSize) de cada peça.
+ */
+public record ClothesSheetDTO(
+        String image,
+        int width,
+        int height,
+        int columns,
+        int tileSize,
+        int page,
+        int size,
+        long total,
+        boolean hasMore,
+        List<Tile> tiles
+) {
+    public record Tile(UUID id, int x, int y) {}
+}
@@ -0,0 +1,44 @@
+package com.creaite.wardrobe_api.dto;
+
+import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ClothesDTO sem as imagens: resposta das mutações e da view=summary
+ */
+public record ClothesSummaryDTO(
+        UUID id,
+        String name,
+        ClothingCategory category,
+        String color,
+        String colorPalette,
+        String brand,
+        String description,
+        Boolean isPublic,
+        Boolean isFavorite,
+        Clothes.ProcessingStatus processingStatus,
+        String processingError,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+    public static ClothesSummaryDTO from(Clothes clothing) {
+        return new ClothesSummaryDTO(
+                clothing.getId(),
+                clothing.getName(),
+                clothing.getCategory(),
+                clothing.getColor(),
+                clothing.getColorPalette(),
+                clothing.getBrand(),
+                clothing.getDescription(),
+                clothing.getIsPublic(),
+                clothing.getIsFavorite(),
+                clothing.getProcessingStatus(),
+                clothing.getProcessingError(),
+                clothing.getCreatedAt(),
+                clothing.getUpdatedAt()
+        );
+    }
+}
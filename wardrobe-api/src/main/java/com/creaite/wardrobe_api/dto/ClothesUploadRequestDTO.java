@@ -1,6 +1,9 @@
 // wardrobe-api/src/main/java/com/creaite/wardrobe_api/dto/ClothesUploadRequestDTO.java
 package com.creaite.wardrobe_api.dto;
 
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
+import com.creaite.wardrobe_api.domain.user.DuplicatePolicy;
+import com.creaite.wardrobe_api.domain.user.EnhancementMode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -8,6 +11,13 @@ public record ClothesUploadRequestDTO(
         @NotBlank(message = "Image data is required")
         String imageBase64,
 
+        // true/false (legado) ou NONE / AI / STUDIO
         @NotNull(message = "Process with AI flag is required")
-        Boolean processWithAI
+        EnhancementMode processWithAI,
+
+        // Opcional: sobrescreve a preferência do usuário
+        BackgroundRemovalEngine backgroundRemover,
+
+        // Opcional: FLAG (padrão) ou SKIP para fotos quase idênticas a uma peça existente
+        DuplicatePolicy duplicates
 ) {}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.UUID;
+
+/**
+ * Foto do upload (index na lista enviada) quase idêntica à peça duplicateOf.
+ * distance = bits diferentes entre os hashes perceptuais (0 = mesma imagem); skipped = não foi criada.
+ */
+public record DuplicateImageDTO(int index, UUID duplicateOf, int distance, boolean skipped) {}
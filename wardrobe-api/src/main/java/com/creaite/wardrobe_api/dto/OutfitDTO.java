@@ -0,0 +1,10 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Look sugerido: score = harmonia média das cores entre as peças (0 a 1) + bônus de favoritos.
+ * items em ordem cima, baixo, calçado, complemento, com os campos do resumo (ClothesField.SUMMARY).
+ */
+public record OutfitDTO(double score, List<Map<String, Object>> items) {}
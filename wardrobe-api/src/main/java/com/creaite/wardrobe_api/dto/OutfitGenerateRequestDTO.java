@@ -0,0 +1,14 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.UUID;
+
+public record OutfitGenerateRequestDTO(
+        // Quantos looks devolver (padrão 10, máximo 50)
+        Integer limit,
+
+        // Incluir um complemento (HEADWEAR/ACCESSORIES) quando melhorar o look; padrão true
+        Boolean accessories,
+
+        // Opcional: todos os looks montados em volta desta peça
+        UUID anchorId
+) {}
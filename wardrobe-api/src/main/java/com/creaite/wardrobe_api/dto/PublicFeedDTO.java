@@ -0,0 +1,30 @@
+package com.creaite.wardrobe_api.dto;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Página do feed público, da publicação mais recente para a mais antiga.
+ * nextCursor vai como cursor na próxima chamada; null quando não há mais itens.
+ */
+public record PublicFeedDTO(
+        List<Item> items,
+        Long nextCursor
+) {
+    /**
+     * @param thumbnail miniatura JPEG (data URL) gerada na publicação, não a imagem completa
+     */
+    public record Item(
+            UUID clothingId,
+            String name,
+            ClothingCategory category,
+            String color,
+            String colorPalette,
+            String brand,
+            String thumbnail,
+            LocalDateTime publishedAt
+    ) {}
+}
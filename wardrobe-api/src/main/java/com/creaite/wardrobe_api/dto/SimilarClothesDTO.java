@@ -0,0 +1,8 @@
+package com.creaite.wardrobe_api.dto;
+
+import java.util.Map;
+
+/**
+ * Peça parecida com a consultada: similarity de 0 a 1 (cor e silhueta) e os campos do resumo (ClothesField.SUMMARY)
+ */
+public record SimilarClothesDTO(double similarity, Map<String, Object> clothing) {}
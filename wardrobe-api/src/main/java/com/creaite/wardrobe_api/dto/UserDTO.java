@@ -1,4 +1,5 @@
 package com.creaite.wardrobe_api.dto;
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
 import com.creaite.wardrobe_api.domain.user.User;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,5 +15,6 @@ public record UserDTO(
         User.UserStatus status,
         LocalDateTime lastLogin,
         String email,
-        String oauthProvider
+        String oauthProvider,
+        BackgroundRemovalEngine backgroundRemover
 ) {}
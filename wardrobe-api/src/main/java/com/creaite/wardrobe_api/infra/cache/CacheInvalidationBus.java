@@ -0,0 +1,186 @@
+package com.creaite.wardrobe_api.infra.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidação de caches locais entre réplicas via LISTEN/NOTIFY do Postgres, sem serviço extra.
+ *
+ * Os triggers da V6 publicam "<tipo>:<id>" no canal cache_invalidation no commit de cada escrita;
+ * cada nó mantém uma conexão dedicada (fora do pool do Hikari) em LISTEN e repassa o id aos
+ * caches inscritos naquele tipo. Notificações de escritas do próprio nó também chegam, o que é
+ * inofensivo: o cache local já foi invalidado logo depois do commit.
+ *
+ * Se a conexão cair, as notificações do intervalo se perdem: ao reconectar (já em LISTEN)
+ * todos os caches inscritos são esvaziados.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    // Quanto o getNotifications espera por mensagens antes de checar se o bus foi parado
+    private static final int POLL_MILLIS = 500;
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private record Subscriber(Consumer<UUID> evict, Runnable evictAll) {}
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public CacheInvalidationBus(MeterRegistry registry,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password,
+                                @Value("${wardrobe.cache.invalidation.enabled:true}") boolean enabled) {
+        this.registry = registry;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+    }
+
+    /**
+     * evict recebe o id de cada notificação do tipo; evictAll é chamado quando notificações podem ter sido perdidas
+     */
+    public void subscribe(String type, Consumer<UUID> evict, Runnable evictAll) {
+        subscribers.computeIfAbsent(type, key -> new CopyOnWriteArrayList<>()).add(new Subscriber(evict, evictAll));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Cache invalidation bus disabled - local caches are not shared across nodes");
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        Duration backoff = MIN_BACKOFF;
+
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(url, username, password)) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("✅ Listening for cache invalidations on channel {}", CHANNEL);
+
+                // Já em LISTEN: o que foi escrito enquanto estávamos desconectados não chega mais
+                evictAll();
+                backoff = MIN_BACKOFF;
+
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                log.warn("⚠️ Cache invalidation listener lost its connection ({}); reconnecting in {} s",
+                        e.getMessage(), backoff.toSeconds());
+                Counter.builder("cache.invalidation.reconnects").register(registry).increment();
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = backoff.multipliedBy(2);
+                if (backoff.compareTo(MAX_BACKOFF) > 0) backoff = MAX_BACKOFF;
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    /**
+     * payload "<tipo>:<uuid>"
+     */
+    void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator <= 0) {
+            log.warn("⚠️ Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        String type = payload.substring(0, separator);
+        UUID id;
+        try {
+            id = UUID.fromString(payload.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            log.warn("⚠️ Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+
+        Counter.builder("cache.invalidation.received").tag("type", type).register(registry).increment();
+        for (Subscriber subscriber : subscribers.getOrDefault(type, List.of())) {
+            try {
+                subscriber.evict().accept(id);
+            } catch (RuntimeException e) {
+                log.error("❌ Cache invalidation for {} failed: {}", payload, e.getMessage());
+            }
+        }
+    }
+
+    private void evictAll() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.evictAll().run()));
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) return;
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // Já fechada / caindo: o listener sai do loop de qualquer forma
+        }
+    }
+}
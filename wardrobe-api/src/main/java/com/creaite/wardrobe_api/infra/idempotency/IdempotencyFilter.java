@@ -0,0 +1,300 @@
+package com.creaite.wardrobe_api.infra.idempotency;
+
+import com.creaite.wardrobe_api.domain.user.User;
+import com.creaite.wardrobe_api.dto.ErrorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Header Idempotency-Key nos uploads: repetir o POST (retry do app em rede instável) devolve a resposta
+ * da primeira vez em vez de criar peças e disparar processamento pago de novo.
+ *
+ * - primeira requisição: reserva a chave (IdempotencyStore), executa e guarda status, headers e corpo;
+ * - repetição durante a execução: espera a primeira terminar (até wait-timeout, depois 409);
+ * - repetição depois: recebe a resposta guardada, com Idempotent-Replayed: true;
+ * - mesma chave com outro corpo: 422.
+ *
+ * Só respostas 2xx e 409 (duplicata com SKIP) são guardadas: os 400 dos controllers também cobrem
+ * falhas transitórias, e nesses casos a chave é liberada para a próxima tentativa executar.
+ * A chave é por usuário; roda depois do Spring Security, que já resolveu o usuário.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> PATHS = Set.of(
+            "/clothes/upload", "/clothes/upload/batch", "/clothes/upload/advanced", "/clothes/upload/batch-advanced");
+    // Headers da resposta que fazem parte do resultado (X-Duplicate-Of, Preference-Applied: ver ClothesController)
+    private static final List<String> STORED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, "X-Duplicate-Of", "Preference-Applied");
+    private static final int MAX_KEY_LENGTH = 255;
+    // Respostas de upload são resumos sem imagem; algo maior que isso não é guardado
+    private static final int MAX_STORED_BODY = 256 * 1024;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final Duration waitTimeout;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             ObjectMapper objectMapper,
+                             MeterRegistry registry,
+                             @Value("${idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod())
+                || !PATHS.contains(request.getRequestURI())
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            // Sem usuário o Spring Security já respondeu 401; nada a deduplicar
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid " + HEADER,
+                    "Must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(request, cachedRequest.body);
+        UUID userId = user.getId();
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        boolean waited = false;
+
+        while (true) {
+            Optional<IdempotencyStore.Claim> claim = store.claim(userId, key, fingerprint);
+            if (claim.isPresent()) {
+                count(waited ? "claimed_after_wait" : "claimed");
+                execute(cachedRequest, response, filterChain, claim.get(), key);
+                return;
+            }
+
+            Optional<IdempotencyStore.Entry> entry = store.find(userId, key);
+            if (entry.isEmpty()) {
+                continue; // Liberada entre a reserva e a leitura: tenta reservar de novo
+            }
+            if (!entry.get().fingerprint().equals(fingerprint)) {
+                count("mismatch");
+                writeError(response, 422, HEADER + " reused with a different request",
+                        "Use a new key for a different upload");
+                return;
+            }
+            if (entry.get().status() != null) {
+                count("replayed");
+                log.info("Replaying stored response for {} {} ({}: {})", request.getMethod(), request.getRequestURI(), HEADER, key);
+                replay(entry.get(), response);
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                count("timeout");
+                writeError(response, HttpServletResponse.SC_CONFLICT, "Request with this " + HEADER + " is still in progress",
+                        "Retry later with the same key");
+                return;
+            }
+
+            waited = true;
+            try {
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for idempotent request", e);
+            }
+        }
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyStore.Claim claim, String key) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try (claim) {
+            try {
+                filterChain.doFilter(request, wrapper);
+            } catch (ServletException | IOException | RuntimeException e) {
+                releaseQuietly(claim, key);
+                throw e;
+            }
+
+            int status = wrapper.getStatus();
+            byte[] body = wrapper.getContentAsByteArray();
+            if (((status >= 200 && status < 300) || status == HttpServletResponse.SC_CONFLICT) && body.length <= MAX_STORED_BODY) {
+                try {
+                    if (!store.complete(claim, status, headers(wrapper), body)) {
+                        log.warn("⚠️ Idempotency key {} was taken over while the request ran - response not stored", key);
+                    }
+                } catch (RuntimeException e) {
+                    // A resposta já existe: o cliente a recebe mesmo assim; sem renovação a reserva vence sozinha
+                    log.error("❌ Failed to store response for {} {}: {}", HEADER, key, e.getMessage());
+                }
+            } else {
+                releaseQuietly(claim, key);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void releaseQuietly(IdempotencyStore.Claim claim, String key) {
+        try {
+            store.release(claim);
+        } catch (RuntimeException e) {
+            log.error("❌ Failed to release {} {}: {}", HEADER, key, e.getMessage());
+        }
+    }
+
+    private static String headers(HttpServletResponse response) {
+        StringBuilder headers = new StringBuilder();
+        for (String name : STORED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.append(name).append(": ").append(value).append('\n');
+            }
+        }
+        return headers.toString();
+    }
+
+    private static void replay(IdempotencyStore.Entry entry, HttpServletResponse response) throws IOException {
+        response.setStatus(entry.status());
+        if (entry.headers() != null) {
+            for (String line : entry.headers().split("\n")) {
+                int separator = line.indexOf(": ");
+                if (separator > 0) {
+                    response.setHeader(line.substring(0, separator), line.substring(separator + 2));
+                }
+            }
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = entry.body() != null ? entry.body() : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void writeError(HttpServletResponse response, int status, String error, String details) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDTO(error, details));
+    }
+
+    private void count(String outcome) {
+        Counter.builder("idempotency.requests").tag("outcome", outcome).register(registry).increment();
+    }
+
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Corpo lido uma vez para o fingerprint e servido de novo ao controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * O corpo já está todo em memória: sempre pronto, então avisa o listener na hora
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.creaite.wardrobe_api.infra.idempotency;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tabela idempotency_keys (V13): reserva atômica da chave, resposta guardada com TTL e limpeza das vencidas.
+ * No banco, e não em cache local, para a repetição cair em qualquer réplica.
+ *
+ * Cada reserva tem um token (V16) e é renovada a cada terço do lease enquanto a requisição roda: só
+ * a reserva de um nó que caiu ou travou vence e pode ser assumida. complete/release só valem para o
+ * token atual, então quem perdeu a reserva não mexe na da nova tentativa.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    // Nova ou vencida (reserva abandonada / resposta expirada): quem inserir/atualizar a linha é o dono
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (user_id, idempotency_key, fingerprint, claim_token, expires_at)
+            VALUES (:userId, :key, :fingerprint, :token, now() + make_interval(secs => :seconds))
+            ON CONFLICT (user_id, idempotency_key) DO UPDATE SET
+                fingerprint = EXCLUDED.fingerprint, claim_token = EXCLUDED.claim_token, response_status = NULL,
+                response_headers = NULL, response_body = NULL, created_at = now(), expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < now()
+            """;
+
+    // Só enquanto a reserva é deste token e a resposta ainda não foi gravada
+    private static final String RENEW_SQL = """
+            UPDATE idempotency_keys SET expires_at = now() + make_interval(secs => :seconds)
+            WHERE user_id = :userId AND idempotency_key = :key AND claim_token = :token
+              AND response_status IS NULL
+            """;
+
+    /**
+     * @param status null enquanto a primeira requisição ainda está rodando
+     */
+    record Entry(String fingerprint, Integer status, String headers, byte[] body) {}
+
+    /**
+     * Reserva de uma requisição; close() para a renovação do lease
+     */
+    static final class Claim implements AutoCloseable {
+
+        private final UUID userId;
+        private final String key;
+        private final UUID token;
+        private volatile ScheduledFuture<?> renewal;
+
+        private Claim(UUID userId, String key, UUID token) {
+            this.userId = userId;
+            this.key = key;
+            this.token = token;
+        }
+
+        @Override
+        public void close() {
+            ScheduledFuture<?> scheduled = renewal;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration lease;
+    private final Duration ttl;
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdempotencyStore(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${idempotency.lease:60s}") Duration lease,
+                            @Value("${idempotency.ttl:24h}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lease = lease;
+        this.ttl = ttl;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * @return a reserva, se esta requisição ficou com a chave e deve executar; renovada até close()
+     */
+    Optional<Claim> claim(UUID userId, String key, String fingerprint) {
+        purgeExpired();
+        Claim claim = new Claim(userId, key, UUID.randomUUID());
+        if (jdbcTemplate.update(CLAIM_SQL, params(claim)
+                .addValue("fingerprint", fingerprint)
+                .addValue("seconds", lease.toSeconds())) != 1) {
+            return Optional.empty();
+        }
+        long period = Math.max(1, lease.toMillis() / 3);
+        claim.renewal = renewer.scheduleWithFixedDelay(() -> renew(claim), period, period, TimeUnit.MILLISECONDS);
+        return Optional.of(claim);
+    }
+
+    private void renew(Claim claim) {
+        try {
+            if (jdbcTemplate.update(RENEW_SQL, params(claim).addValue("seconds", lease.toSeconds())) == 0) {
+                log.warn("⚠️ Idempotency key {} is no longer held by this request", claim.key);
+                claim.close();
+            }
+        } catch (RuntimeException e) {
+            // Banco fora: tenta de novo no próximo ciclo, ainda dentro do lease
+            log.error("❌ Renewing idempotency key {} failed: {}", claim.key, e.getMessage());
+        }
+    }
+
+    Optional<Entry> find(UUID userId, String key) {
+        List<Entry> entries = jdbcTemplate.query("""
+                SELECT fingerprint, response_status, response_headers, response_body
+                FROM idempotency_keys WHERE user_id = :userId AND idempotency_key = :key""",
+                params(userId, key), (rs, row) -> new Entry(
+                        rs.getString("fingerprint"),
+                        rs.getObject("response_status", Integer.class),
+                        rs.getString("response_headers"),
+                        rs.getBytes("response_body")));
+        return entries.stream().findFirst();
+    }
+
+    /**
+     * @return false se a reserva já não era desta requisição (nada foi gravado)
+     */
+    boolean complete(Claim claim, int status, String headers, byte[] body) {
+        return jdbcTemplate.update("""
+                UPDATE idempotency_keys
+                SET response_status = :status, response_headers = :headers, response_body = :body,
+                    expires_at = now() + make_interval(secs => :seconds)
+                WHERE user_id = :userId AND idempotency_key = :key AND claim_token = :token""",
+                params(claim)
+                        .addValue("status", status)
+                        .addValue("headers", headers)
+                        .addValue("body", body)
+                        .addValue("seconds", ttl.toSeconds())) == 1;
+    }
+
+    /**
+     * Sem resposta para repetir (erro): a próxima tentativa com a mesma chave executa de novo
+     */
+    void release(Claim claim) {
+        jdbcTemplate.update("""
+                DELETE FROM idempotency_keys
+                WHERE user_id = :userId AND idempotency_key = :key AND claim_token = :token""",
+                params(claim));
+    }
+
+    /**
+     * No máximo uma vez por PURGE_INTERVAL por nó, na carona de uma reserva
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last < PURGE_INTERVAL.toMillis() || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < now()", new MapSqlParameterSource());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static MapSqlParameterSource params(UUID userId, String key) {
+        return new MapSqlParameterSource("userId", userId).addValue("key", key);
+    }
+
+    private static MapSqlParameterSource params(Claim claim) {
+        return params(claim.userId, claim.key).addValue("token", claim.token);
+    }
+}
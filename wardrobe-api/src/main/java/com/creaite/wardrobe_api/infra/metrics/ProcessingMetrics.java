@@ -0,0 +1,85 @@
+package com.creaite.wardrobe_api.infra.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas do pipeline de processamento de roupas.
+ * Cada etapa (decode, resize, DALL-E, download, remove.bg, saves) vira um timer
+ * com histograma em "clothes.processing.stage", tag "stage".
+ */
+@Component
+@RequiredArgsConstructor
+public class ProcessingMetrics {
+
+    public static final String STAGE_DECODE = "decode";
+    public static final String STAGE_RESIZE = "resize";
+    public static final String STAGE_MASK = "mask";
+    public static final String STAGE_AI_EDIT = "dalle_edit";
+    public static final String STAGE_DOWNLOAD = "result_download";
+    public static final String STAGE_STUDIO = "studio_enhance";
+    public static final String STAGE_REMOVE_BACKGROUND = "remove_bg";
+    public static final String STAGE_REMOVE_BACKGROUND_LOCAL = "remove_bg_local";
+    public static final String STAGE_TRIM = "cutout_trim";
+    public static final String STAGE_COLOR = "color_extract";
+    public static final String STAGE_FEATURES = "visual_features";
+    public static final String STAGE_PHASH = "phash";
+    public static final String STAGE_DB_SAVE = "db_save";
+    public static final String STAGE_TOTAL = "total";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Timer da etapa. O Micrometer reaproveita o mesmo meter para nome + tags iguais.
+     */
+    public Timer stage(String stage) {
+        return Timer.builder("clothes.processing.stage")
+                .description("Duração de cada etapa do processamento de roupas")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Resultado final de um item: completed ou failed
+     */
+    public void outcome(String outcome) {
+        Counter.builder("clothes.processing.outcome")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Etapa que falhou e foi ignorada (o pipeline seguiu com a imagem anterior)
+     */
+    public void fallback(String stage) {
+        Counter.builder("clothes.processing.fallback")
+                .tag("stage", stage)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Upload quase idêntico a uma peça existente, por política (flag = criado mesmo assim, skip = descartado)
+     */
+    public void duplicate(String policy) {
+        Counter.builder("clothes.upload.duplicates")
+                .tag("policy", policy)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Decisão na entrada do processamento: accepted, deferred (fila durável) ou rejected (429)
+     */
+    public void admission(String outcome) {
+        Counter.builder("clothes.processing.admission")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+}
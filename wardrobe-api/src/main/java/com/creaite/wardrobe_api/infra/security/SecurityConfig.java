@@ -2,6 +2,7 @@ package com.creaite.wardrobe_api.infra.security;
 
 import com.creaite.wardrobe_api.infra.security.oauth.OAuth2LoginSuccessHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -29,6 +30,10 @@ public class SecurityConfig {
     @Autowired
     private OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
 
+    // Porta do actuator (management.server.port), fora do balanceador; -1 = mesma porta da API
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -41,8 +46,19 @@ public class SecurityConfig {
                         // OAuth2
                         .requestMatchers("/oauth2/**", "/login/oauth2/**").permitAll()
 
+                        // Feed público de descoberta
+                        .requestMatchers(HttpMethod.GET, "/feed/**").permitAll()
+
+                        // Actuator: só na porta de gerenciamento (scrape do Prometheus, rede interna). Métricas expõem
+                        // executor, pool, filas e caches: em qualquer outra porta são negadas, mesmo para usuário logado.
+                        // Probes do balanceador na porta da API: /livez e /readyz
+                        .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/**").denyAll()
+
                         // Todas as outras rotas requerem autenticação
                         .requestMatchers("/clothes/**").authenticated()
+                        .requestMatchers("/outfits/**").authenticated()
                         .requestMatchers("/ai/**").authenticated()
                         .anyRequest().permitAll()
                 )
@@ -0,0 +1,30 @@
+package com.creaite.wardrobe_api.repositories;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Consultas que selecionam só as colunas pedidas (?fields= / ?view=).
+ * Cada elemento da Tuple tem como alias o atributo do campo (ClothesField.attribute()).
+ */
+public interface ClothesProjectionRepository {
+
+    /**
+     * Cursor ordenado por created_at; precisa de transação aberta e de close()
+     */
+    Stream<Tuple> streamProjection(UUID userId, ClothingCategory category, Set<ClothesField> fields);
+
+    Optional<Tuple> findProjection(UUID userId, UUID id, Set<ClothesField> fields);
+
+    /**
+     * Itens com change_seq > since em ordem de change_seq; além dos campos, cada Tuple traz "changeSeq"
+     */
+    List<Tuple> findChangedSince(UUID userId, long since, int limit, Set<ClothesField> fields);
+}
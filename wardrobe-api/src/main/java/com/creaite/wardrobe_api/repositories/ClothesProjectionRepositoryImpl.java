@@ -0,0 +1,92 @@
+package com.creaite.wardrobe_api.repositories;
+
+import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class ClothesProjectionRepositoryImpl implements ClothesProjectionRepository {
+
+    private static final int FETCH_SIZE = 64;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Tuple> streamProjection(UUID userId, ClothingCategory category, Set<ClothesField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Clothes> root = query.from(Clothes.class);
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("userId"), userId));
+        if (category != null) {
+            where.add(cb.equal(root.get("category"), category));
+        }
+
+        query.multiselect(selections(root, fields))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("createdAt")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Tuple> findProjection(UUID userId, UUID id, Set<ClothesField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Clothes> root = query.from(Clothes.class);
+
+        query.multiselect(selections(root, fields))
+                .where(cb.equal(root.get("id"), id), cb.equal(root.get("userId"), userId));
+
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    @Override
+    public List<Tuple> findChangedSince(UUID userId, long since, int limit, Set<ClothesField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Clothes> root = query.from(Clothes.class);
+
+        List<Selection<?>> selections = selections(root, fields);
+        selections.add(root.get("changeSeq").alias("changeSeq"));
+
+        query.multiselect(selections)
+                .where(cb.equal(root.get("userId"), userId), cb.greaterThan(root.get("changeSeq"), since))
+                .orderBy(cb.asc(root.get("changeSeq")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    private static List<Selection<?>> selections(Root<Clothes> root, Set<ClothesField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ClothesField field : fields) {
+            selections.add(root.get(field.attribute()).alias(field.attribute()));
+        }
+        return selections;
+    }
+}
@@ -2,13 +2,68 @@ package com.creaite.wardrobe_api.repositories;
 
 import com.creaite.wardrobe_api.domain.user.Clothes;
 import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ClothesRepository extends JpaRepository<Clothes, UUID> {
+public interface ClothesRepository extends JpaRepository<Clothes, UUID>, ClothesProjectionRepository {
     List<Clothes> findByUserId(UUID userId);
     List<Clothes> findByUserIdAndCategory(UUID userId, ClothingCategory category);
 
-}
\ No newline at end of file
+    // Só id + hash perceptual, para montar o índice de duplicatas sem ler as imagens
+    interface ImageHash {
+        UUID getId();
+        Long getImageHash();
+    }
+
+    List<ImageHash> findByUserIdAndImageHashIsNotNullOrderByCreatedAtAsc(UUID userId);
+
+    // Só id + vetor visual, para montar o índice de similaridade sem ler as imagens
+    interface VisualFeatures {
+        UUID getId();
+        byte[] getVisualFeatures();
+    }
+
+    List<VisualFeatures> findByUserIdAndVisualFeaturesIsNotNull(UUID userId);
+
+    Optional<VisualFeatures> findVisualFeaturesByIdAndUserId(UUID id, UUID userId);
+
+    // Só id + imagem processada, para a folha de contato
+    interface Picture {
+        UUID getId();
+        String getClothingPictureUrl();
+    }
+
+    List<Picture> findPicturesByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+
+    // Cursor do banco (fetch size) para respostas em streaming; precisam de transação aberta e de close()
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "16"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Clothes> streamByUserIdOrderByCreatedAtAsc(UUID userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "16"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Clothes> streamByUserIdAndCategoryOrderByCreatedAtAsc(UUID userId, ClothingCategory category);
+
+    // Inverte o favorito sem carregar as imagens do item; 0 = não existe ou não é do usuário
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Clothes c SET c.isFavorite = CASE WHEN c.isFavorite = true THEN false ELSE true END, c.updatedAt = :now " +
+            "WHERE c.id = :id AND c.userId = :userId")
+    int toggleFavorite(UUID id, UUID userId, LocalDateTime now);
+}
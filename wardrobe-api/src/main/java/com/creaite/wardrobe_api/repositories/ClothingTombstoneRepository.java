@@ -0,0 +1,12 @@
+package com.creaite.wardrobe_api.repositories;
+
+import com.creaite.wardrobe_api.domain.user.ClothingTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ClothingTombstoneRepository extends JpaRepository<ClothingTombstone, UUID> {
+    List<ClothingTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(UUID userId, long changeSeq, Limit limit);
+}
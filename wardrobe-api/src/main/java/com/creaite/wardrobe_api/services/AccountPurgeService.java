@@ -0,0 +1,232 @@
+package com.creaite.wardrobe_api.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exclusão de conta em duas etapas (V12):
+ *
+ * 1. na requisição, numa transação: apaga a linha de users e grava o pedido em account_purges.
+ *    A conta some na hora (login e tokens deixam de funcionar, email e username ficam livres);
+ * 2. numa thread própria, um pedido por vez: apaga as peças em lotes de chunk-size linhas
+ *    (DELETE ... WHERE id IN (SELECT ... WHERE user_id = ? LIMIT n)), cada lote no seu commit junto
+ *    com o progresso, e dorme entre lotes pelo menos o que o lote levou (no máximo metade do tempo
+ *    apagando), para não saturar WAL/IO. Por fim apaga os dados derivados (tombstones; o feed sai
+ *    pela FK) e marca DONE, só se não sobrou nenhuma peça (senão faz mais uma volta).
+ *
+ * Cada pedido tem dono (V15): a réplica que o reivindicou renova heartbeat_at a cada lote e as
+ * outras só o assumem sem dono ou com heartbeat mais velho que o lease. Uma varredura periódica
+ * pega os pedidos de réplicas que caíram; perdido o lease no meio, o lote é desfeito e a réplica
+ * desiste do pedido.
+ *
+ * Com o usuário já apagado, o trigger da V5 não grava tombstones nem mexe em change_seq para
+ * cada linha removida, e o da V15 recusa peças novas para ele. Apagar de novo é inofensivo.
+ */
+@Slf4j
+@Service
+public class AccountPurgeService implements SmartLifecycle {
+
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    // Lote desfeito porque outra réplica assumiu o pedido
+    private static final int LEASE_LOST = -1;
+
+    private static final String DELETE_CHUNK_SQL = """
+            DELETE FROM clothing_items
+            WHERE id IN (SELECT id FROM clothing_items WHERE user_id = :userId LIMIT :chunk)
+            """;
+
+    // Pedidos em aberto sem dono ou de uma réplica que parou de renovar o heartbeat
+    private static final String CLAIM_OPEN_SQL = """
+            UPDATE account_purges SET owner = :owner, heartbeat_at = now()
+            WHERE user_id IN (
+                SELECT user_id FROM account_purges
+                WHERE status <> 'DONE'
+                  AND (owner IS NULL OR (owner <> :owner AND heartbeat_at < now() - make_interval(secs => :leaseSeconds)))
+                ORDER BY requested_at
+                FOR UPDATE SKIP LOCKED)
+            RETURNING user_id
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE account_purges SET status = 'RUNNING', owner = :owner, heartbeat_at = now(), updated_at = now()
+            WHERE user_id = :userId AND status <> 'DONE'
+              AND (owner IS NULL OR owner = :owner OR heartbeat_at < now() - make_interval(secs => :leaseSeconds))
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final PublicFeedService feedService;
+    private final Counter purgedItems;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    private ScheduledExecutorService worker;
+    private volatile boolean running;
+
+    public AccountPurgeService(NamedParameterJdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               PublicFeedService feedService,
+                               MeterRegistry registry,
+                               @Value("${accounts.purge.chunk-size:50}") int chunkSize,
+                               @Value("${accounts.purge.pause:200ms}") Duration pause,
+                               @Value("${accounts.purge.lease:5m}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.feedService = feedService;
+        this.purgedItems = Counter.builder("accounts.purge.items").register(registry);
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lease = lease;
+    }
+
+    /**
+     * Apaga a conta e agenda a remoção das peças; retorna assim que a transação for confirmada
+     */
+    public void deleteAccount(UUID userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId).addValue("owner", owner);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    INSERT INTO account_purges (user_id, owner, heartbeat_at) VALUES (:userId, :owner, now())
+                    ON CONFLICT (user_id) DO UPDATE
+                    SET status = 'PENDING', finished_at = NULL, owner = :owner, heartbeat_at = now()""", params);
+            jdbcTemplate.update("DELETE FROM users WHERE id = :userId", params);
+        });
+        log.info("✅ Account {} deleted - clothing purge queued", userId);
+        schedule(userId, Duration.ZERO);
+    }
+
+    @Override
+    public void start() {
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        worker.scheduleWithFixedDelay(this::claimOpen, 0, lease.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reivindica os pedidos em aberto que ninguém está tocando (na subida e depois a cada lease)
+     */
+    void claimOpen() {
+        try {
+            List<UUID> claimed = jdbcTemplate.queryForList(CLAIM_OPEN_SQL, leaseParams(), UUID.class);
+            if (!claimed.isEmpty()) {
+                log.info("Resuming {} pending account purges", claimed.size());
+                claimed.forEach(userId -> schedule(userId, Duration.ZERO));
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Claiming pending account purges failed: {}", e.getMessage());
+        }
+    }
+
+    private MapSqlParameterSource leaseParams() {
+        return new MapSqlParameterSource("owner", owner).addValue("leaseSeconds", lease.toSeconds());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            // O lote em andamento termina (ou é desfeito); o pedido segue em aberto e é retomado na próxima subida
+            worker.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void schedule(UUID userId, Duration delay) {
+        if (running) {
+            worker.schedule(() -> purge(userId), delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void purge(UUID userId) {
+        long start = System.currentTimeMillis();
+        MapSqlParameterSource params = leaseParams().addValue("userId", userId).addValue("chunk", chunkSize);
+        try {
+            if (jdbcTemplate.update(CLAIM_SQL, params) == 0) {
+                log.debug("Account purge for {} is done or owned by another node", userId);
+                return;
+            }
+
+            long total = 0;
+            boolean done = false;
+            while (running && !done) {
+                while (running) {
+                    long chunkStart = System.nanoTime();
+                    Integer deleted = transaction.execute(status -> {
+                        int rows = jdbcTemplate.update(DELETE_CHUNK_SQL, params);
+                        int progress = jdbcTemplate.update("""
+                                UPDATE account_purges
+                                SET deleted_items = deleted_items + :deleted, chunks = chunks + 1,
+                                    heartbeat_at = now(), updated_at = now()
+                                WHERE user_id = :userId AND owner = :owner""",
+                                new MapSqlParameterSource(params.getValues()).addValue("deleted", rows));
+                        if (progress == 0) {
+                            status.setRollbackOnly();
+                            return LEASE_LOST;
+                        }
+                        return rows;
+                    });
+                    if (deleted != null && deleted == LEASE_LOST) {
+                        log.warn("⚠️ Account purge for {} was taken over by another node - stopping", userId);
+                        return;
+                    }
+                    if (deleted == null || deleted == 0) break;
+
+                    total += deleted;
+                    purgedItems.increment(deleted);
+                    long elapsedMillis = (System.nanoTime() - chunkStart) / 1_000_000;
+                    Thread.sleep(Math.max(pause.toMillis(), elapsedMillis));
+                }
+                if (!running) return;
+
+                jdbcTemplate.update("DELETE FROM clothing_tombstones WHERE user_id = :userId", params);
+                feedService.withdrawUser(userId);
+                // Peça inserida por um upload que já estava em andamento: mais uma volta antes do DONE
+                done = jdbcTemplate.update("""
+                        UPDATE account_purges SET status = 'DONE', last_error = NULL, updated_at = now(), finished_at = now()
+                        WHERE user_id = :userId AND owner = :owner
+                          AND NOT EXISTS (SELECT 1 FROM clothing_items WHERE user_id = :userId)""", params) > 0;
+            }
+            if (!done) return;
+            log.info("✅ Account {} purged: {} clothing items in {} ms", userId, total, System.currentTimeMillis() - start);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("❌ Account purge for {} failed, retrying in {} s: {}", userId, RETRY_DELAY.toSeconds(), e.getMessage());
+            try {
+                jdbcTemplate.update("""
+                        UPDATE account_purges SET last_error = left(:error, 255), heartbeat_at = now(), updated_at = now()
+                        WHERE user_id = :userId AND owner = :owner""",
+                        new MapSqlParameterSource(params.getValues()).addValue("error", String.valueOf(e.getMessage())));
+            } catch (RuntimeException ignored) {
+                // Banco fora: o erro já está no log, a nova tentativa é agendada de qualquer forma
+            }
+            schedule(userId, RETRY_DELAY);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
+import com.creaite.wardrobe_api.services.image.LocalBackgroundRemover;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escolhe o BackgroundRemover do item e faz o fallback remoto -> local.
+ * Depois de uma falha do remove.bg que vale para todos (fora do ar, 429, timeout, conta sem créditos),
+ * o remoto fica suspenso por um tempo e os itens vão direto para o motor local, sem pagar a latência
+ * de uma chamada que vai falhar. Uma imagem recusada (4xx dela) só cai no local sozinha.
+ *
+ * Cada motor tem o seu timer e o seu contador de falhas: remove_bg mede só a chamada ao remove.bg,
+ * remove_bg_local só o motor local (inclusive quando é fallback).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackgroundRemovalService {
+
+    private final RemoveBGService remoteRemover;
+    private final LocalBackgroundRemover localRemover;
+    private final ProcessingMetrics metrics;
+
+    private final AtomicLong remoteSuspendedUntil = new AtomicLong();
+
+    @Value("${processing.background-removal.default-engine:REMOTE}")
+    private BackgroundRemovalEngine defaultEngine;
+
+    @Value("${processing.background-removal.remote-cooldown:30s}")
+    private Duration remoteCooldown;
+
+    /**
+     * Motor efetivo: o pedido na requisição vence a preferência do usuário, que vence o padrão
+     */
+    public BackgroundRemovalEngine resolveEngine(BackgroundRemovalEngine requested, BackgroundRemovalEngine userPreference) {
+        if (requested != null) return requested;
+        if (userPreference != null) return userPreference;
+        return defaultEngine;
+    }
+
+    public String removeBackground(String imageBase64, BackgroundRemovalEngine engine) {
+        if (engine == BackgroundRemovalEngine.LOCAL) {
+            return removeLocally(imageBase64);
+        }
+
+        if (System.currentTimeMillis() < remoteSuspendedUntil.get()) {
+            log.info("remove.bg suspended after recent failure - using local engine");
+            metrics.fallback(ProcessingMetrics.STAGE_REMOVE_BACKGROUND);
+            return removeLocally(imageBase64);
+        }
+
+        try {
+            return metrics.stage(ProcessingMetrics.STAGE_REMOVE_BACKGROUND)
+                    .record(() -> remoteRemover.removeBackground(imageBase64));
+        } catch (Exception e) {
+            metrics.fallback(ProcessingMetrics.STAGE_REMOVE_BACKGROUND);
+            Duration suspension = suspension(e);
+            if (suspension == null) {
+                // Problema desta imagem (400 sem primeiro plano, 413...): o remoto continua valendo para as outras
+                log.warn("⚠️ remove.bg rejected this image: {} - using local engine for it", e.getMessage());
+            } else {
+                remoteSuspendedUntil.set(System.currentTimeMillis() + suspension.toMillis());
+                log.error("❌ remove.bg failed: {} - suspending for {}s", e.getMessage(), suspension.toSeconds());
+            }
+
+            log.info("Falling back to local background removal");
+            return removeLocally(imageBase64);
+        }
+    }
+
+    /**
+     * Por quanto tempo suspender o remoto, ou null se a falha é só desta imagem.
+     * Suspende com 429 (Retry-After), 5xx, I/O/timeout e erros da conta (chave inválida, sem créditos),
+     * que valeriam para qualquer imagem.
+     */
+    private Duration suspension(Exception e) {
+        if (e instanceof HttpClientErrorException.TooManyRequests tooManyRequests) {
+            return retryAfter(tooManyRequests, remoteCooldown);
+        }
+        if (e instanceof HttpServerErrorException || e instanceof ResourceAccessException) {
+            return remoteCooldown;
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            HttpStatusCode status = clientError.getStatusCode();
+            boolean account = status.value() == 401 || status.value() == 402 || status.value() == 403;
+            return account ? remoteCooldown : null;
+        }
+        // Resposta inesperada (ex.: 200 sem corpo): não é falha de rede nem de cota
+        return null;
+    }
+
+    private String removeLocally(String imageBase64) {
+        try {
+            return metrics.stage(ProcessingMetrics.STAGE_REMOVE_BACKGROUND_LOCAL)
+                    .record(() -> localRemover.removeBackground(imageBase64));
+        } catch (RuntimeException e) {
+            metrics.fallback(ProcessingMetrics.STAGE_REMOVE_BACKGROUND_LOCAL);
+            throw e;
+        }
+    }
+
+    private static Duration retryAfter(HttpClientErrorException.TooManyRequests e, Duration fallback) {
+        String retryAfter = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst("Retry-After") : null;
+        if (retryAfter != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException ignored) {
+                // Retry-After em formato de data HTTP: usa o cooldown padrão
+            }
+        }
+        return fallback;
+    }
+}
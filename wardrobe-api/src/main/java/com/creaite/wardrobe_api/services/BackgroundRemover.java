@@ -0,0 +1,10 @@
+package com.creaite.wardrobe_api.services;
+
+/**
+ * Estratégia de remoção de fundo.
+ * Recebe e devolve imagem em base64 (data URL); lança exceção se não conseguir remover.
+ */
+public interface BackgroundRemover {
+
+    String removeBackground(String imageBase64);
+}
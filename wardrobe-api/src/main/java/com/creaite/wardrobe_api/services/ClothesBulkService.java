@@ -0,0 +1,142 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.dto.ClothesBulkRequestDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Alterações em lote (POST /clothes/bulk): uma consulta confere a posse de todos os ids (e trava as
+ * linhas), cada operação vira um único UPDATE/DELETE ... WHERE id IN (...), tudo numa transação.
+ * Nenhuma entidade é carregada: as imagens não saem do banco.
+ *
+ * O snapshot do feed público acompanha na mesma transação (texto atualizado, peça privada sai);
+ * peças que passam a públicas precisam da miniatura e são devolvidas para publicar depois do commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClothesBulkService {
+
+    public static final int MAX_ITEMS = 1000;
+
+    /**
+     * @param affected linhas por operação; missing não vazio = nada foi aplicado
+     */
+    public record Outcome(List<Integer> affected, Set<UUID> touched, Set<UUID> deleted, Set<UUID> toPublish,
+                          Set<UUID> missing) {}
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @throws IllegalArgumentException pedido inválido (SET sem campos, ids demais)
+     */
+    @Transactional
+    public Outcome apply(UUID userId, List<ClothesBulkRequestDTO.Operation> operations) {
+        long start = System.currentTimeMillis();
+        Set<UUID> requested = new LinkedHashSet<>();
+        for (ClothesBulkRequestDTO.Operation operation : operations) {
+            requested.addAll(operation.ids());
+            if (operation.type() == ClothesBulkRequestDTO.Type.SET && isEmpty(operation.set())) {
+                throw new IllegalArgumentException("SET operation without fields");
+            }
+        }
+        if (requested.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_ITEMS + " clothing ids per request");
+        }
+
+        // Posse de todos os ids numa consulta; FOR UPDATE para ninguém excluir/alterar no meio do lote
+        MapSqlParameterSource ownership = new MapSqlParameterSource("userId", userId).addValue("ids", requested);
+        Set<UUID> owned = new LinkedHashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM clothing_items WHERE user_id = :userId AND id IN (:ids) FOR UPDATE",
+                ownership, UUID.class));
+        if (owned.size() < requested.size()) {
+            Set<UUID> missing = new LinkedHashSet<>(requested);
+            missing.removeAll(owned);
+            return new Outcome(List.of(), Set.of(), Set.of(), Set.of(), missing);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> affected = new ArrayList<>();
+        Set<UUID> deleted = new LinkedHashSet<>();
+        Set<UUID> toPublish = new LinkedHashSet<>();
+
+        for (ClothesBulkRequestDTO.Operation operation : operations) {
+            MapSqlParameterSource params = new MapSqlParameterSource("userId", userId)
+                    .addValue("ids", new LinkedHashSet<>(operation.ids()))
+                    .addValue("now", now);
+            affected.add(switch (operation.type()) {
+                case SET -> set(operation.set(), params, toPublish);
+                case TOGGLE_FAVORITE -> jdbcTemplate.update("""
+                        UPDATE clothing_items SET is_favorite = NOT coalesce(is_favorite, false), updated_at = :now
+                        WHERE user_id = :userId AND id IN (:ids)""", params);
+                case DELETE -> {
+                    deleted.addAll(operation.ids());
+                    // public_feed sai pela FK em cascata
+                    yield jdbcTemplate.update("DELETE FROM clothing_items WHERE user_id = :userId AND id IN (:ids)", params);
+                }
+            });
+        }
+        toPublish.removeAll(deleted);
+
+        Set<UUID> touched = new LinkedHashSet<>(requested);
+        touched.removeAll(deleted);
+        log.info("✅ Bulk update for user {}: {} operations over {} items ({} deleted) in {} ms",
+                userId, operations.size(), requested.size(), deleted.size(), System.currentTimeMillis() - start);
+        return new Outcome(affected, touched, deleted, toPublish, Set.of());
+    }
+
+    private int set(ClothesBulkRequestDTO.Fields fields, MapSqlParameterSource params, Set<UUID> toPublish) {
+        StringBuilder assignments = new StringBuilder("updated_at = :now");
+        assign(assignments, params, "name", fields.name());
+        assign(assignments, params, "category", fields.category() != null ? fields.category().name() : null);
+        assign(assignments, params, "color", fields.color());
+        assign(assignments, params, "brand", fields.brand());
+        assign(assignments, params, "description", fields.description());
+        assign(assignments, params, "is_public", fields.isPublic());
+        assign(assignments, params, "is_favorite", fields.isFavorite());
+
+        int rows = jdbcTemplate.update("UPDATE clothing_items SET " + assignments
+                + " WHERE user_id = :userId AND id IN (:ids)", params);
+
+        if (Boolean.FALSE.equals(fields.isPublic())) {
+            jdbcTemplate.update("DELETE FROM public_feed WHERE clothing_id IN (:ids)", params);
+        } else if (fields.name() != null || fields.category() != null || fields.color() != null || fields.brand() != null) {
+            jdbcTemplate.update("""
+                    UPDATE public_feed f SET name = c.name, category = c.category, color = c.color, brand = c.brand
+                    FROM clothing_items c
+                    WHERE c.id = f.clothing_id AND f.clothing_id IN (:ids)""", params);
+        }
+        if (Boolean.TRUE.equals(fields.isPublic())) {
+            toPublish.addAll(jdbcTemplate.queryForList("""
+                    SELECT id FROM clothing_items c
+                    WHERE id IN (:ids) AND processing_status = 'COMPLETED'
+                      AND NOT EXISTS (SELECT 1 FROM public_feed f WHERE f.clothing_id = c.id)""", params, UUID.class));
+        }
+        return rows;
+    }
+
+    private static void assign(StringBuilder assignments, MapSqlParameterSource params, String column, Object value) {
+        if (value != null) {
+            assignments.append(", ").append(column).append(" = :").append(column);
+            params.addValue(column, value);
+        }
+    }
+
+    private static boolean isEmpty(ClothesBulkRequestDTO.Fields fields) {
+        return fields == null || (fields.name() == null && fields.category() == null && fields.color() == null
+                && fields.brand() == null && fields.description() == null && fields.isPublic() == null
+                && fields.isFavorite() == null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.dto.ClothesCollectionVersion;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import com.creaite.wardrobe_api.infra.cache.CacheInvalidationBus;
+import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.Tuple;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Cache em memória dos metadados (ClothesField.SUMMARY, sem as imagens) do guarda-roupa de cada usuário.
+ *
+ * Listagem sem imagens, ETag da listagem e polling de status saem daqui sem ir ao banco.
+ * O limite é em número de itens somando todos os usuários (weigher), com a política
+ * W-TinyLFU do Caffeine decidindo quem sai; entradas paradas expiram por expire-after-access.
+ *
+ * Toda escrita em clothing_items precisa chamar invalidate(userId) depois do commit; as demais
+ * réplicas são avisadas pelo CacheInvalidationBus.
+ * Se uma carga estiver em andamento para o mesmo usuário, o invalidate espera ela terminar
+ * e descarta o resultado, então um snapshot anterior ao commit nunca fica no cache.
+ */
+@Slf4j
+@Service
+public class ClothesMetadataCache {
+
+    /**
+     * Metadados de um usuário, em ordem de criação. Mapas imutáveis: são compartilhados entre requisições.
+     */
+    public record Wardrobe(List<Map<String, Object>> items, Map<UUID, Map<String, Object>> byId,
+                           ClothesCollectionVersion version) {
+
+        public Optional<Map<String, Object>> find(UUID id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+    }
+
+    // Tipo publicado pelos triggers de clothing_items, com o user_id como id
+    static final String INVALIDATION_TYPE = "wardrobe";
+
+    private final ClothesRepository clothesRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<UUID, Wardrobe> cache;
+
+    public ClothesMetadataCache(ClothesRepository clothesRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry registry,
+                                CacheInvalidationBus invalidationBus,
+                                @Value("${wardrobe.cache.max-items:100000}") long maxItems,
+                                @Value("${wardrobe.cache.expire-after-access:15m}") Duration expireAfterAccess) {
+        this.clothesRepository = clothesRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxItems)
+                // +1 para guarda-roupas vazios também ocuparem espaço
+                .weigher((UUID userId, Wardrobe wardrobe) -> wardrobe.items().size() + 1)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size... com tag cache=clothes.metadata
+        CaffeineCacheMetrics.monitor(registry, cache, "clothes.metadata");
+
+        // Escritas em outras réplicas (e SQL fora da aplicação) chegam pelos triggers da V6
+        invalidationBus.subscribe(INVALIDATION_TYPE, this::invalidate, cache::invalidateAll);
+    }
+
+    public Wardrobe get(UUID userId) {
+        return cache.get(userId, this::load);
+    }
+
+    public void invalidate(UUID userId) {
+        cache.invalidate(userId);
+    }
+
+    private Wardrobe load(UUID userId) {
+        long start = System.currentTimeMillis();
+
+        Wardrobe wardrobe = readOnlyTransaction.execute(status -> {
+            List<Map<String, Object>> items = new ArrayList<>();
+            Map<UUID, Map<String, Object>> byId = new HashMap<>();
+            LocalDateTime lastUpdatedAt = null;
+
+            try (Stream<Tuple> rows = clothesRepository.streamProjection(userId, null, ClothesField.SUMMARY)) {
+                for (Tuple row : (Iterable<Tuple>) rows::iterator) {
+                    Map<String, Object> item = Collections.unmodifiableMap(ClothesField.toMap(row, ClothesField.SUMMARY));
+                    items.add(item);
+                    byId.put((UUID) item.get(ClothesField.ID.attribute()), item);
+
+                    LocalDateTime updatedAt = (LocalDateTime) item.get(ClothesField.UPDATED_AT.attribute());
+                    if (updatedAt != null && (lastUpdatedAt == null || updatedAt.isAfter(lastUpdatedAt))) {
+                        lastUpdatedAt = updatedAt;
+                    }
+                }
+            }
+
+            return new Wardrobe(List.copyOf(items), Map.copyOf(byId), new ClothesCollectionVersion(items.size(), lastUpdatedAt));
+        });
+
+        log.debug("Loaded metadata cache for user {}: {} items in {} ms",
+                userId, wardrobe.items().size(), System.currentTimeMillis() - start);
+        return wardrobe;
+    }
+}
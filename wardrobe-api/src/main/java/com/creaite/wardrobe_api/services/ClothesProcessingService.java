@@ -1,98 +1,293 @@
 // wardrobe-api/src/main/java/com/creaite/wardrobe_api/services/ClothesProcessingService.java
 package com.creaite.wardrobe_api.services;
 
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
 import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.EnhancementMode;
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
 import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.creaite.wardrobe_api.services.image.ColorExtractor;
+import com.creaite.wardrobe_api.services.image.ColorPalette;
+import com.creaite.wardrobe_api.services.image.CutoutNormalizer;
+import com.creaite.wardrobe_api.services.image.ImageCodec;
+import com.creaite.wardrobe_api.services.image.NormalizedCutout;
+import com.creaite.wardrobe_api.services.image.StudioEnhancer;
+import com.creaite.wardrobe_api.services.image.VisualFeatureExtractor;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.awt.image.BufferedImage;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ClothesProcessingService {
 
+    // Cor padrão dos uploads (ClothesController) enquanto o usuário não informa outra
+    private static final String UNKNOWN_COLOR = "Unknown";
+    // processing_error VARCHAR(255)
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    // O pipeline grava só as próprias colunas: nome, visibilidade, favorito etc. podem ter sido editados pelo
+    // usuário enquanto a peça processava, e a entidade carregada no início não pode sobrescrevê-los
+    private static final String STATUS_SQL = """
+            UPDATE clothing_items SET processing_status = :status, processing_error = :error, updated_at = :now
+            WHERE id = :id
+            RETURNING user_id""";
+
+    // A cor detectada só entra se, agora no banco, o usuário ainda não informou uma
+    private static final String RESULT_SQL = """
+            UPDATE clothing_items SET
+                processing_status = :status, processing_error = :error, image_url = :picture,
+                color_palette = COALESCE(:palette, color_palette),
+                visual_features = COALESCE(:features, visual_features),
+                color = CASE WHEN color IS NULL OR btrim(color) = '' OR lower(color) = lower(:unknownColor)
+                             THEN COALESCE(:detectedColor, color) ELSE color END,
+                updated_at = :now
+            WHERE id = :id
+            RETURNING user_id""";
+
     private final ClothesRepository clothesRepository;
     private final OpenAIService openAIService;
-    private final RemoveBGService removeBGService;
+    private final StudioEnhancer studioEnhancer;
+    private final CutoutNormalizer cutoutNormalizer;
+    private final ColorExtractor colorExtractor;
+    private final VisualFeatureExtractor visualFeatureExtractor;
+    private final VisualSimilarityIndex similarityIndex;
+    private final BackgroundRemovalService backgroundRemovalService;
+    private final ProcessingMetrics metrics;
+    private final ClothesMetadataCache metadataCache;
+    private final PublicFeedService feedService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Itens entregues ao taskExecutor e ainda não terminados; base do Retry-After do ProcessingAdmission
+    private final AtomicLong pendingItems = new AtomicLong();
+
+    /**
+     * Chamado por quem submete (ProcessingAdmission), antes da chamada @Async; negativo se a submissão foi recusada
+     */
+    public void itemsSubmitted(int count) {
+        pendingItems.addAndGet(count);
+    }
+
+    public long pendingItems() {
+        return Math.max(0, pendingItems.get());
+    }
 
     /**
      * Processa a imagem de forma assíncrona
      * @param clothingId ID da roupa
-     * @param enhanceWithAI Se deve processar com IA
+     * @param enhancement Melhoria antes da remoção de fundo (nenhuma, DALL-E ou estúdio local)
+     * @param backgroundRemoval Motor de remoção de fundo (remoto com fallback local, ou local)
      */
     @Async("taskExecutor")
-    public void processClothingImageAsync(UUID clothingId, boolean enhanceWithAI) {
+    public void processClothingImageAsync(UUID clothingId, EnhancementMode enhancement, BackgroundRemovalEngine backgroundRemoval) {
+        Timer.Sample totalSample = Timer.start();
         try {
             log.info("=== Starting async processing for clothing ID: {} ===", clothingId);
-            log.info("Enhance with AI: {}", enhanceWithAI);
+            log.info("Enhancement: {}", enhancement);
+            log.info("Background removal engine: {}", backgroundRemoval);
 
             Clothes clothing = clothesRepository.findById(clothingId)
                     .orElseThrow(() -> new RuntimeException("Clothing not found"));
 
             String processedImage = clothing.getOriginalImageUrl();
+            ColorPalette palette = null;
+            float[] visualFeatures = null;
+
+            boolean enhance = enhancement != EnhancementMode.NONE;
 
             // Etapa 1: Processar com IA (se solicitado)
-            if (enhanceWithAI) {
+            if (enhancement == EnhancementMode.AI) {
                 log.info("Step 1/2: Processing with AI...");
-                clothing.setProcessingStatus(Clothes.ProcessingStatus.PROCESSING_AI);
-                clothesRepository.save(clothing);
+                updateStatus(clothingId, Clothes.ProcessingStatus.PROCESSING_AI, null);
 
                 try {
                     processedImage = openAIService.enhanceImageWithAI(processedImage);
                     log.info("✅ AI enhancement complete");
                 } catch (Exception e) {
                     log.error("❌ AI enhancement failed: {}", e.getMessage());
+                    metrics.fallback(ProcessingMetrics.STAGE_AI_EDIT);
+                    // Continua com a imagem original
+                }
+            }
+
+            // Etapa 1 (alternativa): melhoria local de estúdio
+            if (enhancement == EnhancementMode.STUDIO) {
+                log.info("Step 1/2: Studio enhancement...");
+                updateStatus(clothingId, Clothes.ProcessingStatus.PROCESSING, null);
+
+                try {
+                    String imageForStudio = processedImage;
+                    processedImage = metrics.stage(ProcessingMetrics.STAGE_STUDIO)
+                            .record(() -> studioEnhancer.enhance(imageForStudio));
+                } catch (Exception e) {
+                    log.error("❌ Studio enhancement failed: {}", e.getMessage());
+                    metrics.fallback(ProcessingMetrics.STAGE_STUDIO);
                     // Continua com a imagem original
                 }
             }
 
             // Etapa 2: Remover fundo (sempre)
-            log.info("Step {}/2: Removing background...", enhanceWithAI ? 2 : 1);
-            clothing.setProcessingStatus(Clothes.ProcessingStatus.REMOVING_BACKGROUND);
-            clothesRepository.save(clothing);
+            log.info("Step {}/2: Removing background...", enhance ? 2 : 1);
+            updateStatus(clothingId, Clothes.ProcessingStatus.REMOVING_BACKGROUND, null);
 
             try {
-                processedImage = removeBGService.removeBackground(processedImage);
+                // Tempo e falhas ficam por motor, dentro do BackgroundRemovalService
+                processedImage = backgroundRemovalService.removeBackground(processedImage, backgroundRemoval);
                 log.info("✅ Background removal complete");
+
+                // Recorta o excesso transparente antes de salvar (menos bytes no banco e na listagem)
+                BufferedImage cutoutImage = null;
+                try {
+                    String cutout = processedImage;
+                    NormalizedCutout normalized = metrics.stage(ProcessingMetrics.STAGE_TRIM)
+                            .record(() -> cutoutNormalizer.normalize(cutout));
+                    processedImage = normalized.dataUrl();
+                    cutoutImage = normalized.image();
+                } catch (Exception e) {
+                    log.error("❌ Cutout trim failed: {}", e.getMessage());
+                    metrics.fallback(ProcessingMetrics.STAGE_TRIM);
+                }
+
+                // Cor predominante: só com o fundo removido, senão a paleta seria a do cenário
+                palette = extractColors(cutoutImage, processedImage);
+                visualFeatures = extractVisualFeatures(cutoutImage, processedImage);
             } catch (Exception e) {
-                log.error("❌ Background removal failed: {}", e.getMessage());
-                // Continua com a imagem que tem (com ou sem IA)
+                // Remoto e local falharam: sem recorte a peça não vai para o feed nem para os índices
+                log.error("❌ Background removal failed for clothing {}: {}", clothingId, e.getMessage());
+                saveResult(clothingId, Clothes.ProcessingStatus.FAILED,
+                        errorMessage("Background removal failed: " + e.getMessage()), processedImage, null, null);
+                dequeue(clothingId);
+                metrics.outcome("failed");
+                return;
             }
 
             // Finaliza o processamento
-            clothing.setClothingPictureUrl(processedImage);
-            clothing.setProcessingStatus(Clothes.ProcessingStatus.COMPLETED);
-            clothing.setProcessingError(null);
-            clothesRepository.save(clothing);
+            saveResult(clothingId, Clothes.ProcessingStatus.COMPLETED, null, processedImage, palette, visualFeatures);
+            dequeue(clothingId);
+            if (visualFeatures != null) {
+                similarityIndex.add(clothing.getUserId(), clothingId, visualFeatures);
+            }
+            feedService.sync(clothingId);
 
+            metrics.outcome("completed");
             log.info("✅ Clothing {} processing completed successfully", clothingId);
 
         } catch (Exception e) {
             log.error("❌ Error processing clothing {}: {}", clothingId, e.getMessage(), e);
+            metrics.outcome("failed");
 
-            clothesRepository.findById(clothingId).ifPresent(clothing -> {
-                clothing.setProcessingStatus(Clothes.ProcessingStatus.FAILED);
-                clothing.setProcessingError(e.getMessage());
-                clothesRepository.save(clothing);
-            });
+            try {
+                updateStatus(clothingId, Clothes.ProcessingStatus.FAILED, errorMessage(e.getMessage()));
+            } catch (Exception saveError) {
+                log.error("❌ Could not mark clothing {} as failed: {}", clothingId, saveError.getMessage());
+            }
+            dequeue(clothingId);
+        } finally {
+            pendingItems.decrementAndGet();
+            totalSample.stop(metrics.stage(ProcessingMetrics.STAGE_TOTAL));
         }
     }
 
+    private static String errorMessage(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * Estado final gravado: o pedido adiado (se houver) sai da processing_queue. Até aqui a linha fica
+     * reivindicada, para outra réplica retomar a peça se este nó cair no meio.
+     */
+    private void dequeue(UUID clothingId) {
+        try {
+            jdbcTemplate.update("DELETE FROM processing_queue WHERE clothing_id = :clothingId",
+                    new MapSqlParameterSource("clothingId", clothingId));
+        } catch (Exception e) {
+            // A linha fica reivindicada e volta depois do claim-timeout: no pior caso a peça é reprocessada
+            log.error("❌ Failed to remove clothing {} from processing queue: {}", clothingId, e.getMessage());
+        }
+    }
+
+    /**
+     * Paleta do recorte; o nome da cor predominante só vira a cor da peça se o usuário não informou uma (RESULT_SQL)
+     */
+    private ColorPalette extractColors(BufferedImage cutoutImage, String cutoutDataUrl) {
+        try {
+            return metrics.stage(ProcessingMetrics.STAGE_COLOR).record(() -> cutoutImage != null
+                    ? colorExtractor.extract(cutoutImage)
+                    : colorExtractor.extract(cutoutDataUrl));
+        } catch (Exception e) {
+            log.error("❌ Color extraction failed: {}", e.getMessage());
+            metrics.fallback(ProcessingMetrics.STAGE_COLOR);
+            return null;
+        }
+    }
+
+    /**
+     * Vetor de cor + silhueta para a busca por peças parecidas; null se não der para extrair
+     */
+    private float[] extractVisualFeatures(BufferedImage cutoutImage, String cutoutDataUrl) {
+        try {
+            return metrics.stage(ProcessingMetrics.STAGE_FEATURES).recordCallable(() -> visualFeatureExtractor.extract(
+                    cutoutImage != null ? cutoutImage : ImageCodec.readImage(cutoutDataUrl)));
+        } catch (Exception e) {
+            log.error("❌ Visual feature extraction failed: {}", e.getMessage());
+            metrics.fallback(ProcessingMetrics.STAGE_FEATURES);
+            return null;
+        }
+    }
+
+    /**
+     * Cada mudança de status invalida o cache de metadados para o polling ver o novo estado
+     */
+    private void updateStatus(UUID clothingId, Clothes.ProcessingStatus status, String error) {
+        write(STATUS_SQL, new MapSqlParameterSource("id", clothingId)
+                .addValue("status", status.name())
+                .addValue("error", error));
+    }
+
+    /**
+     * Estado final com o resultado do pipeline; palette/features null mantêm o que já estava gravado
+     */
+    private void saveResult(UUID clothingId, Clothes.ProcessingStatus status, String error, String picture,
+                            ColorPalette palette, float[] features) {
+        write(RESULT_SQL, new MapSqlParameterSource("id", clothingId)
+                .addValue("status", status.name())
+                .addValue("error", error)
+                .addValue("picture", picture)
+                .addValue("palette", palette != null ? palette.encoded() : null, Types.VARCHAR)
+                .addValue("features", features != null ? VisualFeatureExtractor.encode(features) : null, Types.BINARY)
+                .addValue("unknownColor", UNKNOWN_COLOR)
+                .addValue("detectedColor", palette != null ? palette.name() : null, Types.VARCHAR));
+    }
+
+    private void write(String sql, MapSqlParameterSource params) {
+        List<UUID> owners = metrics.stage(ProcessingMetrics.STAGE_DB_SAVE).record(() -> jdbcTemplate.queryForList(
+                sql, params.addValue("now", LocalDateTime.now()), UUID.class));
+        owners.forEach(metadataCache::invalidate);
+    }
+
     /**
      * Processa múltiplas imagens em batch
      */
     @Async("taskExecutor")
-    public void processBatchClothingImagesAsync(Iterable<UUID> clothingIds, boolean enhanceWithAI) {
+    public void processBatchClothingImagesAsync(Iterable<UUID> clothingIds, EnhancementMode enhancement, BackgroundRemovalEngine backgroundRemoval) {
         log.info("=== Starting batch processing ===");
-        log.info("Enhance with AI: {}", enhanceWithAI);
+        log.info("Enhancement: {}", enhancement);
 
         for (UUID clothingId : clothingIds) {
             try {
-                processClothingImageAsync(clothingId, enhanceWithAI);
+                processClothingImageAsync(clothingId, enhancement, backgroundRemoval);
 
                 // Pequeno delay entre processamentos
                 Thread.sleep(2000);
@@ -0,0 +1,184 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesSearchResultDTO;
+import com.creaite.wardrobe_api.dto.ClothesSummaryDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Busca textual com facetas no guarda-roupa do usuário (índice GIN da V7).
+ *
+ * Duas consultas no mesmo snapshot: a página, ordenada por relevância (ts_rank) quando há texto,
+ * e as facetas, numa única passada com GROUPING SETS. Nenhuma das duas lê as colunas de imagem.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClothesSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    // Marcas/cores distintas podem ser muitas: só as mais frequentes vão na resposta
+    private static final int FACET_LIMIT = 20;
+    private static final int MAX_TERMS = 8;
+
+    // Mesma expressão do idx_clothing_items_search, senão o índice não é usado
+    private static final String SEARCH_VECTOR = "clothing_search_vector(name, brand, color, description)";
+    private static final String TS_QUERY = "to_tsquery('simple', :query)";
+
+    private static final String SUMMARY_COLUMNS = """
+            id, name, category, color, color_palette, brand, description, is_public, is_favorite,
+            processing_status, processing_error, created_at, updated_at""";
+
+    private static final String FACETS_SQL = """
+            SELECT category, color, brand, is_favorite,
+                   GROUPING(category) AS no_category, GROUPING(color) AS no_color,
+                   GROUPING(brand) AS no_brand, count(*) AS matches
+            FROM clothing_items
+            WHERE %s
+            GROUP BY GROUPING SETS ((category), (color), (brand), (is_favorite))
+            ORDER BY matches DESC
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ClothesSearchResultDTO search(UUID userId, String text, ClothingCategory category, String color,
+                                         String brand, Boolean favorite, int page, int size) {
+        long start = System.currentTimeMillis();
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        int pageNumber = Math.max(0, page);
+
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        StringBuilder where = new StringBuilder("user_id = :userId");
+
+        String query = toTsQuery(text);
+        if (query != null) {
+            where.append(" AND ").append(SEARCH_VECTOR).append(" @@ ").append(TS_QUERY);
+            params.addValue("query", query);
+        }
+        if (category != null) {
+            where.append(" AND category = :category");
+            params.addValue("category", category.name());
+        }
+        if (color != null && !color.isBlank()) {
+            where.append(" AND lower(color) = lower(:color)");
+            params.addValue("color", color.trim());
+        }
+        if (brand != null && !brand.isBlank()) {
+            where.append(" AND lower(brand) = lower(:brand)");
+            params.addValue("brand", brand.trim());
+        }
+        if (favorite != null) {
+            where.append(" AND is_favorite = :favorite");
+            params.addValue("favorite", favorite);
+        }
+
+        String order = query != null
+                ? "ts_rank(" + SEARCH_VECTOR + ", " + TS_QUERY + ") DESC, created_at DESC, id"
+                : "created_at DESC, id";
+        params.addValue("limit", pageSize + 1);
+        params.addValue("offset", (long) pageNumber * pageSize);
+
+        List<ClothesSummaryDTO> items = jdbcTemplate.query(
+                "SELECT " + SUMMARY_COLUMNS + " FROM clothing_items WHERE " + where
+                        + " ORDER BY " + order + " LIMIT :limit OFFSET :offset",
+                params, (rs, row) -> toSummary(rs));
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("category", new LinkedHashMap<>());
+        facets.put("color", new LinkedHashMap<>());
+        facets.put("brand", new LinkedHashMap<>());
+        facets.put("isFavorite", new LinkedHashMap<>());
+        long[] total = {0};
+
+        jdbcTemplate.query(FACETS_SQL.formatted(where), params, (ResultSet rs) -> {
+            long matches = rs.getLong("matches");
+            if (rs.getInt("no_category") == 0) {
+                // Cada item cai em exatamente um grupo de categoria (inclusive null): a soma é o total
+                total[0] += matches;
+                addFacet(facets.get("category"), rs.getString("category"), matches);
+            } else if (rs.getInt("no_color") == 0) {
+                addFacet(facets.get("color"), rs.getString("color"), matches);
+            } else if (rs.getInt("no_brand") == 0) {
+                addFacet(facets.get("brand"), rs.getString("brand"), matches);
+            } else {
+                Boolean isFavorite = rs.getObject("is_favorite", Boolean.class);
+                addFacet(facets.get("isFavorite"), isFavorite != null ? isFavorite.toString() : null, matches);
+            }
+        });
+
+        log.info("✅ Search for user {} ('{}'): {} of {} matches in {} ms",
+                userId, query, items.size(), total[0], System.currentTimeMillis() - start);
+        return new ClothesSearchResultDTO(items, pageNumber, pageSize, total[0], hasMore, facets);
+    }
+
+    /**
+     * Texto livre -> tsquery com prefixo em cada termo ("cam azu" -> "cam:* & azu:*").
+     * Só letras e dígitos passam, então nada do texto é interpretado como operador de tsquery.
+     */
+    static String toTsQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(token + ":*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    private static void addFacet(Map<String, Long> facet, String value, long matches) {
+        if (value != null && facet.size() < FACET_LIMIT) {
+            facet.put(value, matches);
+        }
+    }
+
+    private static ClothesSummaryDTO toSummary(ResultSet rs) throws SQLException {
+        String category = rs.getString("category");
+        return new ClothesSummaryDTO(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                category != null ? ClothingCategory.valueOf(category) : null,
+                rs.getString("color"),
+                rs.getString("color_palette"),
+                rs.getString("brand"),
+                rs.getString("description"),
+                rs.getObject("is_public", Boolean.class),
+                rs.getObject("is_favorite", Boolean.class),
+                Clothes.ProcessingStatus.valueOf(rs.getString("processing_status")),
+                rs.getString("processing_error"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at"))
+        );
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
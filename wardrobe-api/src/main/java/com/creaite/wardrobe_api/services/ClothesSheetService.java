@@ -0,0 +1,111 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesCollectionVersion;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import com.creaite.wardrobe_api.dto.ClothesSheetDTO;
+import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.creaite.wardrobe_api.services.image.ContactSheetRenderer;
+import com.creaite.wardrobe_api.services.image.ImageCodec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Folha de contato do guarda-roupa (GET /user/clothes/sheet): uma página de miniaturas num único JPEG
+ * + as coordenadas de cada peça, para a tela de grade renderizar com uma requisição e um decode.
+ *
+ * A página segue a ordem da listagem (criação), com os itens vindos do ClothesMetadataCache;
+ * do banco só saem as imagens da página. O resultado fica em cache por (usuário, versão do
+ * guarda-roupa, categoria, página, tamanho), limitado pelo total de bytes dos JPEGs.
+ */
+@Slf4j
+@Service
+public class ClothesSheetService {
+
+    public static final int DEFAULT_PAGE_SIZE = 36;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private record Key(UUID userId, ClothesCollectionVersion version, ClothingCategory category, int page, int size) {}
+
+    private final ClothesRepository clothesRepository;
+    private final ContactSheetRenderer renderer;
+    private final Cache<Key, ClothesSheetDTO> sheets;
+    private final int columns;
+    private final int tileSize;
+
+    public ClothesSheetService(ClothesRepository clothesRepository,
+                               ContactSheetRenderer renderer,
+                               MeterRegistry registry,
+                               @Value("${wardrobe.sheet.columns:6}") int columns,
+                               @Value("${wardrobe.sheet.tile-size:160}") int tileSize,
+                               @Value("${wardrobe.sheet.cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${wardrobe.sheet.cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.clothesRepository = clothesRepository;
+        this.renderer = renderer;
+        this.columns = columns;
+        this.tileSize = tileSize;
+
+        this.sheets = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, ClothesSheetDTO sheet) -> sheet.image().length() + 64 * sheet.tiles().size())
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, sheets, "clothes.sheet");
+    }
+
+    /**
+     * Folha da página a partir do snapshot de metadados (o mesmo usado no ETag da resposta)
+     */
+    public ClothesSheetDTO sheet(UUID userId, ClothesMetadataCache.Wardrobe wardrobe, ClothingCategory category, int page, int size) {
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        int pageNumber = Math.max(0, page);
+        Key key = new Key(userId, wardrobe.version(), category, pageNumber, pageSize);
+        return sheets.get(key, ignored -> render(userId, wardrobe, category, pageNumber, pageSize));
+    }
+
+    private ClothesSheetDTO render(UUID userId, ClothesMetadataCache.Wardrobe wardrobe, ClothingCategory category,
+                                   int page, int size) {
+        List<UUID> matching = new ArrayList<>();
+        for (Map<String, Object> item : wardrobe.items()) {
+            if (category == null || category == item.get(ClothesField.CATEGORY.attribute())) {
+                matching.add((UUID) item.get(ClothesField.ID.attribute()));
+            }
+        }
+
+        int from = (int) Math.min(matching.size(), (long) page * size);
+        int to = Math.min(matching.size(), from + size);
+        List<UUID> ids = matching.subList(from, to);
+
+        Map<UUID, String> pictures = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ClothesRepository.Picture picture : clothesRepository.findPicturesByUserIdAndIdIn(userId, ids)) {
+                pictures.put(picture.getId(), picture.getClothingPictureUrl());
+            }
+        }
+
+        List<String> images = new ArrayList<>(ids.size());
+        List<ClothesSheetDTO.Tile> tiles = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            images.add(pictures.get(ids.get(i)));
+            tiles.add(new ClothesSheetDTO.Tile(ids.get(i), (i % columns) * tileSize, (i / columns) * tileSize));
+        }
+
+        byte[] jpeg = renderer.render(images, columns, tileSize);
+        int rows = Math.max(1, (ids.size() + columns - 1) / columns);
+        return new ClothesSheetDTO(ImageCodec.toJpegDataUrl(jpeg), columns * tileSize, rows * tileSize, columns, tileSize,
+                page, size, matching.size(), to < matching.size(), List.copyOf(tiles));
+    }
+}
@@ -0,0 +1,133 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesDTO;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Listagens grandes escritas item a item direto do cursor do banco.
+ * Em vez de List<Clothes> + List<ClothesDTO> + o JSON inteiro em memória, cada linha vira DTO,
+ * é serializada e a entidade sai do persistence context antes da próxima.
+ * Com um subconjunto de campos (?fields= / ?view=summary) a consulta já seleciona só essas colunas;
+ * se nenhum deles for imagem, a resposta sai do ClothesMetadataCache sem consultar o banco.
+ */
+@Slf4j
+@Service
+public class ClothesStreamingService {
+
+    private final ClothesRepository clothesRepository;
+    private final ClothesMetadataCache metadataCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ClothesStreamingService(ClothesRepository clothesRepository, ClothesMetadataCache metadataCache,
+                                   EntityManager entityManager, ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager) {
+        this.clothesRepository = clothesRepository;
+        this.metadataCache = metadataCache;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Escreve o array JSON com os campos pedidos das roupas do usuário (category opcional) em out
+     */
+    public void writeClothes(UUID userId, ClothingCategory category, Set<ClothesField> fields, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            if (ClothesField.SUMMARY.containsAll(fields)) {
+                int written = writeCached(json, userId, category, fields);
+                json.flush();
+                log.info("✅ Wrote {} cached clothes ({} fields) for user {} in {} ms",
+                        written, fields.size(), userId, System.currentTimeMillis() - start);
+                return;
+            }
+
+            Integer count = readOnlyTransaction.execute(status -> {
+                try {
+                    json.writeStartArray();
+                    int written = fields.containsAll(ClothesField.FULL)
+                            ? writeEntities(json, userId, category)
+                            : writeProjection(json, userId, category, fields);
+                    json.writeEndArray();
+                    return written;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            json.flush();
+            log.info("✅ Streamed {} clothes ({} fields) for user {} in {} ms",
+                    count, fields.size(), userId, System.currentTimeMillis() - start);
+        }
+    }
+
+    private int writeCached(JsonGenerator json, UUID userId, ClothingCategory category, Set<ClothesField> fields) throws IOException {
+        int written = 0;
+        json.writeStartArray();
+        for (Map<String, Object> item : metadataCache.get(userId).items()) {
+            if (category != null && category != item.get(ClothesField.CATEGORY.attribute())) continue;
+            json.writeStartObject();
+            for (ClothesField field : fields) {
+                json.writeObjectField(field.attribute(), item.get(field.attribute()));
+            }
+            json.writeEndObject();
+            written++;
+        }
+        json.writeEndArray();
+        return written;
+    }
+
+    private int writeEntities(JsonGenerator json, UUID userId, ClothingCategory category) throws IOException {
+        int written = 0;
+        try (Stream<Clothes> clothes = category != null
+                ? clothesRepository.streamByUserIdAndCategoryOrderByCreatedAtAsc(userId, category)
+                : clothesRepository.streamByUserIdOrderByCreatedAtAsc(userId)) {
+            for (Clothes clothing : (Iterable<Clothes>) clothes::iterator) {
+                json.writeObject(ClothesDTO.from(clothing));
+                entityManager.detach(clothing);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private int writeProjection(JsonGenerator json, UUID userId, ClothingCategory category, Set<ClothesField> fields) throws IOException {
+        int written = 0;
+        try (Stream<Tuple> rows = clothesRepository.streamProjection(userId, category, fields)) {
+            for (Tuple row : (Iterable<Tuple>) rows::iterator) {
+                json.writeStartObject();
+                for (ClothesField field : fields) {
+                    json.writeObjectField(field.attribute(), row.get(field.attribute()));
+                }
+                json.writeEndObject();
+                written++;
+            }
+        }
+        return written;
+    }
+}
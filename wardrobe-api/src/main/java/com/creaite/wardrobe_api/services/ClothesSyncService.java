@@ -0,0 +1,89 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.ClothingTombstone;
+import com.creaite.wardrobe_api.dto.ClothesChangesDTO;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.creaite.wardrobe_api.repositories.ClothingTombstoneRepository;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Delta sync do guarda-roupa a partir da change_seq por usuário (ver V5__clothing_change_sequence.sql).
+ * O token é a última change_seq entregue ao cliente, em base 36.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClothesSyncService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private final ClothesRepository clothesRepository;
+    private final ClothingTombstoneRepository tombstoneRepository;
+
+    /**
+     * Itens e exclusões com change_seq > token, intercalados por change_seq até limit mudanças.
+     * Sem token é a carga inicial: todos os itens, sem tombstones.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ClothesChangesDTO changesSince(UUID userId, String token, int limit, Set<ClothesField> fields) {
+        long since = decodeToken(token);
+        int pageSize = Math.max(1, Math.min(MAX_LIMIT, limit));
+
+        // limit + 1 de cada lado para saber se sobra algo depois da página
+        List<Tuple> items = clothesRepository.findChangedSince(userId, since, pageSize + 1, fields);
+        List<ClothingTombstone> tombstones = since == 0
+                ? List.of()
+                : tombstoneRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(userId, since, Limit.of(pageSize + 1));
+
+        List<Map<String, Object>> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        long last = since;
+        int i = 0;
+        int t = 0;
+
+        while (changed.size() + deleted.size() < pageSize && (i < items.size() || t < tombstones.size())) {
+            long itemSeq = i < items.size() ? items.get(i).get("changeSeq", Long.class) : Long.MAX_VALUE;
+            long tombstoneSeq = t < tombstones.size() ? tombstones.get(t).getChangeSeq() : Long.MAX_VALUE;
+
+            if (itemSeq < tombstoneSeq) {
+                changed.add(ClothesField.toMap(items.get(i++), fields));
+                last = itemSeq;
+            } else {
+                deleted.add(tombstones.get(t++).getClothingId());
+                last = tombstoneSeq;
+            }
+        }
+
+        boolean hasMore = i < items.size() || t < tombstones.size();
+        return new ClothesChangesDTO(changed, deleted, encodeToken(last), hasMore);
+    }
+
+    static long decodeToken(String token) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            long since = Long.parseLong(token.trim(), 36);
+            if (since < 0) throw new NumberFormatException();
+            return since;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+
+    static String encodeToken(long changeSeq) {
+        return Long.toString(changeSeq, 36);
+    }
+}
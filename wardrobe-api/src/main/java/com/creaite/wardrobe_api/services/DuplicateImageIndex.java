@@ -0,0 +1,111 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Índice em memória dos hashes perceptuais (V9) de cada usuário, para achar duplicatas no upload.
+ *
+ * Uma BK-tree por usuário, montada na primeira consulta a partir de (id, image_hash) do banco
+ * e mantida com add() a cada upload, então fotos repetidas dentro do mesmo lote também são
+ * encontradas. Exclusões não saem da árvore: o candidato é conferido no banco e, se não
+ * existir mais, a árvore é descartada e remontada.
+ *
+ * Hashes só mudam em inserções e exclusões, então não há inscrição no CacheInvalidationBus:
+ * o NOTIFY dispara em cada mudança de status e remontaria a árvore várias vezes por upload.
+ * Uploads de outras réplicas entram na árvore no máximo após expire-after-write, como no
+ * VisualSimilarityIndex.
+ *
+ * Fotos sem detalhe suficiente (hash a até max-distance do hash vazio) nunca são consideradas duplicatas.
+ */
+@Slf4j
+@Service
+public class DuplicateImageIndex {
+
+    public record Duplicate(UUID clothingId, int distance) {}
+
+    private final ClothesRepository clothesRepository;
+    private final Cache<UUID, HashTree> trees;
+    private final int maxDistance;
+
+    public DuplicateImageIndex(ClothesRepository clothesRepository,
+                               MeterRegistry registry,
+                               @Value("${processing.duplicates.max-distance:6}") int maxDistance,
+                               @Value("${processing.duplicates.max-items:500000}") long maxItems,
+                               @Value("${processing.duplicates.expire-after-write:15m}") Duration expireAfterWrite) {
+        this.clothesRepository = clothesRepository;
+        this.maxDistance = maxDistance;
+
+        this.trees = Caffeine.newBuilder()
+                .maximumWeight(maxItems)
+                // O peso é fixado na carga; itens adicionados depois não contam até a próxima
+                .weigher((UUID userId, HashTree tree) -> tree.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, trees, "clothes.image.hashes");
+    }
+
+    /**
+     * Peça do usuário mais parecida dentro de max-distance, se houver
+     */
+    public Optional<Duplicate> find(UUID userId, long hash) {
+        // Quase sem bordas (foto lisa, degradê): tão perto do hash vazio quanto de qualquer outra foto lisa
+        if (Long.bitCount(hash) <= maxDistance) {
+            return Optional.empty();
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            HashTree tree = trees.get(userId, this::load);
+            HashTree.Match match;
+            synchronized (tree) {
+                match = tree.nearest(hash, maxDistance);
+            }
+            if (match == null) {
+                return Optional.empty();
+            }
+            if (clothesRepository.existsById(match.id())) {
+                return Optional.of(new Duplicate(match.id(), match.distance()));
+            }
+            // Candidato já excluído: remonta a partir do banco e tenta de novo
+            trees.asMap().remove(userId, tree);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Registra um item recém-salvo; sem árvore carregada não faz nada (a carga lê do banco)
+     */
+    public void add(UUID userId, UUID clothingId, long hash) {
+        HashTree tree = trees.getIfPresent(userId);
+        if (tree == null) return;
+        synchronized (tree) {
+            tree.add(hash, clothingId);
+        }
+    }
+
+    public void invalidate(UUID userId) {
+        trees.invalidate(userId);
+    }
+
+    private HashTree load(UUID userId) {
+        long start = System.currentTimeMillis();
+        HashTree tree = new HashTree();
+        for (ClothesRepository.ImageHash row : clothesRepository.findByUserIdAndImageHashIsNotNullOrderByCreatedAtAsc(userId)) {
+            tree.add(row.getImageHash(), row.getId());
+        }
+        log.debug("Loaded image hash index for user {}: {} items in {} ms",
+                userId, tree.size(), System.currentTimeMillis() - start);
+        return tree;
+    }
+}
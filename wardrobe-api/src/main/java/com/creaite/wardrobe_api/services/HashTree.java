@@ -0,0 +1,90 @@
+package com.creaite.wardrobe_api.services;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * BK-tree de hashes de 64 bits pela distância de Hamming (métrica: vale a desigualdade triangular).
+ *
+ * Cada filho fica na aresta com a sua distância até o pai; na busca com raio r só são visitadas
+ * as arestas em [d - r, d + r], então para raios pequenos a maior parte da árvore é podada.
+ * Nós em arrays paralelos (sem objeto por nó); não é thread-safe, quem usa sincroniza.
+ */
+class HashTree {
+
+    record Match(UUID id, int distance) {}
+
+    private static final int NONE = -1;
+    // Distâncias possíveis entre hashes de 64 bits: 0..64
+    private static final int EDGES = 65;
+
+    private long[] hashes = new long[16];
+    private UUID[] ids = new UUID[16];
+    // Filhos de cada nó indexados pela distância, alocados sob demanda
+    private int[][] children = new int[16][];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void add(long hash, UUID id) {
+        if (size == hashes.length) {
+            int capacity = size * 2;
+            hashes = Arrays.copyOf(hashes, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            children = Arrays.copyOf(children, capacity);
+        }
+        int node = size++;
+        hashes[node] = hash;
+        ids[node] = id;
+        if (node == 0) return;
+
+        int current = 0;
+        while (true) {
+            int distance = Long.bitCount(hashes[current] ^ hash);
+            if (children[current] == null) {
+                children[current] = new int[EDGES];
+                Arrays.fill(children[current], NONE);
+            }
+            int child = children[current][distance];
+            if (child == NONE) {
+                children[current][distance] = node;
+                return;
+            }
+            current = child;
+        }
+    }
+
+    /**
+     * Item mais próximo com distância <= maxDistance (o mais antigo em caso de empate), ou null
+     */
+    Match nearest(long hash, int maxDistance) {
+        if (size == 0) return null;
+
+        int bestNode = NONE;
+        int bestDistance = maxDistance + 1;
+        int[] stack = new int[size];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = Long.bitCount(hashes[node] ^ hash);
+            if (distance < bestDistance || (distance == bestDistance && bestNode != NONE && node < bestNode)) {
+                bestDistance = distance;
+                bestNode = node;
+            }
+            int[] edges = children[node];
+            if (edges == null) continue;
+            // O raio encolhe conforme aparecem candidatos melhores
+            int radius = Math.min(maxDistance, bestDistance);
+            for (int d = Math.max(0, distance - radius); d <= Math.min(EDGES - 1, distance + radius); d++) {
+                if (edges[d] != NONE) {
+                    stack[top++] = edges[d];
+                }
+            }
+        }
+        return bestNode == NONE ? null : new Match(ids[bestNode], bestDistance);
+    }
+}
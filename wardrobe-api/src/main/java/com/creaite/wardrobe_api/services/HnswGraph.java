@@ -0,0 +1,351 @@
+package com.creaite.wardrobe_api.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grafo HNSW (Hierarchical Navigable Small World) para vizinhos mais próximos aproximados
+ * em vetores de norma 1, com distância 1 - produto escalar.
+ *
+ * Camadas com cada vez menos nós (nível sorteado com decaimento exponencial): a busca desce
+ * gulosamente pelas camadas de cima até a 0, onde faz uma busca em largura limitada a ef candidatos.
+ * Inserção incremental; remoção só marca o nó (ele continua servindo de caminho no grafo).
+ *
+ * Vetores num único float[] e vizinhos em int[] (posição 0 = quantidade): nada de objeto por nó.
+ * Buscas concorrentes entre si; inserções exclusivas (ReadWriteLock).
+ */
+class HnswGraph {
+
+    record Match(UUID id, float similarity) {}
+
+    private static final int M = 16;
+    // Camada 0 concentra as buscas: o dobro de vizinhos
+    private static final int M0 = 2 * M;
+    private static final int EF_CONSTRUCTION = 64;
+    private static final double LEVEL_MULTIPLIER = 1 / Math.log(M);
+
+    private final int dimensions;
+    private final SplittableRandom random = new SplittableRandom(0x45A5L);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> nodes = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private float[] vectors;
+    private UUID[] ids;
+    // links[no][camada] = {quantidade, vizinho1, vizinho2, ...}
+    private int[][][] links;
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswGraph(int dimensions) {
+        this.dimensions = dimensions;
+        this.vectors = new float[16 * dimensions];
+        this.ids = new UUID[16];
+        this.links = new int[16][][];
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vetor atual do item (cópia), ou null se ele não estiver no grafo
+     */
+    float[] vector(UUID id) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(id);
+            return node == null ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insere o item; se ele já existir (reprocessado), a versão anterior é marcada como removida
+     */
+    void add(UUID id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodes.get(id);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+            int node = allocate(id, vector);
+            nodes.put(id, node);
+            int level = randomLevel();
+            links[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                links[node][l] = new int[(l == 0 ? M0 : M) + 1];
+            }
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedy(node * dimensions, vectors, current, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                long[] candidates = searchLayer(vectors, node * dimensions, current, EF_CONSTRUCTION, l);
+                int maxLinks = l == 0 ? M0 : M;
+                int[] own = links[node][l];
+                for (int i = 0; i < candidates.length && own[0] < maxLinks; i++) {
+                    own[++own[0]] = nodeOf(candidates[i]);
+                }
+                for (int i = 1; i <= own[0]; i++) {
+                    connect(own[i], node, l);
+                }
+                current = nodeOf(candidates[0]);
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.remove(id);
+            if (node != null) {
+                deleted.set(node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Até k itens mais parecidos com o vetor, do mais para o menos parecido, sem o próprio exclude
+     */
+    List<Match> search(float[] query, int k, int ef, UUID exclude) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedy(0, query, current, l);
+            }
+            long[] candidates = searchLayer(query, 0, current, Math.max(ef, k + 1), 0);
+
+            List<Match> matches = new ArrayList<>(k);
+            for (long candidate : candidates) {
+                int node = nodeOf(candidate);
+                if (deleted.get(node) || ids[node].equals(exclude)) continue;
+                matches.add(new Match(ids[node], 1 - distanceOf(candidate)));
+                if (matches.size() == k) break;
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocate(UUID id, float[] vector) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            vectors = Arrays.copyOf(vectors, capacity * dimensions);
+            ids = Arrays.copyOf(ids, capacity);
+            links = Arrays.copyOf(links, capacity);
+        }
+        System.arraycopy(vector, 0, vectors, size * dimensions, dimensions);
+        ids[size] = id;
+        return size++;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * LEVEL_MULTIPLIER);
+    }
+
+    /**
+     * Liga neighbor -> node; com a lista cheia, mantém só os maxLinks mais próximos de neighbor
+     */
+    private void connect(int neighbor, int node, int level) {
+        int[] list = links[neighbor][level];
+        int maxLinks = level == 0 ? M0 : M;
+        if (list[0] < maxLinks) {
+            list[++list[0]] = node;
+            return;
+        }
+        int base = neighbor * dimensions;
+        int farthest = -1;
+        float farthestDistance = distance(vectors, base, vectors, node * dimensions);
+        for (int i = 1; i <= list[0]; i++) {
+            float d = distance(vectors, base, vectors, list[i] * dimensions);
+            if (d > farthestDistance) {
+                farthestDistance = d;
+                farthest = i;
+            }
+        }
+        if (farthest > 0) {
+            list[farthest] = node;
+        }
+    }
+
+    private int greedy(int queryOffset, float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, queryOffset, vectors, current * dimensions);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] list = links[current].length > level ? links[current][level] : null;
+            if (list == null) break;
+            for (int i = 1; i <= list[0]; i++) {
+                float d = distance(query, queryOffset, vectors, list[i] * dimensions);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = list[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Busca em largura na camada, mantendo os ef mais próximos. Devolve as chaves (distância, nó) em ordem crescente.
+     */
+    private long[] searchLayer(float[] query, int queryOffset, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        LongHeap candidates = new LongHeap(ef * 2, false);
+        LongHeap results = new LongHeap(ef + 1, true);
+
+        long startKey = key(distance(query, queryOffset, vectors, start * dimensions), start);
+        visited.set(start);
+        candidates.push(startKey);
+        results.push(startKey);
+
+        while (!candidates.isEmpty()) {
+            long closest = candidates.pop();
+            if (results.size() >= ef && distanceOf(closest) > distanceOf(results.peek())) break;
+
+            int[] list = links[nodeOf(closest)][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbor = list[i];
+                if (visited.get(neighbor)) continue;
+                visited.set(neighbor);
+                float d = distance(query, queryOffset, vectors, neighbor * dimensions);
+                if (results.size() < ef || d < distanceOf(results.peek())) {
+                    long neighborKey = key(d, neighbor);
+                    candidates.push(neighborKey);
+                    results.push(neighborKey);
+                    if (results.size() > ef) results.pop();
+                }
+            }
+        }
+
+        long[] sorted = results.toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private float distance(float[] a, int aOffset, float[] b, int bOffset) {
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += a[aOffset + i] * b[bOffset + i];
+        }
+        return Math.max(0, 1 - dot);
+    }
+
+    // Distância >= 0 em float: os bits crescem na mesma ordem, então (bits << 32 | nó) ordena por distância
+    private static long key(float distance, int node) {
+        return ((long) Float.floatToIntBits(distance) << 32) | node;
+    }
+
+    private static float distanceOf(long key) {
+        return Float.intBitsToFloat((int) (key >>> 32));
+    }
+
+    private static int nodeOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Heap binário de long (mínimo, ou máximo com max = true)
+     */
+    private static final class LongHeap {
+        private long[] values;
+        private int size;
+        private final boolean max;
+
+        LongHeap(int capacity, boolean max) {
+            this.values = new long[Math.max(capacity, 4)];
+            this.max = max;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peek() {
+            return values[0];
+        }
+
+        void push(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(value, values[parent])) break;
+                values[i] = values[parent];
+                i = parent;
+            }
+            values[i] = value;
+        }
+
+        long pop() {
+            long top = values[0];
+            long last = values[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && before(values[child + 1], values[child])) child++;
+                if (!before(values[child], last)) break;
+                values[i] = values[child];
+                i = child;
+            }
+            values[i] = last;
+            return top;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        private boolean before(long a, long b) {
+            return max ? a > b : a < b;
+        }
+    }
+}
@@ -1,12 +1,18 @@
 // wardrobe-api/src/main/java/com/creaite/wardrobe_api/services/OpenAIService.java
 package com.creaite.wardrobe_api.services;
 
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.image.CreateImageEditRequest;
 import com.theokanning.openai.image.ImageResult;
 import com.theokanning.openai.service.OpenAiService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import retrofit2.Retrofit;
 
 import javax.imageio.ImageIO;
 import java.awt.Graphics2D;
@@ -15,6 +21,7 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.util.Base64;
@@ -22,11 +29,19 @@ import java.util.UUID;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class OpenAIService {
 
+    private final ProcessingMetrics metrics;
+    private final RestTemplate restTemplate;
+
     @Value("${OPENAI_API_KEY}")
     private String apiKey;
 
+    // Sobrescrito no harness de carga para apontar para o stub local
+    @Value("${api.openai.base-url:https://api.openai.com/}")
+    private String baseUrl;
+
     private static final int MAX_FILE_SIZE = 4 * 1024 * 1024; // 4 MB
     private static final int MAX_DIMENSION = 1024;
 
@@ -48,11 +63,14 @@ public class OpenAIService {
             }
 
             // Decodifica a imagem
-            byte[] imageBytes = Base64.getDecoder().decode(cleanBase64);
+            String base64ToDecode = cleanBase64;
+            byte[] imageBytes = metrics.stage(ProcessingMetrics.STAGE_DECODE)
+                    .record(() -> Base64.getDecoder().decode(base64ToDecode));
             log.info("Original image size: {} bytes ({} MB)", imageBytes.length, imageBytes.length / 1024.0 / 1024.0);
 
             // ✅ Processa a imagem (PNG válido, tamanho correto)
-            byte[] processedImageBytes = processImageForOpenAI(imageBytes);
+            byte[] processedImageBytes = metrics.stage(ProcessingMetrics.STAGE_RESIZE)
+                    .recordCallable(() -> processImageForOpenAI(imageBytes));
             log.info("Processed image size: {} bytes ({} MB)", processedImageBytes.length, processedImageBytes.length / 1024.0 / 1024.0);
 
             // Valida tamanho final
@@ -65,12 +83,13 @@ public class OpenAIService {
             log.info("Image file created: {}", tempImageFile.getAbsolutePath());
 
             // ✅ CRUCIAL: Cria máscara transparente do mesmo tamanho
-            byte[] maskBytes = createTransparentMask(processedImageBytes);
+            byte[] maskBytes = metrics.stage(ProcessingMetrics.STAGE_MASK)
+                    .recordCallable(() -> createTransparentMask(processedImageBytes));
             tempMaskFile = createTempFile(maskBytes, "png");
             log.info("Mask file created: {}", tempMaskFile.getAbsolutePath());
 
             // Cria o serviço OpenAI
-            OpenAiService service = new OpenAiService(apiKey, Duration.ofSeconds(120));
+            OpenAiService service = createOpenAiService();
 
             // ✅ Cria a requisição de edição com prompt personalizado
             CreateImageEditRequest request = CreateImageEditRequest.builder()
@@ -83,18 +102,18 @@ public class OpenAIService {
             log.info("Sending image to DALL-E Edit...");
 
             // ✅ Envia para OpenAI com imagem + máscara
-            ImageResult result = service.createImageEdit(
-                    request,
-                    tempImageFile.getAbsolutePath(),
-                    tempMaskFile.getAbsolutePath()
-            );
+            String imagePath = tempImageFile.getAbsolutePath();
+            String maskPath = tempMaskFile.getAbsolutePath();
+            ImageResult result = metrics.stage(ProcessingMetrics.STAGE_AI_EDIT)
+                    .record(() -> service.createImageEdit(request, imagePath, maskPath));
 
             // Pega a URL da imagem editada
             String imageUrl = result.getData().get(0).getUrl();
             log.info("✅ DALL-E Edit complete - Image URL: {}", imageUrl);
 
             // Baixa a imagem e converte para base64
-            String enhancedBase64 = downloadImageAsBase64(imageUrl);
+            String enhancedBase64 = metrics.stage(ProcessingMetrics.STAGE_DOWNLOAD)
+                    .record(() -> downloadImageAsBase64(imageUrl));
 
             return "data:image/png;base64," + enhancedBase64;
 
@@ -112,7 +131,7 @@ public class OpenAIService {
      * ✅ Cria uma máscara transparente (PNG com alpha channel)
      * Permite editar a imagem inteira com o prompt
      */
-    private byte[] createTransparentMask(byte[] imageBytes) throws IOException {
+    byte[] createTransparentMask(byte[] imageBytes) throws IOException {
         // Lê a imagem para pegar as dimensões
         ByteArrayInputStream bais = new ByteArrayInputStream(imageBytes);
         BufferedImage originalImage = ImageIO.read(bais);
@@ -144,7 +163,7 @@ public class OpenAIService {
     /**
      * Processa a imagem: redimensiona, converte para PNG e comprime
      */
-    private byte[] processImageForOpenAI(byte[] originalBytes) throws IOException {
+    byte[] processImageForOpenAI(byte[] originalBytes) throws IOException {
         // Lê a imagem original
         ByteArrayInputStream bais = new ByteArrayInputStream(originalBytes);
         BufferedImage originalImage = ImageIO.read(bais);
@@ -191,6 +210,18 @@ public class OpenAIService {
         return baos.toByteArray();
     }
 
+    /**
+     * Cliente OpenAI padrão da biblioteca, só trocando a base URL
+     */
+    private OpenAiService createOpenAiService() {
+        OkHttpClient client = OpenAiService.defaultClient(apiKey, Duration.ofSeconds(120));
+        Retrofit retrofit = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper())
+                .newBuilder()
+                .baseUrl(baseUrl)
+                .build();
+        return new OpenAiService(retrofit.create(OpenAiApi.class), client.dispatcher().executorService());
+    }
+
     /**
      * Cria um arquivo temporário com os bytes
      */
@@ -218,13 +249,14 @@ public class OpenAIService {
 
     /**
      * Baixa a imagem da URL e converte para base64
+     * Usa o pool HTTP compartilhado; URI evita re-encodar a assinatura da URL
      */
     private String downloadImageAsBase64(String imageUrl) {
         try {
-            java.net.URL url = new java.net.URL(imageUrl);
-            java.io.InputStream in = url.openStream();
-            byte[] imageBytes = in.readAllBytes();
-            in.close();
+            byte[] imageBytes = restTemplate.getForObject(URI.create(imageUrl), byte[].class);
+            if (imageBytes == null) {
+                throw new IOException("Empty response body");
+            }
             return Base64.getEncoder().encodeToString(imageBytes);
         } catch (Exception e) {
             log.error("Failed to download image from URL: {}", e.getMessage());
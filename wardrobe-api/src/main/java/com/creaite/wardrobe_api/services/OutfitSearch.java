@@ -0,0 +1,267 @@
+package com.creaite.wardrobe_api.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Busca dos k melhores looks: uma peça de cima, uma de baixo, um calçado e, opcionalmente, um complemento.
+ *
+ * Tudo indexado por int: as notas de harmonia entre os pares de slots são pré-calculadas em float[]
+ * (linha x coluna) e os favoritos num boolean[]. A busca percorre (cima, baixo) e poda o par
+ * quando o limite superior da nota (melhor calçado e complemento possíveis para cada um) não
+ * alcança o k-ésimo melhor look já encontrado. Os k-ésimos de todas as tarefas são publicados
+ * num limiar compartilhado, então uma tarefa também poda com o que as outras acharam.
+ *
+ * Com muitas combinações, as peças de cima são divididas entre tarefas fork-join.
+ */
+class OutfitSearch {
+
+    /**
+     * Look encontrado: índices em tops/bottoms/shoes/extras (extra = -1 quando sem complemento)
+     */
+    record Candidate(float score, int top, int bottom, int shoe, int extra) {}
+
+    enum ExtraMode { NONE, OPTIONAL, REQUIRED }
+
+    // Peso dos favoritos: um look só de favoritos ganha isso sobre a harmonia média (0..1)
+    static final float FAVORITE_WEIGHT = 0.1f;
+    // Trabalho (combinações) abaixo do qual uma tarefa não se divide mais
+    private static final long LEAF_WORK = 20_000;
+
+    private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingDouble(Candidate::score)
+            .thenComparing(Comparator.comparingInt(Candidate::top).reversed())
+            .thenComparing(Comparator.comparingInt(Candidate::bottom).reversed())
+            .thenComparing(Comparator.comparingInt(Candidate::shoe).reversed())
+            .thenComparing(Comparator.comparingInt(Candidate::extra).reversed());
+
+    private final int tops, bottoms, shoes, extras;
+    private final float[] topBottom, topShoe, bottomShoe, extraTop, extraBottom, extraShoe;
+    private final boolean[] topFavorite, bottomFavorite, shoeFavorite, extraFavorite;
+    private final ExtraMode extraMode;
+    private final int k;
+
+    // Limites superiores por peça, para a poda
+    private final float[] bestShoeForTop, bestShoeForBottom, bestExtraForTop, bestExtraForBottom, bestExtraForShoe;
+    private final float bestExtraForAnyShoe;
+    private final int anyFavoriteShoe, anyFavoriteExtra;
+
+    private final AtomicInteger threshold = new AtomicInteger(Float.floatToIntBits(Float.NEGATIVE_INFINITY));
+    private final LongAdder evaluated = new LongAdder();
+
+    /**
+     * @param harmony nota de 0 a 1 entre as cores de duas peças, pelos índices dos arrays de entrada
+     */
+    OutfitSearch(Harmony harmony, int[] topItems, int[] bottomItems, int[] shoeItems, int[] extraItems,
+                 boolean[] favorite, ExtraMode extraMode, int k) {
+        this.tops = topItems.length;
+        this.bottoms = bottomItems.length;
+        this.shoes = shoeItems.length;
+        this.extras = extraMode == ExtraMode.NONE ? 0 : extraItems.length;
+        this.extraMode = extras == 0 && extraMode == ExtraMode.OPTIONAL ? ExtraMode.NONE : extraMode;
+        this.k = k;
+
+        this.topBottom = matrix(harmony, topItems, bottomItems);
+        this.topShoe = matrix(harmony, topItems, shoeItems);
+        this.bottomShoe = matrix(harmony, bottomItems, shoeItems);
+        int[] usedExtras = extras == 0 ? new int[0] : extraItems;
+        this.extraTop = matrix(harmony, usedExtras, topItems);
+        this.extraBottom = matrix(harmony, usedExtras, bottomItems);
+        this.extraShoe = matrix(harmony, usedExtras, shoeItems);
+
+        this.topFavorite = flags(favorite, topItems);
+        this.bottomFavorite = flags(favorite, bottomItems);
+        this.shoeFavorite = flags(favorite, shoeItems);
+        this.extraFavorite = flags(favorite, usedExtras);
+
+        this.bestShoeForTop = rowMax(topShoe, tops, shoes);
+        this.bestShoeForBottom = rowMax(bottomShoe, bottoms, shoes);
+        this.bestExtraForTop = columnMax(extraTop, extras, tops);
+        this.bestExtraForBottom = columnMax(extraBottom, extras, bottoms);
+        this.bestExtraForShoe = columnMax(extraShoe, extras, shoes);
+        float anyShoe = 0;
+        for (float value : bestExtraForShoe) anyShoe = Math.max(anyShoe, value);
+        this.bestExtraForAnyShoe = anyShoe;
+        this.anyFavoriteShoe = any(shoeFavorite) ? 1 : 0;
+        this.anyFavoriteExtra = any(extraFavorite) ? 1 : 0;
+    }
+
+    @FunctionalInterface
+    interface Harmony {
+        float between(int a, int b);
+    }
+
+    long combinations() {
+        return (long) tops * bottoms * shoes * Math.max(1, extras);
+    }
+
+    long evaluated() {
+        return evaluated.sum();
+    }
+
+    /**
+     * Os k melhores looks, do melhor para o pior. pool null = só na thread atual.
+     */
+    List<Candidate> run(ForkJoinPool pool) {
+        if (tops == 0 || bottoms == 0 || shoes == 0 || (extraMode == ExtraMode.REQUIRED && extras == 0)) {
+            return List.of();
+        }
+        Slice root = new Slice(0, tops);
+        PriorityQueue<Candidate> best = pool != null ? pool.invoke(root) : root.compute();
+
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(WORST_FIRST.reversed());
+        return sorted;
+    }
+
+    private final class Slice extends RecursiveTask<PriorityQueue<Candidate>> {
+        private final int from, to;
+
+        Slice(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PriorityQueue<Candidate> compute() {
+            if (to - from > 1 && (long) (to - from) * bottoms * shoes * Math.max(1, extras) > LEAF_WORK) {
+                int middle = (from + to) >>> 1;
+                Slice left = new Slice(from, middle);
+                left.fork();
+                PriorityQueue<Candidate> merged = new Slice(middle, to).compute();
+                for (Candidate candidate : left.join()) {
+                    offer(merged, candidate);
+                }
+                return merged;
+            }
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(k + 1, WORST_FIRST);
+            for (int top = from; top < to; top++) {
+                for (int bottom = 0; bottom < bottoms; bottom++) {
+                    searchPair(top, bottom, best);
+                }
+            }
+            return best;
+        }
+    }
+
+    private void searchPair(int top, int bottom, PriorityQueue<Candidate> best) {
+        float pair = topBottom[top * bottoms + bottom];
+        int favorites = (topFavorite[top] ? 1 : 0) + (bottomFavorite[bottom] ? 1 : 0);
+        float shoeBound = pair + bestShoeForTop[top] + bestShoeForBottom[bottom];
+
+        float bound = switch (extraMode) {
+            case NONE -> withoutExtra(shoeBound, favorites + anyFavoriteShoe);
+            case REQUIRED -> withExtra(shoeBound + bestExtraForTop[top] + bestExtraForBottom[bottom] + bestExtraForAnyShoe,
+                    favorites + anyFavoriteShoe + anyFavoriteExtra);
+            case OPTIONAL -> Math.max(withoutExtra(shoeBound, favorites + anyFavoriteShoe),
+                    withExtra(shoeBound + bestExtraForTop[top] + bestExtraForBottom[bottom] + bestExtraForAnyShoe,
+                            favorites + anyFavoriteShoe + anyFavoriteExtra));
+        };
+        if (bound < currentThreshold(best)) {
+            return;
+        }
+
+        for (int shoe = 0; shoe < shoes; shoe++) {
+            evaluated.increment();
+            float base = pair + topShoe[top * shoes + shoe] + bottomShoe[bottom * shoes + shoe];
+            int baseFavorites = favorites + (shoeFavorite[shoe] ? 1 : 0);
+
+            float bestScore = Float.NEGATIVE_INFINITY;
+            int bestExtra = -1;
+            if (extraMode != ExtraMode.REQUIRED) {
+                bestScore = withoutExtra(base, baseFavorites);
+            }
+            if (extraMode != ExtraMode.NONE) {
+                float extraBound = withExtra(base + bestExtraForTop[top] + bestExtraForBottom[bottom] + bestExtraForShoe[shoe],
+                        baseFavorites + anyFavoriteExtra);
+                if (extraBound > bestScore && extraBound >= currentThreshold(best)) {
+                    for (int extra = 0; extra < extras; extra++) {
+                        float score = withExtra(base + extraTop[extra * tops + top] + extraBottom[extra * bottoms + bottom]
+                                + extraShoe[extra * shoes + shoe], baseFavorites + (extraFavorite[extra] ? 1 : 0));
+                        if (score > bestScore) {
+                            bestScore = score;
+                            bestExtra = extra;
+                        }
+                    }
+                }
+            }
+
+            if (bestScore >= currentThreshold(best)) {
+                offer(best, new Candidate(bestScore, top, bottom, shoe, bestExtra));
+            }
+        }
+    }
+
+    // Média dos 3 pares + favoritos entre as 3 peças
+    private static float withoutExtra(float harmonySum, int favorites) {
+        return harmonySum / 3 + FAVORITE_WEIGHT * favorites / 3;
+    }
+
+    // Média dos 6 pares + favoritos entre as 4 peças
+    private static float withExtra(float harmonySum, int favorites) {
+        return harmonySum / 6 + FAVORITE_WEIGHT * favorites / 4;
+    }
+
+    private float currentThreshold(PriorityQueue<Candidate> best) {
+        float shared = Float.intBitsToFloat(threshold.get());
+        return best.size() < k ? shared : Math.max(shared, best.peek().score());
+    }
+
+    private void offer(PriorityQueue<Candidate> best, Candidate candidate) {
+        best.offer(candidate);
+        if (best.size() > k) {
+            best.poll();
+        }
+        if (best.size() == k) {
+            // O k-ésimo de qualquer tarefa é um limite inferior do k-ésimo global
+            int bits = Float.floatToIntBits(best.peek().score());
+            threshold.accumulateAndGet(bits, (current, offered) ->
+                    Float.intBitsToFloat(offered) > Float.intBitsToFloat(current) ? offered : current);
+        }
+    }
+
+    private static float[] matrix(Harmony harmony, int[] rows, int[] columns) {
+        float[] values = new float[rows.length * columns.length];
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < columns.length; c++) {
+                values[r * columns.length + c] = harmony.between(rows[r], columns[c]);
+            }
+        }
+        return values;
+    }
+
+    private static float[] rowMax(float[] matrix, int rows, int columns) {
+        float[] max = new float[rows];
+        for (int r = 0; r < rows; r++) {
+            float value = 0;
+            for (int c = 0; c < columns; c++) value = Math.max(value, matrix[r * columns + c]);
+            max[r] = value;
+        }
+        return max;
+    }
+
+    private static float[] columnMax(float[] matrix, int rows, int columns) {
+        float[] max = new float[columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) max[c] = Math.max(max[c], matrix[r * columns + c]);
+        }
+        return max;
+    }
+
+    private static boolean[] flags(boolean[] values, int[] items) {
+        boolean[] selected = new boolean[items.length];
+        for (int i = 0; i < items.length; i++) selected[i] = values[items[i]];
+        return selected;
+    }
+
+    private static boolean any(boolean[] values) {
+        for (boolean value : values) if (value) return true;
+        return false;
+    }
+}
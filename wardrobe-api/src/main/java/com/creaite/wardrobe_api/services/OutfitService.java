@@ -0,0 +1,268 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.Clothes;
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesCollectionVersion;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import com.creaite.wardrobe_api.dto.OutfitDTO;
+import com.creaite.wardrobe_api.services.image.ColorExtractor;
+import com.creaite.wardrobe_api.services.image.ColorPalette;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Geração de looks (POST /outfits/generate) a partir dos metadados em cache do guarda-roupa.
+ *
+ * Slots: cima (SHIRT/OUTERWEAR), baixo (PANTS/SHORTS), calçado (SHOES) e complemento opcional
+ * (HEADWEAR/ACCESSORIES). Só entram peças com processamento concluído, além da âncora.
+ * A busca fica no OutfitSearch; o resultado é guardado por (usuário, versão do guarda-roupa,
+ * parâmetros), então repetir o pedido sem mudar o guarda-roupa não recalcula nada.
+ */
+@Slf4j
+@Service
+public class OutfitService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+    // Abaixo disso de combinações o fork-join custa mais do que economiza
+    private static final long PARALLEL_THRESHOLD = 200_000;
+
+    // Sem cor conhecida não dá para julgar: nota neutra
+    private static final float UNKNOWN_HARMONY = 0.6f;
+
+    private record Key(UUID userId, ClothesCollectionVersion version, int limit, boolean accessories, UUID anchorId) {}
+
+    private final ClothesMetadataCache metadataCache;
+    private final ForkJoinPool pool;
+    private final Cache<Key, List<OutfitDTO>> results;
+    private final Timer generateTimer;
+
+    public OutfitService(ClothesMetadataCache metadataCache,
+                         MeterRegistry registry,
+                         @Value("${outfits.parallelism:0}") int parallelism,
+                         @Value("${outfits.cache.max-entries:10000}") long maxEntries,
+                         @Value("${outfits.cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.metadataCache = metadataCache;
+        // Pool próprio: a busca não disputa o ForkJoinPool comum com o processamento de imagens
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, results, "outfits");
+        this.generateTimer = Timer.builder("outfits.generate")
+                .description("Geração de looks sem cache (montagem dos índices + busca)")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Os melhores looks do usuário, do melhor para o pior; lista vazia se faltar peça para algum slot
+     */
+    public List<OutfitDTO> generate(UUID userId, int limit, boolean accessories, UUID anchorId) {
+        ClothesMetadataCache.Wardrobe wardrobe = metadataCache.get(userId);
+        int size = Math.max(1, Math.min(MAX_LIMIT, limit));
+        Key key = new Key(userId, wardrobe.version(), size, accessories, anchorId);
+        return results.get(key, ignored -> generateTimer.record(() -> search(wardrobe, size, accessories, anchorId)));
+    }
+
+    private List<OutfitDTO> search(ClothesMetadataCache.Wardrobe wardrobe, int limit, boolean accessories, UUID anchorId) {
+        long start = System.currentTimeMillis();
+        List<Map<String, Object>> items = wardrobe.items();
+        int count = items.size();
+
+        // Índices paralelos aos itens: cor em HSB + tipo (0 desconhecida, 1 neutra, 2 colorida) e favorito
+        float[] hue = new float[count];
+        float[] saturation = new float[count];
+        float[] brightness = new float[count];
+        byte[] kind = new byte[count];
+        boolean[] favorite = new boolean[count];
+
+        IntList tops = new IntList(), bottoms = new IntList(), shoes = new IntList(), extras = new IntList();
+        Slot anchorSlot = null;
+        float[] hsb = new float[3];
+
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> item = items.get(i);
+            boolean isAnchor = anchorId != null && anchorId.equals(item.get(ClothesField.ID.attribute()));
+            Slot slot = Slot.of((ClothingCategory) item.get(ClothesField.CATEGORY.attribute()));
+            if (slot == null) continue;
+            if (isAnchor) {
+                anchorSlot = slot;
+            } else if (item.get(ClothesField.PROCESSING_STATUS.attribute()) != Clothes.ProcessingStatus.COMPLETED) {
+                continue;
+            }
+
+            favorite[i] = Boolean.TRUE.equals(item.get(ClothesField.IS_FAVORITE.attribute()));
+            Integer rgb = ColorPalette.dominantRgb((String) item.get(ClothesField.COLOR_PALETTE.attribute()));
+            if (rgb == null) {
+                rgb = ColorExtractor.referenceRgb((String) item.get(ClothesField.COLOR.attribute()));
+            }
+            if (rgb != null) {
+                Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, hsb);
+                hue[i] = hsb[0] * 360;
+                saturation[i] = hsb[1];
+                brightness[i] = hsb[2];
+                kind[i] = (byte) (isNeutral(hsb[0] * 360, hsb[1], hsb[2]) ? 1 : 2);
+            }
+
+            switch (slot) {
+                case TOP -> tops.add(i);
+                case BOTTOM -> bottoms.add(i);
+                case SHOES -> shoes.add(i);
+                case EXTRA -> extras.add(i);
+            }
+        }
+
+        OutfitSearch.ExtraMode extraMode = accessories ? OutfitSearch.ExtraMode.OPTIONAL : OutfitSearch.ExtraMode.NONE;
+        if (anchorSlot != null) {
+            int anchor = indexOf(items, anchorId);
+            switch (anchorSlot) {
+                case TOP -> tops = IntList.of(anchor);
+                case BOTTOM -> bottoms = IntList.of(anchor);
+                case SHOES -> shoes = IntList.of(anchor);
+                case EXTRA -> {
+                    extras = IntList.of(anchor);
+                    extraMode = OutfitSearch.ExtraMode.REQUIRED;
+                }
+            }
+        }
+
+        OutfitSearch.Harmony harmony = (a, b) -> harmony(kind[a], hue[a], saturation[a], brightness[a],
+                kind[b], hue[b], saturation[b], brightness[b]);
+        int[] topItems = tops.toArray(), bottomItems = bottoms.toArray(), shoeItems = shoes.toArray(), extraItems = extras.toArray();
+        OutfitSearch search = new OutfitSearch(harmony, topItems, bottomItems, shoeItems, extraItems, favorite, extraMode, limit);
+        boolean parallel = search.combinations() > PARALLEL_THRESHOLD;
+        List<OutfitSearch.Candidate> best = search.run(parallel ? pool : null);
+
+        List<OutfitDTO> outfits = new ArrayList<>(best.size());
+        for (OutfitSearch.Candidate candidate : best) {
+            List<Map<String, Object>> outfit = new ArrayList<>(4);
+            outfit.add(items.get(topItems[candidate.top()]));
+            outfit.add(items.get(bottomItems[candidate.bottom()]));
+            outfit.add(items.get(shoeItems[candidate.shoe()]));
+            if (candidate.extra() >= 0) {
+                outfit.add(items.get(extraItems[candidate.extra()]));
+            }
+            outfits.add(new OutfitDTO(Math.round(candidate.score() * 1000) / 1000.0, List.copyOf(outfit)));
+        }
+
+        log.info("✅ Generated {} outfits from {} combinations ({} evaluated{}) in {} ms",
+                outfits.size(), search.combinations(), search.evaluated(), parallel ? ", parallel" : "",
+                System.currentTimeMillis() - start);
+        return List.copyOf(outfits);
+    }
+
+    /**
+     * Nota de 0 a 1 para duas cores lado a lado, por regras simples de roda de cores:
+     * neutros combinam com tudo; cores análogas, complementares ou em tríade combinam; o resto conflita
+     */
+    static float harmony(byte kindA, float hueA, float saturationA, float brightnessA,
+                         byte kindB, float hueB, float saturationB, float brightnessB) {
+        if (kindA == 0 || kindB == 0) {
+            return UNKNOWN_HARMONY;
+        }
+        // Contraste de claro/escuro ajuda qualquer combinação
+        float contrast = Math.abs(brightnessA - brightnessB) > 0.3f ? 0.05f : 0f;
+        if (kindA == 1 && kindB == 1) {
+            return 0.75f + contrast;
+        }
+        if (kindA == 1 || kindB == 1) {
+            return 0.85f + contrast;
+        }
+
+        float distance = Math.abs(hueA - hueB);
+        if (distance > 180) distance = 360 - distance;
+        float base;
+        if (distance <= 30) {
+            base = 0.9f - distance / 300;         // análogas (mesma família)
+        } else if (distance >= 150) {
+            base = 0.8f;                          // complementares
+        } else if (distance >= 105 && distance <= 135) {
+            base = 0.7f;                          // tríade
+        } else {
+            base = 0.45f;
+        }
+        // Duas cores muito saturadas juntas pesam mais do que uma viva com outra suave
+        if (saturationA > 0.7f && saturationB > 0.7f && distance > 30) {
+            base -= 0.1f;
+        }
+        return Math.min(1f, base + contrast);
+    }
+
+    /**
+     * Preto, branco, cinzas, bege/cáqui e azul-marinho/jeans escuro contam como neutros
+     */
+    static boolean isNeutral(float hue, float saturation, float brightness) {
+        if (saturation < 0.2f || brightness < 0.2f) return true;
+        if (hue >= 20 && hue <= 50 && saturation < 0.4f) return true;
+        return hue >= 200 && hue <= 250 && brightness < 0.45f;
+    }
+
+    private static int indexOf(List<Map<String, Object>> items, UUID id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (id.equals(items.get(i).get(ClothesField.ID.attribute()))) return i;
+        }
+        return -1;
+    }
+
+    private enum Slot {
+        TOP, BOTTOM, SHOES, EXTRA;
+
+        static Slot of(ClothingCategory category) {
+            if (category == null) return null;
+            return switch (category) {
+                case SHIRT, OUTERWEAR -> TOP;
+                case PANTS, SHORTS -> BOTTOM;
+                case SHOES -> SHOES;
+                case HEADWEAR, ACCESSORIES -> EXTRA;
+            };
+        }
+    }
+
+    /**
+     * Lista de int sem boxing
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        static IntList of(int value) {
+            IntList list = new IntList();
+            list.add(value);
+            return list;
+        }
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
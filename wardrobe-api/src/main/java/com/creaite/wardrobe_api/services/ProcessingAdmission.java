@@ -0,0 +1,248 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
+import com.creaite.wardrobe_api.domain.user.EnhancementMode;
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controle de admissão do processamento: confere a capacidade do taskExecutor (threads + fila)
+ * antes de o upload salvar qualquer coisa, em vez de descobrir pelo TaskRejectedException depois
+ * que a peça já está em PENDING.
+ *
+ * Sem capacidade (ou com fila adiada pendente, para ninguém furar a fila), o upload recebe 429 com
+ * Retry-After estimado pelos itens à frente e pelo tempo médio de processamento; com "Prefer: respond-async"
+ * a peça é aceita e o pedido vai para a fila durável processing_queue (V14). Um drenador submete
+ * os adiados, do mais antigo para o mais novo, quando sobra capacidade.
+ *
+ * O drenador só reivindica a linha (claimed_at, V17): quem a apaga é o ClothesProcessingService quando
+ * a peça chega a COMPLETED/FAILED. Se o nó cair antes disso, passado o claim-timeout a linha volta a
+ * ser submetida por qualquer réplica.
+ *
+ * Métricas: clothes.processing.queue.depth / .active / .deferred e clothes.processing.admission por outcome.
+ */
+@Slf4j
+@Service
+public class ProcessingAdmission implements SmartLifecycle {
+
+    public enum Decision { ACCEPT, DEFER, REJECT }
+
+    // Estimativa antes de haver itens processados neste nó
+    private static final double DEFAULT_ITEM_SECONDS = 10;
+    private static final long MAX_RETRY_AFTER_SECONDS = 600;
+
+    // Ainda esperando vaga: nunca reivindicados ou reivindicados por um nó que não terminou a tempo
+    private static final String WAITING_CONDITION =
+            "claimed_at IS NULL OR claimed_at < now() - make_interval(secs => :claimTimeout)";
+
+    private final ThreadPoolTaskExecutor executor;
+    private final ClothesProcessingService processingService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProcessingMetrics metrics;
+    private final Duration drainInterval;
+    private final Duration claimTimeout;
+    private final AtomicLong deferred = new AtomicLong();
+
+    private ScheduledExecutorService drainer;
+    private volatile boolean running;
+
+    public ProcessingAdmission(@Qualifier("taskExecutor") ThreadPoolTaskExecutor executor,
+                               ClothesProcessingService processingService,
+                               NamedParameterJdbcTemplate jdbcTemplate,
+                               ProcessingMetrics metrics,
+                               MeterRegistry registry,
+                               @Value("${processing.admission.drain-interval:2s}") Duration drainInterval,
+                               @Value("${processing.admission.claim-timeout:30m}") Duration claimTimeout) {
+        this.executor = executor;
+        this.processingService = processingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+        this.drainInterval = drainInterval;
+        this.claimTimeout = claimTimeout;
+
+        Gauge.builder("clothes.processing.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Tarefas de processamento esperando thread")
+                .register(registry);
+        Gauge.builder("clothes.processing.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("clothes.processing.deferred", deferred, AtomicLong::get)
+                .description("Pedidos na fila durável (processing_queue) esperando vaga")
+                .register(registry);
+    }
+
+    /**
+     * Antes de salvar: ACCEPT com capacidade livre, senão DEFER se o cliente aceita processamento adiado, senão REJECT
+     */
+    public Decision check(boolean allowDefer) {
+        if (deferred.get() == 0 && freeSlots() > 0) {
+            return Decision.ACCEPT;
+        }
+        Decision decision = allowDefer ? Decision.DEFER : Decision.REJECT;
+        metrics.admission(decision == Decision.DEFER ? "deferred" : "rejected");
+        return decision;
+    }
+
+    /**
+     * Quanto esperar até haver vaga: itens à frente x tempo médio por item / threads.
+     * Conta itens, não tarefas: um lote é uma tarefa só no executor, mas ocupa a thread por todos os itens.
+     */
+    public Duration retryAfter() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        long waiting = processingService.pendingItems() + deferred.get() + 1;
+        double itemSeconds = metrics.stage(ProcessingMetrics.STAGE_TOTAL).count() > 0
+                ? metrics.stage(ProcessingMetrics.STAGE_TOTAL).mean(TimeUnit.SECONDS)
+                : DEFAULT_ITEM_SECONDS;
+        long seconds = (long) Math.ceil(waiting * itemSeconds / Math.max(1, pool.getMaximumPoolSize()));
+        return Duration.ofSeconds(Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, seconds)));
+    }
+
+    /**
+     * Depois de salvar as peças: submete (ACCEPT) ou grava na fila durável (DEFER).
+     * Submissão recusada mesmo assim (corrida com outro upload) também vai para a fila: a peça nunca fica órfã.
+     * @param submit a chamada @Async que processa os ids
+     * @return true se o processamento foi adiado
+     */
+    public boolean start(Decision decision, List<UUID> clothingIds, EnhancementMode enhancement,
+                         BackgroundRemovalEngine backgroundRemoval, Runnable submit) {
+        if (clothingIds.isEmpty()) {
+            return false;
+        }
+        if (decision == Decision.ACCEPT) {
+            processingService.itemsSubmitted(clothingIds.size());
+            try {
+                submit.run();
+                metrics.admission("accepted");
+                return false;
+            } catch (TaskRejectedException e) {
+                processingService.itemsSubmitted(-clothingIds.size());
+                log.warn("⚠️ Processing executor rejected {} items after admission - deferring", clothingIds.size());
+                metrics.admission("deferred");
+            }
+        }
+        defer(clothingIds, EnhancementMode.orNone(enhancement), backgroundRemoval);
+        return true;
+    }
+
+    private void defer(List<UUID> clothingIds, EnhancementMode enhancement, BackgroundRemovalEngine backgroundRemoval) {
+        MapSqlParameterSource[] batch = clothingIds.stream()
+                .map(id -> new MapSqlParameterSource("clothingId", id)
+                        .addValue("enhancement", enhancement.name())
+                        .addValue("backgroundRemover", backgroundRemoval.name()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO processing_queue (clothing_id, enhancement, background_remover)
+                VALUES (:clothingId, :enhancement, :backgroundRemover)
+                ON CONFLICT (clothing_id) DO NOTHING""", batch);
+        deferred.addAndGet(clothingIds.size());
+        log.info("Deferred processing of {} items ({} waiting)", clothingIds.size(), deferred.get());
+    }
+
+    /**
+     * Vagas até o executor recusar: fila livre + threads que ainda podem ser criadas
+     */
+    private int freeSlots() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return pool.getQueue().remainingCapacity() + (pool.getMaximumPoolSize() - pool.getPoolSize());
+    }
+
+    void drain() {
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource("claimTimeout", claimTimeout.toSeconds());
+            int free = freeSlots();
+            if (free > 0) {
+                // Reivindicados viram tarefas em memória, como um upload aceito na hora; a linha só sai da
+                // fila quando o processamento termina. O que não couber no executor volta a esperar vaga.
+                List<DeferredItem> items = jdbcTemplate.query("""
+                        UPDATE processing_queue SET claimed_at = now()
+                        WHERE clothing_id IN (
+                            SELECT clothing_id FROM processing_queue
+                            WHERE %s
+                            ORDER BY enqueued_at LIMIT :limit FOR UPDATE SKIP LOCKED)
+                        RETURNING clothing_id, enhancement, background_remover""".formatted(WAITING_CONDITION),
+                        new MapSqlParameterSource(params.getValues()).addValue("limit", free),
+                        (rs, row) -> new DeferredItem(
+                                rs.getObject("clothing_id", UUID.class),
+                                EnhancementMode.valueOf(rs.getString("enhancement")),
+                                BackgroundRemovalEngine.valueOf(rs.getString("background_remover"))));
+
+                int submitted = 0;
+                for (DeferredItem item : items) {
+                    processingService.itemsSubmitted(1);
+                    try {
+                        processingService.processClothingImageAsync(item.clothingId(), item.enhancement(), item.backgroundRemoval());
+                        submitted++;
+                    } catch (TaskRejectedException e) {
+                        processingService.itemsSubmitted(-1);
+                        List<UUID> rest = items.subList(submitted, items.size()).stream().map(DeferredItem::clothingId).toList();
+                        jdbcTemplate.update("UPDATE processing_queue SET claimed_at = NULL WHERE clothing_id IN (:ids)",
+                                new MapSqlParameterSource("ids", rest));
+                        break;
+                    }
+                }
+                if (submitted > 0) {
+                    log.info("✅ Submitted {} deferred items for processing", submitted);
+                }
+            }
+            Long waiting = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM processing_queue WHERE " + WAITING_CONDITION, params, Long.class);
+            deferred.set(waiting != null ? waiting : 0);
+        } catch (RuntimeException e) {
+            log.error("❌ Deferred processing drain failed: {}", e.getMessage());
+        }
+    }
+
+    private record DeferredItem(UUID clothingId, EnhancementMode enhancement, BackgroundRemovalEngine backgroundRemoval) {}
+
+    @Override
+    public void start() {
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "processing-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        drainer.scheduleWithFixedDelay(this::drain, 0, drainInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (drainer != null) {
+            drainer.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Header Prefer do RFC 7240: "respond-async" = o cliente aceita que o processamento comece mais tarde
+     */
+    public static boolean prefersAsync(String prefer) {
+        return Optional.ofNullable(prefer)
+                .map(value -> value.toLowerCase().contains("respond-async"))
+                .orElse(false);
+    }
+}
@@ -0,0 +1,203 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.PublicFeedDTO;
+import com.creaite.wardrobe_api.services.image.ContactSheetRenderer;
+import com.creaite.wardrobe_api.services.image.ImageCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Feed público de descoberta (GET /feed), servido da linha do tempo pré-calculada da V11.
+ *
+ * A entrada é escrita quando a peça pública chega a COMPLETED, já com os metadados e a miniatura
+ * prontos; a leitura é uma varredura do índice (category, id) ou da PK a partir do cursor, sem tocar
+ * em clothing_items. A tabela fica limitada às últimas max-entries publicações.
+ *
+ * Falhas aqui nunca derrubam o upload/processamento: o feed é derivado e a peça continua salva.
+ */
+@Slf4j
+@Service
+public class PublicFeedService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+    // Imagens base64 podem ter alguns MB: poucas por consulta
+    private static final int PICTURE_CHUNK = 16;
+
+    // Só publica se a linha, no momento da escrita, é pública e concluída; reescreve só o snapshot,
+    // o id (posição no feed) da entrada existente é mantido
+    private static final String PUBLISH_SQL = """
+            INSERT INTO public_feed (clothing_id, user_id, name, category, color, color_palette, brand, thumbnail)
+            SELECT id, user_id, name, category, color, color_palette, brand, :thumbnail
+            FROM clothing_items
+            WHERE id = :clothingId AND is_public AND processing_status = 'COMPLETED'
+            ON CONFLICT (clothing_id) DO UPDATE SET
+                name = EXCLUDED.name, category = EXCLUDED.category, color = EXCLUDED.color,
+                color_palette = EXCLUDED.color_palette, brand = EXCLUDED.brand, thumbnail = EXCLUDED.thumbnail
+            RETURNING id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ContactSheetRenderer renderer;
+    private final long maxEntries;
+    private final int thumbnailSize;
+
+    public PublicFeedService(NamedParameterJdbcTemplate jdbcTemplate,
+                             ContactSheetRenderer renderer,
+                             @Value("${feed.max-entries:10000}") long maxEntries,
+                             @Value("${feed.thumbnail-size:240}") int thumbnailSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.renderer = renderer;
+        this.maxEntries = maxEntries;
+        this.thumbnailSize = thumbnailSize;
+    }
+
+    /**
+     * Acompanha o estado da peça: pública e concluída entra (ou atualiza o snapshot), senão sai do feed.
+     * Decide pela linha atual no banco, não por uma entidade carregada antes: quem chama pode estar com
+     * uma cópia velha (o processamento carrega a peça no início, e o usuário pode torná-la privada no meio).
+     */
+    public void sync(UUID clothingId) {
+        sync(List.of(clothingId));
+    }
+
+    /**
+     * Várias peças (POST /clothes/bulk): só id + imagem são lidos, PICTURE_CHUNK por consulta,
+     * para não ter todas as imagens em memória de uma vez
+     */
+    public void sync(Collection<UUID> clothingIds) {
+        List<UUID> ids = List.copyOf(clothingIds);
+        for (int from = 0; from < ids.size(); from += PICTURE_CHUNK) {
+            List<UUID> chunk = ids.subList(from, Math.min(ids.size(), from + PICTURE_CHUNK));
+            Map<UUID, String> pictures = new HashMap<>();
+            try {
+                jdbcTemplate.query("""
+                        SELECT id, image_url FROM clothing_items
+                        WHERE id IN (:ids) AND is_public AND processing_status = 'COMPLETED'""",
+                        new MapSqlParameterSource("ids", chunk),
+                        (ResultSet rs) -> {
+                            pictures.put(rs.getObject("id", UUID.class), rs.getString("image_url"));
+                        });
+            } catch (RuntimeException e) {
+                log.error("❌ Could not load {} clothing items for feed: {}", chunk.size(), e.getMessage());
+                continue;
+            }
+            for (UUID clothingId : chunk) {
+                String picture = pictures.remove(clothingId);
+                if (picture != null) {
+                    publish(clothingId, picture);
+                } else {
+                    withdraw(clothingId);
+                }
+            }
+        }
+    }
+
+    private void publish(UUID clothingId, String picture) {
+        try {
+            long start = System.nanoTime();
+            byte[] thumbnail = renderer.render(List.of(picture), 1, thumbnailSize);
+
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("clothingId", clothingId)
+                    .addValue("thumbnail", thumbnail);
+            List<Long> ids = jdbcTemplate.queryForList(PUBLISH_SQL, params, Long.class);
+            if (ids.isEmpty()) {
+                // Ficou privada (ou voltou a processar) entre a leitura e a escrita
+                withdraw(clothingId);
+                return;
+            }
+
+            // Ids são sequenciais: o corte é uma faixa da PK, quase sempre vazia
+            long id = ids.get(0);
+            int trimmed = jdbcTemplate.update("DELETE FROM public_feed WHERE id <= :oldest",
+                    new MapSqlParameterSource("oldest", id - maxEntries));
+            log.info("✅ Clothing {} published to feed as entry {} ({} trimmed) in {} ms",
+                    clothingId, id, trimmed, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("❌ Could not publish clothing {} to feed: {}", clothingId, e.getMessage());
+        }
+    }
+
+    public void withdraw(UUID clothingId) {
+        try {
+            jdbcTemplate.update("DELETE FROM public_feed WHERE clothing_id = :clothingId",
+                    new MapSqlParameterSource("clothingId", clothingId));
+        } catch (RuntimeException e) {
+            log.error("❌ Could not withdraw clothing {} from feed: {}", clothingId, e.getMessage());
+        }
+    }
+
+    /**
+     * Conta removida: as peças podem continuar no banco, mas não no feed. Tabela limitada, sem índice por usuário.
+     */
+    public void withdrawUser(UUID userId) {
+        try {
+            int removed = jdbcTemplate.update("DELETE FROM public_feed WHERE user_id = :userId",
+                    new MapSqlParameterSource("userId", userId));
+            log.info("Removed {} feed entries of user {}", removed, userId);
+        } catch (RuntimeException e) {
+            log.error("❌ Could not withdraw user {} from feed: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @param cursor nextCursor da página anterior; null para começar do mais recente
+     */
+    public PublicFeedDTO page(ClothingCategory category, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cursor", cursor != null ? cursor : Long.MAX_VALUE)
+                .addValue("limit", pageSize + 1);
+
+        StringBuilder where = new StringBuilder("id < :cursor");
+        if (category != null) {
+            where.append(" AND category = :category");
+            params.addValue("category", category.name());
+        }
+
+        long[] lastId = {0};
+        List<PublicFeedDTO.Item> items = jdbcTemplate.query("""
+                SELECT id, clothing_id, name, category, color, color_palette, brand, thumbnail, published_at
+                FROM public_feed WHERE %s ORDER BY id DESC LIMIT :limit""".formatted(where),
+                params, (rs, row) -> {
+                    if (row < pageSize) lastId[0] = rs.getLong("id");
+                    return toItem(rs);
+                });
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        return new PublicFeedDTO(items, hasMore ? lastId[0] : null);
+    }
+
+    private static PublicFeedDTO.Item toItem(ResultSet rs) throws SQLException {
+        String category = rs.getString("category");
+        byte[] thumbnail = rs.getBytes("thumbnail");
+        Timestamp publishedAt = rs.getTimestamp("published_at");
+        return new PublicFeedDTO.Item(
+                rs.getObject("clothing_id", UUID.class),
+                rs.getString("name"),
+                category != null ? ClothingCategory.valueOf(category) : null,
+                rs.getString("color"),
+                rs.getString("color_palette"),
+                rs.getString("brand"),
+                thumbnail != null ? ImageCodec.toJpegDataUrl(thumbnail) : null,
+                publishedAt != null ? publishedAt.toLocalDateTime() : null
+        );
+    }
+}
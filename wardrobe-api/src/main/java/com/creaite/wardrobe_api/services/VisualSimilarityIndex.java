@@ -0,0 +1,129 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.repositories.ClothesRepository;
+import com.creaite.wardrobe_api.services.image.VisualFeatureExtractor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Índice em memória dos vetores visuais (V10) de cada usuário: um grafo HNSW por usuário.
+ *
+ * O grafo é montado na primeira consulta a partir de (id, visual_features) e cresce com add()
+ * a cada item que o ClothesProcessingService termina. Exclusões marcam o nó como removido.
+ *
+ * Itens processados em outra réplica só entram aqui quando o grafo é remontado: na consulta
+ * de um item que tem vetor no banco mas não no grafo, e no máximo após expire-after-write.
+ * Não há inscrição no CacheInvalidationBus de propósito: cada mudança de status do
+ * processamento descartaria o grafo inteiro.
+ */
+@Slf4j
+@Service
+public class VisualSimilarityIndex {
+
+    public record Similar(UUID clothingId, float similarity) {}
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+    // Candidatos examinados na camada 0: mais = melhor recall, mais lento
+    private static final int EF_SEARCH = 64;
+
+    private final ClothesRepository clothesRepository;
+    private final Cache<UUID, HnswGraph> graphs;
+    private final Timer searchTimer;
+
+    public VisualSimilarityIndex(ClothesRepository clothesRepository,
+                                 MeterRegistry registry,
+                                 @Value("${wardrobe.similarity.max-items:200000}") long maxItems,
+                                 @Value("${wardrobe.similarity.expire-after-write:30m}") Duration expireAfterWrite) {
+        this.clothesRepository = clothesRepository;
+
+        this.graphs = Caffeine.newBuilder()
+                .maximumWeight(maxItems)
+                .weigher((UUID userId, HnswGraph graph) -> graph.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, graphs, "clothes.similarity");
+        this.searchTimer = Timer.builder("clothes.similarity.search")
+                .description("Busca no grafo HNSW de um usuário (sem a carga do grafo)")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Até limit peças do usuário mais parecidas com clothingId, ou empty se ela ainda não tem vetor
+     */
+    public Optional<List<Similar>> similar(UUID userId, UUID clothingId, int limit) {
+        HnswGraph graph = graphs.get(userId, this::load);
+        float[] vector = graph.vector(clothingId);
+
+        if (vector == null) {
+            Optional<byte[]> stored = clothesRepository.findVisualFeaturesByIdAndUserId(clothingId, userId)
+                    .map(ClothesRepository.VisualFeatures::getVisualFeatures);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            // Tem vetor no banco e não no grafo: processada em outra réplica, remonta
+            graphs.asMap().remove(userId, graph);
+            graph = graphs.get(userId, this::load);
+            vector = VisualFeatureExtractor.decode(stored.get());
+        }
+
+        HnswGraph current = graph;
+        float[] query = vector;
+        List<HnswGraph.Match> matches = searchTimer.record(
+                () -> current.search(query, limit, Math.max(EF_SEARCH, 2 * limit), clothingId));
+
+        return Optional.of(matches.stream()
+                .map(match -> new Similar(match.id(), match.similarity()))
+                .toList());
+    }
+
+    /**
+     * Item recém-processado; sem grafo carregado não faz nada (a carga lê do banco)
+     */
+    public void add(UUID userId, UUID clothingId, float[] features) {
+        HnswGraph graph = graphs.getIfPresent(userId);
+        if (graph != null) {
+            graph.add(clothingId, features);
+        }
+    }
+
+    public void remove(UUID userId, UUID clothingId) {
+        HnswGraph graph = graphs.getIfPresent(userId);
+        if (graph != null) {
+            graph.remove(clothingId);
+        }
+    }
+
+    public void invalidate(UUID userId) {
+        graphs.invalidate(userId);
+    }
+
+    private HnswGraph load(UUID userId) {
+        long start = System.currentTimeMillis();
+        HnswGraph graph = new HnswGraph(VisualFeatureExtractor.DIMENSIONS);
+        for (ClothesRepository.VisualFeatures row : clothesRepository.findByUserIdAndVisualFeaturesIsNotNull(userId)) {
+            float[] features = VisualFeatureExtractor.decode(row.getVisualFeatures());
+            // Vetores de uma versão anterior do extrator ficam de fora até o item ser reprocessado
+            if (features.length == VisualFeatureExtractor.DIMENSIONS) {
+                graph.add(row.getId(), features);
+            }
+        }
+        log.debug("Built similarity graph for user {}: {} items in {} ms",
+                userId, graph.size(), System.currentTimeMillis() - start);
+        return graph;
+    }
+}
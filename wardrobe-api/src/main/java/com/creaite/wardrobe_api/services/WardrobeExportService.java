@@ -0,0 +1,305 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export do guarda-roupa em ZIP: images/ e originals/ com as imagens decodificadas + manifest.json.
+ *
+ * As linhas vêm de um cursor JDBC forward-only (autocommit off + fetch size pequeno), então só
+ * FETCH_SIZE itens ficam em memória por vez, independente do tamanho do guarda-roupa.
+ * Duas passadas na mesma transação REPEATABLE READ: primeiro as imagens, depois os metadados
+ * (sem as colunas de imagem) para o manifest, ambas vendo o mesmo snapshot.
+ *
+ * Como cada export segura uma conexão e uma transação durante o download inteiro, eles rodam no
+ * exportExecutor (AsyncConfig), separado das outras respostas em streaming, e passam por tryAcquire:
+ * no máximo max-per-user exports por usuário e max-in-flight no total (rodando + esperando thread).
+ */
+@Slf4j
+@Service
+public class WardrobeExportService {
+
+    private static final int FETCH_SIZE = 8;
+    private static final int COPY_BUFFER = 64 * 1024;
+    // Maior prefixo de data URL que esperamos ("data:image/jpeg;base64,")
+    private static final int MAX_PREFIX = 64;
+
+    private static final String IMAGES_SQL = """
+            SELECT id, image_url, original_image_url
+            FROM clothing_items
+            WHERE user_id = ?
+            ORDER BY created_at, id
+            """;
+
+    private static final String MANIFEST_SQL = """
+            SELECT id, name, category, color, color_palette, brand, description, is_public, is_favorite,
+                   processing_status, created_at, updated_at,
+                   CASE WHEN image_url LIKE 'http%' THEN image_url ELSE left(image_url, 64) END AS image_head,
+                   CASE WHEN original_image_url LIKE 'http%' THEN original_image_url
+                        ELSE left(original_image_url, 64) END AS original_head
+            FROM clothing_items
+            WHERE user_id = ?
+            ORDER BY created_at, id
+            """;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ObjectMapper objectMapper;
+    private final int maxPerUser;
+    private final int maxInFlight;
+    private final Map<UUID, Integer> inFlightByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public WardrobeExportService(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                 @Value("${export.max-per-user:1}") int maxPerUser,
+                                 @Value("${export.max-in-flight:20}") int maxInFlight) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.objectMapper = objectMapper;
+        this.maxPerUser = maxPerUser;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Reserva uma vaga de export para o usuário; quem recebe true tem que chamar release ao terminar
+     * @return false se o usuário já está no limite ou há exports demais na fila
+     */
+    public boolean tryAcquire(UUID userId) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        boolean[] acquired = {false};
+        inFlightByUser.compute(userId, (id, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxPerUser) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        if (!acquired[0]) {
+            inFlight.decrementAndGet();
+        }
+        return acquired[0];
+    }
+
+    public void release(UUID userId) {
+        inFlightByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Escreve o ZIP completo em out. Não fecha out (o container fecha a resposta).
+     */
+    public void writeExport(User user, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, COPY_BUFFER));
+
+        int[] counts = snapshotTransaction.execute(status -> {
+            int images = writeImages(user.getId(), zip);
+            int items = writeManifest(user, zip);
+            return new int[]{items, images};
+        });
+
+        zip.finish();
+        zip.flush();
+        log.info("✅ Export for user {} complete: {} items, {} images in {} ms",
+                user.getId(), counts[0], counts[1], System.currentTimeMillis() - start);
+    }
+
+    private int writeImages(UUID userId, ZipOutputStream zip) {
+        // Imagens já são comprimidas (PNG/JPEG): deflate só gastaria CPU
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        int[] written = {0};
+
+        cursorJdbcTemplate.query(IMAGES_SQL, (ResultSet rs) -> {
+            String id = rs.getString("id");
+            try {
+                if (writeImageEntry(zip, "images/" + id, rs, "image_url")) written[0]++;
+                if (writeImageEntry(zip, "originals/" + id, rs, "original_image_url")) written[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, userId);
+
+        return written[0];
+    }
+
+    /**
+     * Decodifica o base64 da coluna direto para a entrada do ZIP, sem montar String nem byte[] da imagem
+     */
+    private boolean writeImageEntry(ZipOutputStream zip, String baseName, ResultSet rs, String column)
+            throws SQLException, IOException {
+        InputStream raw = rs.getBinaryStream(column);
+        if (raw == null) {
+            return false;
+        }
+
+        BufferedInputStream in = new BufferedInputStream(raw, COPY_BUFFER);
+        String extension = skipDataUrlPrefix(in);
+        if (extension == null) {
+            // URL externa ou conteúdo não reconhecido: fica só referenciado no manifest
+            return false;
+        }
+
+        zip.putNextEntry(new ZipEntry(baseName + "." + extension));
+        Base64.getMimeDecoder().wrap(in).transferTo(zip);
+        zip.closeEntry();
+        return true;
+    }
+
+    /**
+     * Consome o "data:image/...;base64," (se houver) e devolve a extensão do arquivo,
+     * ou null se a coluna não contém uma imagem base64
+     */
+    private static String skipDataUrlPrefix(BufferedInputStream in) throws IOException {
+        in.mark(MAX_PREFIX);
+        byte[] head = in.readNBytes(MAX_PREFIX);
+        in.reset();
+
+        String headText = new String(head, StandardCharsets.US_ASCII);
+        int comma = headText.indexOf(',');
+        if (headText.startsWith("data:") && comma > 0) {
+            in.skipNBytes(comma + 1);
+            return extensionFor(headText);
+        }
+        if (headText.startsWith("http")) {
+            return null;
+        }
+        return extensionFor(headText);
+    }
+
+    private static String extensionFor(String head) {
+        if (head.startsWith("data:image/png") || head.startsWith("iVBOR")) return "png";
+        if (head.startsWith("data:image/jpeg") || head.startsWith("data:image/jpg") || head.startsWith("/9j/")) return "jpg";
+        if (head.startsWith("data:image/webp") || head.startsWith("UklGR")) return "webp";
+        if (head.startsWith("data:image/")) return "img";
+        return null;
+    }
+
+    private int writeManifest(User user, ZipOutputStream zip) {
+        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        int[] items = {0};
+
+        try {
+            zip.putNextEntry(new ZipEntry("manifest.json"));
+            JsonGenerator json = objectMapper.getFactory().createGenerator(zip);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.useDefaultPrettyPrinter();
+
+            json.writeStartObject();
+            json.writeStringField("exportedAt", LocalDateTime.now().toString());
+            json.writeObjectFieldStart("user");
+            json.writeStringField("id", user.getId().toString());
+            json.writeStringField("username", user.getUsername());
+            json.writeStringField("name", user.getName());
+            json.writeStringField("email", user.getEmail());
+            json.writeStringField("language", user.getLanguage());
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("items");
+            cursorJdbcTemplate.query(MANIFEST_SQL, (ResultSet rs) -> {
+                try {
+                    writeManifestItem(json, rs);
+                    items[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, user.getId());
+            json.writeEndArray();
+
+            json.writeNumberField("totalItems", items[0]);
+            json.writeEndObject();
+            json.close();
+            zip.closeEntry();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return items[0];
+    }
+
+    private static void writeManifestItem(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        String id = rs.getString("id");
+
+        json.writeStartObject();
+        json.writeStringField("id", id);
+        json.writeStringField("name", rs.getString("name"));
+        json.writeStringField("category", rs.getString("category"));
+        json.writeStringField("color", rs.getString("color"));
+        json.writeStringField("colorPalette", rs.getString("color_palette"));
+        json.writeStringField("brand", rs.getString("brand"));
+        json.writeStringField("description", rs.getString("description"));
+        writeBoolean(json, "isPublic", rs, "is_public");
+        writeBoolean(json, "isFavorite", rs, "is_favorite");
+        json.writeStringField("processingStatus", rs.getString("processing_status"));
+        writeTimestamp(json, "createdAt", rs.getTimestamp("created_at"));
+        writeTimestamp(json, "updatedAt", rs.getTimestamp("updated_at"));
+        writeImageReference(json, "image", "images/" + id, rs.getString("image_head"));
+        writeImageReference(json, "originalImage", "originals/" + id, rs.getString("original_head"));
+        json.writeEndObject();
+    }
+
+    /**
+     * Caminho dentro do ZIP para imagens embutidas; a própria URL para imagens externas
+     */
+    private static void writeImageReference(JsonGenerator json, String field, String baseName, String head) throws IOException {
+        if (head == null) {
+            json.writeNullField(field);
+            return;
+        }
+        String extension = extensionFor(head);
+        if (extension != null) {
+            json.writeStringField(field, baseName + "." + extension);
+        } else {
+            json.writeStringField(field, head.startsWith("http") ? head : null);
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator json, String field, ResultSet rs, String column) throws SQLException, IOException {
+        boolean value = rs.getBoolean(column);
+        if (rs.wasNull()) {
+            json.writeNullField(field);
+        } else {
+            json.writeBooleanField(field, value);
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator json, String field, Timestamp timestamp) throws IOException {
+        json.writeStringField(field, timestamp != null ? timestamp.toLocalDateTime().toString() : null);
+    }
+}
@@ -0,0 +1,277 @@
+package com.creaite.wardrobe_api.services.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Cor predominante e paleta do recorte, depois da remoção de fundo.
+ *
+ * 1. amostra uma grade de no máximo MAX_SAMPLES pixels, só os opacos (o fundo removido não conta);
+ * 2. k-means em RGB sobre arrays int (sementes k-means++ com seed fixa: mesmo resultado sempre);
+ * 3. descarta clusters pequenos e nomeia o maior pela cor de referência mais próxima em Lab.
+ *
+ * Nenhum objeto por pixel: as amostras ficam em três int[] e as somas em long[].
+ */
+@Slf4j
+@Service
+public class ColorExtractor {
+
+    static final int MAX_SAMPLES = 4096;
+    private static final int CONVERT_DIMENSION = 256;
+    private static final int CLUSTERS = 5;
+    private static final int MAX_ITERATIONS = 12;
+    // Semi-transparente é borda/sombra do recorte, não a cor da peça
+    private static final int OPAQUE_ALPHA = 200;
+    // Menos que isso de pixels é detalhe (etiqueta, costura) e não entra na paleta
+    private static final double MIN_SHARE = 0.04;
+    private static final int MIN_OPAQUE_SAMPLES = 32;
+    private static final long SEED = 0x5EEDL;
+
+    // Cores de referência para nomear a predominante (mesmo idioma do "Unknown" padrão)
+    private static final String[] NAMES = {
+            "Black", "Charcoal", "Gray", "Light Gray", "White", "Navy", "Blue", "Light Blue", "Teal",
+            "Green", "Olive", "Khaki", "Beige", "Brown", "Tan", "Red", "Burgundy", "Pink", "Orange",
+            "Yellow", "Purple"
+    };
+    private static final int[] REFERENCES = {
+            0x1A1A1A, 0x3C3F44, 0x808080, 0xC8C8C8, 0xF4F4F2, 0x1F2A44, 0x2F5DA8, 0x9CC3E6, 0x2A7F7F,
+            0x3A7D44, 0x6B6B2F, 0xC3B091, 0xE3D5B8, 0x6F4E37, 0xB38B5D, 0xC0282D, 0x7A1F2B, 0xE8A0B4, 0xE8772E,
+            0xF2CF3A, 0x6A3D8F
+    };
+    private static final double[][] REFERENCE_LAB = new double[REFERENCES.length][];
+
+    static {
+        for (int i = 0; i < REFERENCES.length; i++) {
+            REFERENCE_LAB[i] = toLab(REFERENCES[i]);
+        }
+    }
+
+    /**
+     * Quando só há o data URL (recorte que não passou pelo CutoutNormalizer): decodifica já reduzido
+     */
+    public ColorPalette extract(String cutoutBase64) {
+        return extract(ImageCodec.readImage(ImageCodec.decodeBase64(cutoutBase64), CONVERT_DIMENSION));
+    }
+
+    /**
+     * @return paleta da peça, ou null se quase não houver pixels opacos (recorte vazio / sem alpha útil)
+     */
+    public ColorPalette extract(BufferedImage image) {
+        long start = System.nanoTime();
+
+        // Recorte normalizado já é INT_ARGB; outros formatos são convertidos já reduzidos
+        int type = image.getType();
+        BufferedImage argb = type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB
+                ? image
+                : ImageCodec.toArgb(image, CONVERT_DIMENSION);
+        int width = argb.getWidth();
+        int height = argb.getHeight();
+        int[] pixels = ImageCodec.pixels(argb);
+        boolean hasAlpha = argb.getColorModel().hasAlpha();
+
+        int step = Math.max(1, (int) Math.ceil(Math.sqrt((double) width * height / MAX_SAMPLES)));
+        int capacity = ((width + step - 1) / step) * ((height + step - 1) / step);
+        int[] red = new int[capacity];
+        int[] green = new int[capacity];
+        int[] blue = new int[capacity];
+        int count = 0;
+
+        for (int y = step / 2; y < height; y += step) {
+            int row = y * width;
+            for (int x = step / 2; x < width; x += step) {
+                int p = pixels[row + x];
+                if (hasAlpha && (p >>> 24) < OPAQUE_ALPHA) continue;
+                red[count] = (p >> 16) & 0xFF;
+                green[count] = (p >> 8) & 0xFF;
+                blue[count] = p & 0xFF;
+                count++;
+            }
+        }
+
+        if (count < MIN_OPAQUE_SAMPLES) {
+            log.warn("⚠️ Only {} opaque samples - skipping color extraction", count);
+            return null;
+        }
+
+        ColorPalette palette = cluster(red, green, blue, count);
+        log.info("✅ Colors extracted: {} [{}] from {} samples in {} ms",
+                palette.name(), palette.encoded(), count, (System.nanoTime() - start) / 1_000_000);
+        return palette;
+    }
+
+    static ColorPalette cluster(int[] red, int[] green, int[] blue, int count) {
+        int k = Math.min(CLUSTERS, count);
+        int[] centerR = new int[k];
+        int[] centerG = new int[k];
+        int[] centerB = new int[k];
+        seed(red, green, blue, count, centerR, centerG, centerB);
+
+        int[] assignment = new int[count];
+        long[] sumR = new long[k];
+        long[] sumG = new long[k];
+        long[] sumB = new long[k];
+        int[] sizes = new int[k];
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            Arrays.fill(sumR, 0);
+            Arrays.fill(sumG, 0);
+            Arrays.fill(sumB, 0);
+            Arrays.fill(sizes, 0);
+            boolean changed = false;
+
+            for (int i = 0; i < count; i++) {
+                int nearest = nearest(red[i], green[i], blue[i], centerR, centerG, centerB);
+                if (iteration == 0 || nearest != assignment[i]) {
+                    assignment[i] = nearest;
+                    changed = true;
+                }
+                sumR[nearest] += red[i];
+                sumG[nearest] += green[i];
+                sumB[nearest] += blue[i];
+                sizes[nearest]++;
+            }
+
+            for (int c = 0; c < k; c++) {
+                if (sizes[c] == 0) continue;
+                centerR[c] = (int) (sumR[c] / sizes[c]);
+                centerG[c] = (int) (sumG[c] / sizes[c]);
+                centerB[c] = (int) (sumB[c] / sizes[c]);
+            }
+            if (!changed) break;
+        }
+
+        // Clusters por tamanho, maiores primeiro
+        Integer[] order = new Integer[k];
+        for (int c = 0; c < k; c++) order[c] = c;
+        Arrays.sort(order, (a, b) -> Integer.compare(sizes[b], sizes[a]));
+
+        List<ColorPalette.Swatch> swatches = new ArrayList<>();
+        for (int c : order) {
+            double share = (double) sizes[c] / count;
+            if (share < MIN_SHARE && !swatches.isEmpty()) continue;
+            swatches.add(new ColorPalette.Swatch((centerR[c] << 16) | (centerG[c] << 8) | centerB[c], share));
+        }
+
+        return new ColorPalette(name(swatches.get(0).rgb()), List.copyOf(swatches));
+    }
+
+    /**
+     * k-means++: cada nova semente sorteada com probabilidade proporcional à distância² até a mais próxima
+     */
+    private static void seed(int[] red, int[] green, int[] blue, int count, int[] centerR, int[] centerG, int[] centerB) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int first = random.nextInt(count);
+        centerR[0] = red[first];
+        centerG[0] = green[first];
+        centerB[0] = blue[first];
+
+        long[] distances = new long[count];
+        Arrays.fill(distances, Long.MAX_VALUE);
+
+        for (int c = 1; c < centerR.length; c++) {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                long d = distance(red[i], green[i], blue[i], centerR[c - 1], centerG[c - 1], centerB[c - 1]);
+                if (d < distances[i]) distances[i] = d;
+                total += distances[i];
+            }
+
+            int chosen = 0;
+            if (total > 0) {
+                long target = (long) (random.nextDouble() * total);
+                long acc = 0;
+                for (int i = 0; i < count; i++) {
+                    acc += distances[i];
+                    if (acc > target) {
+                        chosen = i;
+                        break;
+                    }
+                }
+            }
+            centerR[c] = red[chosen];
+            centerG[c] = green[chosen];
+            centerB[c] = blue[chosen];
+        }
+    }
+
+    private static int nearest(int r, int g, int b, int[] centerR, int[] centerG, int[] centerB) {
+        int best = 0;
+        long bestDistance = Long.MAX_VALUE;
+        for (int c = 0; c < centerR.length; c++) {
+            long d = distance(r, g, b, centerR[c], centerG[c], centerB[c]);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static long distance(int r1, int g1, int b1, int r2, int g2, int b2) {
+        int dr = r1 - r2;
+        int dg = g1 - g2;
+        int db = b1 - b2;
+        return (long) dr * dr + (long) dg * dg + (long) db * db;
+    }
+
+    /**
+     * Nome da cor de referência mais próxima em CIE Lab (distância perceptual, ao contrário de RGB)
+     */
+    static String name(int rgb) {
+        double[] lab = toLab(rgb);
+        int best = 0;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < REFERENCE_LAB.length; i++) {
+            double dl = lab[0] - REFERENCE_LAB[i][0];
+            double da = lab[1] - REFERENCE_LAB[i][1];
+            double db = lab[2] - REFERENCE_LAB[i][2];
+            double d = dl * dl + da * da + db * db;
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return NAMES[best];
+    }
+
+    /**
+     * RGB de referência de um nome de cor ("navy", "Light Gray"...), ou null se não for um dos nomes conhecidos
+     */
+    public static Integer referenceRgb(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equalsIgnoreCase(name.trim())) {
+                return REFERENCES[i];
+            }
+        }
+        return null;
+    }
+
+    private static double[] toLab(int rgb) {
+        double r = linear(((rgb >> 16) & 0xFF) / 255.0);
+        double g = linear(((rgb >> 8) & 0xFF) / 255.0);
+        double b = linear((rgb & 0xFF) / 255.0);
+
+        // sRGB -> XYZ (D65), normalizado pelo branco de referência
+        double x = labF((0.4124 * r + 0.3576 * g + 0.1805 * b) / 0.95047);
+        double y = labF(0.2126 * r + 0.7152 * g + 0.0722 * b);
+        double z = labF((0.0193 * r + 0.1192 * g + 0.9505 * b) / 1.08883);
+        return new double[]{116 * y - 16, 500 * (x - y), 200 * (y - z)};
+    }
+
+    private static double linear(double channel) {
+        return channel <= 0.04045 ? channel / 12.92 : Math.pow((channel + 0.055) / 1.055, 2.4);
+    }
+
+    private static double labF(double t) {
+        return t > 216.0 / 24389 ? Math.cbrt(t) : (24389.0 / 27 * t + 16) / 116;
+    }
+}
@@ -0,0 +1,38 @@
+package com.creaite.wardrobe_api.services.image;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Cores predominantes de uma peça, da mais para a menos presente.
+ * @param name nome da cor predominante (ex.: "Navy"), usado como color do item
+ * @param swatches cor RGB + fração dos pixels opacos amostrados
+ */
+public record ColorPalette(String name, List<Swatch> swatches) {
+
+    public record Swatch(int rgb, double share) {}
+
+    /**
+     * Formato da coluna color_palette: "#1F2A44:62,#E8E6E1:21" (hex:percentual)
+     */
+    public String encoded() {
+        return swatches.stream()
+                .map(swatch -> String.format(Locale.ROOT, "#%06X:%d", swatch.rgb(), Math.round(swatch.share() * 100)))
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * RGB da cor predominante de um valor de color_palette, ou null se vazio/inválido
+     */
+    public static Integer dominantRgb(String encoded) {
+        if (encoded == null || encoded.length() < 7 || encoded.charAt(0) != '#') {
+            return null;
+        }
+        try {
+            return Integer.parseInt(encoded, 1, 7, 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
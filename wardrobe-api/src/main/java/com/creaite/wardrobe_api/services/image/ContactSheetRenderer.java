@@ -0,0 +1,119 @@
+package com.creaite.wardrobe_api.services.image;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Folha de contato: as imagens em miniatura lado a lado numa única imagem JPEG.
+ *
+ * Decodificação e redução em paralelo (já reduzidas pelo decoder, ver ImageCodec.readImage),
+ * cada uma numa imagem própria; a composição no canvas final é sequencial, só cópias.
+ * O paralelismo é num pool próprio e limitado, não no ForkJoinPool comum: lá roda o ParallelRows do
+ * processamento das peças, e uma folha de 100 imagens não pode atrasar os recortes (nem o contrário).
+ */
+@Slf4j
+@Service
+public class ContactSheetRenderer {
+
+    private static final Color BACKGROUND = Color.WHITE;
+    // Margem dentro de cada célula, para as peças não encostarem umas nas outras
+    private static final double PADDING_RATIO = 0.06;
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final int DECODE_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final ExecutorService decoder = Executors.newFixedThreadPool(DECODE_THREADS, new ThreadFactory() {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "contact-sheet-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    @PreDestroy
+    void shutdown() {
+        decoder.shutdownNow();
+    }
+
+    /**
+     * @param images data URLs em ordem de célula (linha a linha); null ou ilegível vira célula vazia
+     * @return JPEG de columns x ceil(n / columns) células de tileSize px
+     */
+    public byte[] render(List<String> images, int columns, int tileSize) {
+        long start = System.nanoTime();
+        int count = images.size();
+        int rows = Math.max(1, (count + columns - 1) / columns);
+        int padding = (int) Math.round(tileSize * PADDING_RATIO);
+        int inner = tileSize - 2 * padding;
+
+        BufferedImage[] thumbnails = decodeAll(images, inner);
+
+        BufferedImage sheet = new BufferedImage(columns * tileSize, rows * tileSize, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = sheet.createGraphics();
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+        for (int i = 0; i < count; i++) {
+            BufferedImage thumbnail = thumbnails[i];
+            if (thumbnail == null) continue;
+            int x = (i % columns) * tileSize + (tileSize - thumbnail.getWidth()) / 2;
+            int y = (i / columns) * tileSize + (tileSize - thumbnail.getHeight()) / 2;
+            // Transparência do recorte composta sobre o fundo branco
+            g2d.drawImage(thumbnail, x, y, null);
+        }
+        g2d.dispose();
+
+        byte[] jpeg = ImageCodec.encodeJpeg(sheet, JPEG_QUALITY);
+        log.info("✅ Contact sheet rendered: {} tiles, {}x{}, {} KB in {} ms", count, sheet.getWidth(), sheet.getHeight(),
+                jpeg.length / 1024, (System.nanoTime() - start) / 1_000_000);
+        return jpeg;
+    }
+
+    private BufferedImage[] decodeAll(List<String> images, int size) {
+        List<Callable<BufferedImage>> tasks = images.stream()
+                .<Callable<BufferedImage>>map(image -> () -> thumbnail(image, size))
+                .toList();
+        BufferedImage[] thumbnails = new BufferedImage[tasks.size()];
+        try {
+            List<Future<BufferedImage>> results = decoder.invokeAll(tasks);
+            for (int i = 0; i < thumbnails.length; i++) {
+                thumbnails[i] = results.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Contact sheet rendering interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Contact sheet decoding failed", e.getCause());
+        }
+        return thumbnails;
+    }
+
+    private static BufferedImage thumbnail(String image, int size) {
+        if (image == null || image.isBlank()) {
+            return null;
+        }
+        try {
+            BufferedImage decoded = ImageCodec.readImage(ImageCodec.decodeBase64(image), size);
+            // Fotos menores que a célula não são ampliadas
+            return ImageCodec.toArgb(decoded, size);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Skipping unreadable image in contact sheet: {}", e.getMessage());
+            return null;
+        }
+    }
+}
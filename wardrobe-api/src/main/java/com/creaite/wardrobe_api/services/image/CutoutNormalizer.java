@@ -0,0 +1,158 @@
+package com.creaite.wardrobe_api.services.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Normaliza o recorte depois da remoção de fundo, antes de salvar em clothingPictureUrl.
+ *
+ * O PNG do remove.bg/motor local vem no tamanho da foto original e costuma ter a maior
+ * parte dos pixels transparentes. Aqui:
+ * 1. calcula o bounding box do alpha e recorta com uma margem;
+ * 2. completa o canvas até a proporção alvo (peça centralizada), limitado a MAX_DIMENSION;
+ * 3. zera o RGB dos pixels totalmente transparentes (o deflate comprime muito melhor);
+ * 4. re-codifica o PNG com deflate no nível máximo.
+ */
+@Slf4j
+@Service
+public class CutoutNormalizer {
+
+    // Largura / altura do resultado; quadrado como os tiles do grid
+    private static final double TARGET_ASPECT = 1.0;
+    private static final int MAX_DIMENSION = 1024;
+    private static final double PADDING_RATIO = 0.04;
+    private static final int MIN_PADDING = 8;
+    // Alpha abaixo disso é sombra/feather residual e não conta para o bounding box
+    private static final int ALPHA_THRESHOLD = 8;
+    private static final int DEFLATE_LEVEL = 9;
+
+    /**
+     * @return data URL PNG normalizado (a própria entrada se não houver transparência para recortar) e a imagem
+     */
+    public NormalizedCutout normalize(String cutoutBase64) {
+        long start = System.nanoTime();
+
+        BufferedImage decoded = ImageCodec.readImage(cutoutBase64);
+        if (!decoded.getColorModel().hasAlpha()) {
+            log.info("Cutout has no alpha channel - skipping trim");
+            return new NormalizedCutout(cutoutBase64, decoded);
+        }
+
+        BufferedImage cutout = ImageCodec.toArgb(decoded, 0);
+        int width = cutout.getWidth();
+        int height = cutout.getHeight();
+        int[] pixels = ImageCodec.pixels(cutout);
+
+        int[] box = alphaBounds(pixels, width, height);
+        if (box == null) {
+            log.warn("⚠️ Cutout is fully transparent - skipping trim");
+            return new NormalizedCutout(cutoutBase64, cutout);
+        }
+        int boxWidth = box[2] - box[0] + 1;
+        int boxHeight = box[3] - box[1] + 1;
+
+        int padding = Math.max(MIN_PADDING, (int) Math.round(Math.max(boxWidth, boxHeight) * PADDING_RATIO));
+        double frameWidth = boxWidth + 2.0 * padding;
+        double frameHeight = boxHeight + 2.0 * padding;
+        if (frameWidth / frameHeight < TARGET_ASPECT) {
+            frameWidth = frameHeight * TARGET_ASPECT;
+        } else {
+            frameHeight = frameWidth / TARGET_ASPECT;
+        }
+
+        double scale = Math.min(1.0, MAX_DIMENSION / Math.max(frameWidth, frameHeight));
+        int outWidth = Math.max(1, (int) Math.round(frameWidth * scale));
+        int outHeight = Math.max(1, (int) Math.round(frameHeight * scale));
+        int drawWidth = Math.max(1, Math.min(outWidth, (int) Math.round(boxWidth * scale)));
+        int drawHeight = Math.max(1, Math.min(outHeight, (int) Math.round(boxHeight * scale)));
+        int offsetX = (outWidth - drawWidth) / 2;
+        int offsetY = (outHeight - drawHeight) / 2;
+
+        BufferedImage result = new BufferedImage(outWidth, outHeight, BufferedImage.TYPE_INT_ARGB);
+        int[] target = ImageCodec.pixels(result);
+
+        if (drawWidth == boxWidth && drawHeight == boxHeight) {
+            // Sem redimensionar: cópia direta linha a linha
+            for (int y = 0; y < boxHeight; y++) {
+                System.arraycopy(pixels, (box[1] + y) * width + box[0], target, (offsetY + y) * outWidth + offsetX, boxWidth);
+            }
+        } else {
+            Graphics2D g2d = result.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(cutout, offsetX, offsetY, offsetX + drawWidth, offsetY + drawHeight,
+                    box[0], box[1], box[2] + 1, box[3] + 1, null);
+            g2d.dispose();
+        }
+
+        ParallelRows.forEach(outHeight, (from, to) -> {
+            for (int i = from * outWidth, end = to * outWidth; i < end; i++) {
+                if ((target[i] >>> 24) == 0) {
+                    target[i] = 0;
+                }
+            }
+        });
+
+        byte[] png = ImageCodec.encodePng(result, DEFLATE_LEVEL);
+        String normalized = ImageCodec.toPngDataUrl(png);
+        log.info("✅ Cutout normalized: {}x{} -> {}x{}, {} KB -> {} KB in {} ms",
+                width, height, outWidth, outHeight,
+                cutoutBase64.length() / 1024, normalized.length() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+        return new NormalizedCutout(normalized, result);
+    }
+
+    /**
+     * {minX, minY, maxX, maxY} dos pixels com alpha >= ALPHA_THRESHOLD, ou null se não houver nenhum
+     */
+    static int[] alphaBounds(int[] pixels, int width, int height) {
+        int minY = -1;
+        for (int y = 0; y < height && minY < 0; y++) {
+            if (rowHasAlpha(pixels, y * width, width)) minY = y;
+        }
+        if (minY < 0) {
+            return null;
+        }
+
+        int maxY = minY;
+        for (int y = height - 1; y > minY; y--) {
+            if (rowHasAlpha(pixels, y * width, width)) {
+                maxY = y;
+                break;
+            }
+        }
+
+        // Colunas: só percorre as linhas dentro do intervalo vertical, encolhendo a busca a cada linha
+        int minX = width;
+        int maxX = -1;
+        for (int y = minY; y <= maxY; y++) {
+            int row = y * width;
+            for (int x = 0; x < minX; x++) {
+                if ((pixels[row + x] >>> 24) >= ALPHA_THRESHOLD) {
+                    minX = x;
+                    break;
+                }
+            }
+            for (int x = width - 1; x > maxX; x--) {
+                if ((pixels[row + x] >>> 24) >= ALPHA_THRESHOLD) {
+                    maxX = x;
+                    break;
+                }
+            }
+        }
+        return new int[]{minX, minY, maxX, maxY};
+    }
+
+    private static boolean rowHasAlpha(int[] pixels, int offset, int width) {
+        for (int i = offset, end = offset + width; i < end; i++) {
+            if ((pixels[i] >>> 24) >= ALPHA_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
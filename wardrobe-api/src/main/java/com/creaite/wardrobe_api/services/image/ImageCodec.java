@@ -0,0 +1,186 @@
+package com.creaite.wardrobe_api.services.image;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Iterator;
+
+/**
+ * Conversões entre o base64/data URL guardado no banco e arrays de pixels ARGB
+ * usados pelos estágios locais de processamento.
+ */
+public final class ImageCodec {
+
+    public static final String PNG_DATA_URL_PREFIX = "data:image/png;base64,";
+    public static final String JPEG_DATA_URL_PREFIX = "data:image/jpeg;base64,";
+
+    private ImageCodec() {
+    }
+
+    /**
+     * Decodifica base64 puro ou data URL (data:image/...;base64,...)
+     */
+    public static byte[] decodeBase64(String imageBase64) {
+        int comma = imageBase64.indexOf(',');
+        String clean = comma >= 0 ? imageBase64.substring(comma + 1) : imageBase64;
+        return Base64.getMimeDecoder().decode(clean);
+    }
+
+    public static BufferedImage readImage(byte[] imageBytes) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            if (image == null) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read image", e);
+        }
+    }
+
+    public static BufferedImage readImage(String imageBase64) {
+        return readImage(decodeBase64(imageBase64));
+    }
+
+    /**
+     * Lê a imagem já reduzida pelo decoder (subsampling inteiro), mantendo o lado maior >= targetDimension.
+     * Para fotos de celular bem maiores que o destino isso corta boa parte do custo de decode e de memória;
+     * o ajuste fino do tamanho fica com {@link #toArgb}.
+     */
+    public static BufferedImage readImage(byte[] imageBytes, int targetDimension) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int largest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, largest / targetDimension);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read image", e);
+        }
+    }
+
+    /**
+     * Copia a imagem para TYPE_INT_ARGB, opcionalmente reduzindo para caber em maxDimension.
+     * O array de pixels da imagem devolvida pode ser alterado diretamente (ver {@link #pixels}).
+     */
+    public static BufferedImage toArgb(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (maxDimension > 0 && (width > maxDimension || height > maxDimension)) {
+            double ratio = Math.min((double) maxDimension / width, (double) maxDimension / height);
+            width = Math.max(1, (int) Math.round(width * ratio));
+            height = Math.max(1, (int) Math.round(height * ratio));
+        }
+
+        if (source.getType() == BufferedImage.TYPE_INT_ARGB
+                && width == source.getWidth() && height == source.getHeight()) {
+            return source;
+        }
+
+        BufferedImage argb = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = argb.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return argb;
+    }
+
+    /**
+     * Array de pixels por trás de uma imagem TYPE_INT_ARGB/TYPE_INT_RGB (sem cópia)
+     */
+    public static int[] pixels(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB && image.getType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("Expected TYPE_INT_ARGB or TYPE_INT_RGB image");
+        }
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    public static byte[] encodePng(BufferedImage image) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ImageIO.write(image, "PNG", baos);
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode PNG", e);
+        }
+    }
+
+    /**
+     * PNG com nível de deflate explícito (0 = sem compressão, 9 = máximo).
+     * O writer do JDK já escolhe o filtro PNG por linha (adaptativo).
+     */
+    public static byte[] encodePng(BufferedImage image, int deflateLevel) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        // O writer mapeia quality para o nível: level = round(9 * (1 - quality))
+        param.setCompressionQuality(1f - Math.max(0, Math.min(9, deflateLevel)) / 9f);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode PNG", e);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * JPEG para imagens sem transparência (fundo já composto)
+     */
+    public static byte[] encodeJpeg(BufferedImage rgbImage, float quality) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(rgbImage, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode JPEG", e);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    public static String toJpegDataUrl(byte[] jpegBytes) {
+        return JPEG_DATA_URL_PREFIX + Base64.getEncoder().encodeToString(jpegBytes);
+    }
+
+    public static String toPngDataUrl(byte[] pngBytes) {
+        return PNG_DATA_URL_PREFIX + Base64.getEncoder().encodeToString(pngBytes);
+    }
+}
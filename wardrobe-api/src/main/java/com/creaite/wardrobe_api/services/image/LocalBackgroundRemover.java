@@ -0,0 +1,322 @@
+package com.creaite.wardrobe_api.services.image;
+
+import com.creaite.wardrobe_api.services.BackgroundRemover;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+/**
+ * Remoção de fundo local, sem chamada de rede.
+ *
+ * Funciona bem para o caso típico do app (peça sobre fundo relativamente uniforme):
+ * 1. estima a cor do fundo pela mediana da borda;
+ * 2. marca como candidato a fundo o pixel perto dessa cor e fora de uma borda forte;
+ * 3. flood fill a partir da borda da imagem sobre os candidatos (cores parecidas
+ *    no meio da peça não são removidas);
+ * 4. abertura + fechamento morfológico para limpar ruído e buracos;
+ * 5. suaviza o alpha (feather) para não serrilhar o recorte.
+ *
+ * Os passos por pixel rodam em faixas de linhas em paralelo sobre arrays primitivos.
+ */
+@Slf4j
+@Service
+public class LocalBackgroundRemover implements BackgroundRemover {
+
+    private static final int MAX_DIMENSION = 1536;
+
+    // Distância RGB (euclidiana) mínima/máxima aceita como "mesma cor do fundo"
+    private static final int MIN_COLOR_DISTANCE = 24;
+    private static final int MAX_COLOR_DISTANCE = 90;
+    // Diferença de luminância entre vizinhos a partir da qual consideramos contorno
+    private static final int EDGE_THRESHOLD = 40;
+    private static final int FEATHER_RADIUS = 2;
+
+    // Abaixo/acima disso a segmentação não encontrou um objeto plausível
+    private static final double MIN_FOREGROUND_RATIO = 0.01;
+    private static final double MAX_FOREGROUND_RATIO = 0.98;
+
+    @Override
+    public String removeBackground(String imageBase64) {
+        long start = System.nanoTime();
+
+        // Imagem recém-decodificada: podemos alterar os pixels diretamente
+        BufferedImage image = ImageCodec.toArgb(ImageCodec.readImage(imageBase64), MAX_DIMENSION);
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ImageCodec.pixels(image);
+
+        byte[] foreground = segment(pixels, width, height);
+        int[] alpha = feather(foreground, width, height);
+
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int i = from * width, end = to * width; i < end; i++) {
+                int a = Math.min(alpha[i], (pixels[i] >>> 24));
+                pixels[i] = (a << 24) | (pixels[i] & 0x00FFFFFF);
+            }
+        });
+
+        String result = ImageCodec.toPngDataUrl(ImageCodec.encodePng(image));
+        log.info("✅ Local background removal complete: {}x{} in {} ms",
+                width, height, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Máscara de primeiro plano (1 = peça, 0 = fundo)
+     */
+    private byte[] segment(int[] pixels, int width, int height) {
+        int n = width * height;
+
+        int background = borderMedianColor(pixels, width, height);
+        int threshold = colorThreshold(pixels, width, height, background);
+        int thresholdSquared = threshold * threshold;
+
+        int[] luma = new int[n];
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int i = from * width, end = to * width; i < end; i++) {
+                int p = pixels[i];
+                luma[i] = (((p >> 16) & 0xFF) * 77 + ((p >> 8) & 0xFF) * 150 + (p & 0xFF) * 29) >> 8;
+            }
+        });
+
+        // Candidato a fundo: cor próxima do fundo, sem contorno forte e não transparente já
+        byte[] candidate = new byte[n];
+        int br = (background >> 16) & 0xFF;
+        int bg = (background >> 8) & 0xFF;
+        int bb = background & 0xFF;
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    int i = row + x;
+                    int p = pixels[i];
+                    if ((p >>> 24) < 16) {
+                        candidate[i] = 1;
+                        continue;
+                    }
+                    int dr = ((p >> 16) & 0xFF) - br;
+                    int dg = ((p >> 8) & 0xFF) - bg;
+                    int db = (p & 0xFF) - bb;
+                    int gradient = 0;
+                    if (x + 1 < width) gradient = Math.abs(luma[i] - luma[i + 1]);
+                    if (y + 1 < height) gradient = Math.max(gradient, Math.abs(luma[i] - luma[i + width]));
+                    if (dr * dr + dg * dg + db * db <= thresholdSquared && gradient < EDGE_THRESHOLD) {
+                        candidate[i] = 1;
+                    }
+                }
+            }
+        });
+
+        byte[] backgroundMask = floodFillFromBorder(candidate, width, height);
+
+        byte[] mask = new byte[n];
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int i = from * width, end = to * width; i < end; i++) {
+                mask[i] = (byte) (backgroundMask[i] == 0 ? 1 : 0);
+            }
+        });
+
+        // Abertura remove pontos soltos; fechamento tapa furos pequenos na peça
+        byte[] tmp = new byte[n];
+        morph(mask, tmp, width, height, false);
+        morph(tmp, mask, width, height, true);
+        morph(mask, tmp, width, height, true);
+        morph(tmp, mask, width, height, false);
+
+        long foregroundCount = IntStream.range(0, n).parallel().filter(i -> mask[i] != 0).count();
+        double ratio = (double) foregroundCount / n;
+        if (ratio < MIN_FOREGROUND_RATIO || ratio > MAX_FOREGROUND_RATIO) {
+            throw new IllegalStateException(String.format(
+                    "Local background removal could not isolate the item (foreground %.1f%%)", ratio * 100));
+        }
+        return mask;
+    }
+
+    /**
+     * Mediana por canal dos pixels da borda da imagem
+     */
+    private int borderMedianColor(int[] pixels, int width, int height) {
+        int[] histR = new int[256];
+        int[] histG = new int[256];
+        int[] histB = new int[256];
+        int count = 0;
+
+        for (int x = 0; x < width; x++) {
+            count += addToHistogram(pixels[x], histR, histG, histB);
+            count += addToHistogram(pixels[(height - 1) * width + x], histR, histG, histB);
+        }
+        for (int y = 1; y < height - 1; y++) {
+            count += addToHistogram(pixels[y * width], histR, histG, histB);
+            count += addToHistogram(pixels[y * width + width - 1], histR, histG, histB);
+        }
+
+        return (median(histR, count) << 16) | (median(histG, count) << 8) | median(histB, count);
+    }
+
+    private static int addToHistogram(int p, int[] histR, int[] histG, int[] histB) {
+        histR[(p >> 16) & 0xFF]++;
+        histG[(p >> 8) & 0xFF]++;
+        histB[p & 0xFF]++;
+        return 1;
+    }
+
+    private static int median(int[] histogram, int count) {
+        int half = count / 2;
+        int acc = 0;
+        for (int v = 0; v < 256; v++) {
+            acc += histogram[v];
+            if (acc > half) {
+                return v;
+            }
+        }
+        return 255;
+    }
+
+    /**
+     * Limiar adaptativo: fundos com textura/gradiente (percentil 90 da distância na borda)
+     * aceitam uma tolerância maior
+     */
+    private int colorThreshold(int[] pixels, int width, int height, int background) {
+        int[] histogram = new int[443]; // sqrt(3 * 255^2) ~ 441.7
+        int count = 0;
+        int br = (background >> 16) & 0xFF;
+        int bg = (background >> 8) & 0xFF;
+        int bb = background & 0xFF;
+
+        for (int y = 0; y < height; y++) {
+            int step = (y == 0 || y == height - 1) ? 1 : Math.max(1, width - 1);
+            for (int x = 0; x < width; x += step) {
+                int p = pixels[y * width + x];
+                int dr = ((p >> 16) & 0xFF) - br;
+                int dg = ((p >> 8) & 0xFF) - bg;
+                int db = (p & 0xFF) - bb;
+                histogram[(int) Math.sqrt(dr * dr + dg * dg + db * db)]++;
+                count++;
+            }
+        }
+
+        int target = (int) (count * 0.9);
+        int acc = 0;
+        int p90 = 0;
+        for (int d = 0; d < histogram.length; d++) {
+            acc += histogram[d];
+            if (acc >= target) {
+                p90 = d;
+                break;
+            }
+        }
+        return Math.max(MIN_COLOR_DISTANCE, Math.min(MAX_COLOR_DISTANCE, p90 * 3 / 2 + MIN_COLOR_DISTANCE / 2));
+    }
+
+    /**
+     * BFS 4-conectado a partir de todos os candidatos da borda
+     */
+    private static byte[] floodFillFromBorder(byte[] candidate, int width, int height) {
+        int n = width * height;
+        byte[] visited = new byte[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        for (int x = 0; x < width; x++) {
+            tail = seed(candidate, visited, queue, tail, x);
+            tail = seed(candidate, visited, queue, tail, (height - 1) * width + x);
+        }
+        for (int y = 1; y < height - 1; y++) {
+            tail = seed(candidate, visited, queue, tail, y * width);
+            tail = seed(candidate, visited, queue, tail, y * width + width - 1);
+        }
+
+        while (head < tail) {
+            int i = queue[head++];
+            int x = i % width;
+            if (x > 0) tail = seed(candidate, visited, queue, tail, i - 1);
+            if (x < width - 1) tail = seed(candidate, visited, queue, tail, i + 1);
+            if (i >= width) tail = seed(candidate, visited, queue, tail, i - width);
+            if (i < n - width) tail = seed(candidate, visited, queue, tail, i + width);
+        }
+        return visited;
+    }
+
+    private static int seed(byte[] candidate, byte[] visited, int[] queue, int tail, int i) {
+        if (candidate[i] != 0 && visited[i] == 0) {
+            visited[i] = 1;
+            queue[tail++] = i;
+        }
+        return tail;
+    }
+
+    /**
+     * Erosão (dilate=false) ou dilatação 3x3, separável: passada horizontal e depois vertical
+     */
+    private static void morph(byte[] src, byte[] dst, int width, int height, boolean dilate) {
+        byte[] horizontal = new byte[src.length];
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    int left = src[row + Math.max(0, x - 1)];
+                    int center = src[row + x];
+                    int right = src[row + Math.min(width - 1, x + 1)];
+                    horizontal[row + x] = (byte) (dilate ? (left | center | right) : (left & center & right));
+                }
+            }
+        });
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int up = Math.max(0, y - 1) * width;
+                int row = y * width;
+                int down = Math.min(height - 1, y + 1) * width;
+                for (int x = 0; x < width; x++) {
+                    int a = horizontal[up + x];
+                    int b = horizontal[row + x];
+                    int c = horizontal[down + x];
+                    dst[row + x] = (byte) (dilate ? (a | b | c) : (a & b & c));
+                }
+            }
+        });
+    }
+
+    /**
+     * Alpha 0..255 com box blur separável sobre a máscara
+     */
+    private static int[] feather(byte[] mask, int width, int height) {
+        int n = width * height;
+        int window = FEATHER_RADIUS * 2 + 1;
+        int[] horizontal = new int[n];
+        int[] alpha = new int[n];
+
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int row = y * width;
+                int sum = 0;
+                for (int x = -FEATHER_RADIUS; x <= FEATHER_RADIUS; x++) {
+                    sum += mask[row + Math.min(width - 1, Math.max(0, x))];
+                }
+                for (int x = 0; x < width; x++) {
+                    horizontal[row + x] = sum;
+                    sum += mask[row + Math.min(width - 1, x + FEATHER_RADIUS + 1)];
+                    sum -= mask[row + Math.max(0, x - FEATHER_RADIUS)];
+                }
+            }
+        });
+
+        int divisor = window * window;
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                for (int x = 0; x < width; x++) {
+                    int sum = 0;
+                    for (int dy = -FEATHER_RADIUS; dy <= FEATHER_RADIUS; dy++) {
+                        int yy = Math.min(height - 1, Math.max(0, y + dy));
+                        sum += horizontal[yy * width + x];
+                    }
+                    alpha[y * width + x] = sum * 255 / divisor;
+                }
+            }
+        });
+        return alpha;
+    }
+
+}
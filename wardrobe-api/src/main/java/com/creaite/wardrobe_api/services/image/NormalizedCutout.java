@@ -0,0 +1,9 @@
+package com.creaite.wardrobe_api.services.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Resultado do CutoutNormalizer: o data URL a salvar e a imagem já decodificada,
+ * para as etapas seguintes (ex.: extração de cor) não decodificarem o PNG de novo.
+ */
+public record NormalizedCutout(String dataUrl, BufferedImage image) {}
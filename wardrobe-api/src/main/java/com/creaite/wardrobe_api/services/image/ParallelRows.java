@@ -0,0 +1,32 @@
+package com.creaite.wardrobe_api.services.image;
+
+import java.util.stream.IntStream;
+
+/**
+ * Divide a imagem em faixas de linhas e processa as faixas em paralelo no ForkJoinPool comum.
+ * Cada faixa escreve só nas próprias linhas, então os arrays de saída não precisam de sincronização.
+ */
+final class ParallelRows {
+
+    static final int BAND_HEIGHT = 64;
+
+    private ParallelRows() {
+    }
+
+    static void forEach(int height, RowBand body) {
+        int bands = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+        if (bands <= 1) {
+            body.apply(0, height);
+            return;
+        }
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int from = band * BAND_HEIGHT;
+            body.apply(from, Math.min(height, from + BAND_HEIGHT));
+        });
+    }
+
+    @FunctionalInterface
+    interface RowBand {
+        void apply(int fromRow, int toRow);
+    }
+}
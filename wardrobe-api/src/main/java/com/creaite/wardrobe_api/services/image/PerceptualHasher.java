@@ -0,0 +1,81 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * dHash de 64 bits da foto enviada, para achar reenvios da mesma peça.
+ *
+ * 1. decodifica já reduzida (subsampling no decoder) e compõe o alpha sobre branco;
+ * 2. média de luminância em blocos numa grade 9x8;
+ * 3. cada bit diz se o bloco é mais claro que o vizinho da direita.
+ *
+ * Sobrevive a recompressão JPEG, redimensionamento e pequenos ajustes de brilho; a distância
+ * de Hamming entre dois hashes (bits diferentes) mede o quanto as fotos diferem.
+ */
+@Service
+public class PerceptualHasher {
+
+    private static final int DECODE_DIMENSION = 64;
+    private static final int GRID_WIDTH = 9;
+    private static final int GRID_HEIGHT = 8;
+    // Áreas lisas (fundo, tecido liso) empatam: sem margem o ruído do JPEG decidiria esses bits
+    private static final double FLAT_MARGIN = 2.0;
+
+    public long hash(String imageBase64) {
+        return hash(ImageCodec.readImage(ImageCodec.decodeBase64(imageBase64), DECODE_DIMENSION));
+    }
+
+    public long hash(BufferedImage image) {
+        BufferedImage argb = ImageCodec.toArgb(image, DECODE_DIMENSION);
+        int width = argb.getWidth();
+        int height = argb.getHeight();
+        int[] pixels = ImageCodec.pixels(argb);
+        boolean hasAlpha = argb.getColorModel().hasAlpha();
+
+        // Soma de luminância e contagem por bloco; imagens menores que a grade repetem pixels
+        double[] sums = new double[GRID_WIDTH * GRID_HEIGHT];
+        int[] counts = new int[GRID_WIDTH * GRID_HEIGHT];
+        for (int y = 0; y < height; y++) {
+            int cellRow = (y * GRID_HEIGHT / height) * GRID_WIDTH;
+            for (int x = 0; x < width; x++) {
+                int cell = cellRow + x * GRID_WIDTH / width;
+                sums[cell] += luminance(pixels[y * width + x], hasAlpha);
+                counts[cell]++;
+            }
+        }
+
+        long hash = 0;
+        for (int row = 0; row < GRID_HEIGHT; row++) {
+            for (int column = 0; column < GRID_WIDTH - 1; column++) {
+                int cell = row * GRID_WIDTH + column;
+                hash <<= 1;
+                if (average(sums, counts, cell) > average(sums, counts, cell + 1) + FLAT_MARGIN) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Distância de Hamming: 0 = mesma imagem; até ~10 costuma ser a mesma foto reprocessada
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static double average(double[] sums, int[] counts, int cell) {
+        return counts[cell] == 0 ? 255 : sums[cell] / counts[cell];
+    }
+
+    // Fundo transparente conta como branco, igual ao que o usuário vê
+    private static double luminance(int pixel, boolean hasAlpha) {
+        double alpha = hasAlpha ? (pixel >>> 24) / 255.0 : 1.0;
+        double r = ((pixel >> 16) & 0xFF) * alpha + 255 * (1 - alpha);
+        double g = ((pixel >> 8) & 0xFF) * alpha + 255 * (1 - alpha);
+        double b = (pixel & 0xFF) * alpha + 255 * (1 - alpha);
+        return 0.299 * r + 0.587 * g + 0.114 * b;
+    }
+}
@@ -0,0 +1,180 @@
+package com.creaite.wardrobe_api.services.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Melhoria "estúdio" local e determinística, alternativa rápida ao DALL-E Edit.
+ *
+ * 1. balanço de branco automático (gray world, ganhos limitados);
+ * 2. normalização de exposição/contraste (percentis 0,5% e 99,5% esticados);
+ * 3. levantamento de sombras (curva que preserva preto e branco);
+ * 4. centraliza a foto num canvas quadrado neutro.
+ *
+ * Os passos 1-3 viram uma LUT de 256 entradas por canal, calculada uma vez por imagem;
+ * por pixel sobra só deslocamento, 3 consultas e composição, em laços simples sobre int[].
+ */
+@Slf4j
+@Service
+public class StudioEnhancer {
+
+    // Mesmo tamanho da saída do DALL-E Edit
+    static final int CANVAS_SIZE = 1024;
+    private static final int MARGIN = 48;
+    private static final int NEUTRAL_BACKGROUND = 0xF4F4F2;
+    private static final float JPEG_QUALITY = 0.92f;
+
+    private static final double MAX_WHITE_BALANCE_GAIN = 1.35;
+    private static final double MIN_WHITE_BALANCE_GAIN = 0.75;
+    private static final double MAX_CONTRAST_GAIN = 2.5;
+    private static final double CLIP_FRACTION = 0.005;
+    private static final int TARGET_BLACK = 6;
+    private static final int TARGET_WHITE = 250;
+    private static final double SHADOW_LIFT = 0.55;
+
+    /**
+     * @return data URL JPEG de CANVAS_SIZE x CANVAS_SIZE (sem transparência)
+     */
+    public String enhance(String imageBase64) {
+        long start = System.nanoTime();
+
+        int inner = CANVAS_SIZE - 2 * MARGIN;
+        BufferedImage photo = ImageCodec.toArgb(ImageCodec.readImage(ImageCodec.decodeBase64(imageBase64), inner), inner);
+        int width = photo.getWidth();
+        int height = photo.getHeight();
+        int[] source = ImageCodec.pixels(photo);
+        long decoded = System.nanoTime();
+
+        int[][] luts = buildLuts(source);
+        int[] lutR = luts[0];
+        int[] lutG = luts[1];
+        int[] lutB = luts[2];
+
+        BufferedImage canvas = new BufferedImage(CANVAS_SIZE, CANVAS_SIZE, BufferedImage.TYPE_INT_RGB);
+        int[] target = ImageCodec.pixels(canvas);
+        Arrays.fill(target, NEUTRAL_BACKGROUND);
+
+        int offsetX = (CANVAS_SIZE - width) / 2;
+        int offsetY = (CANVAS_SIZE - height) / 2;
+        int bgR = (NEUTRAL_BACKGROUND >> 16) & 0xFF;
+        int bgG = (NEUTRAL_BACKGROUND >> 8) & 0xFF;
+        int bgB = NEUTRAL_BACKGROUND & 0xFF;
+
+        ParallelRows.forEach(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int src = y * width;
+                int dst = (y + offsetY) * CANVAS_SIZE + offsetX;
+                for (int x = 0; x < width; x++) {
+                    int p = source[src + x];
+                    int a = p >>> 24;
+                    int r = lutR[(p >> 16) & 0xFF];
+                    int g = lutG[(p >> 8) & 0xFF];
+                    int b = lutB[p & 0xFF];
+                    if (a != 255) {
+                        // PNG com transparência: compõe sobre o fundo neutro
+                        r = (r * a + bgR * (255 - a)) / 255;
+                        g = (g * a + bgG * (255 - a)) / 255;
+                        b = (b * a + bgB * (255 - a)) / 255;
+                    }
+                    target[dst + x] = (r << 16) | (g << 8) | b;
+                }
+            }
+        });
+
+        long filtered = System.nanoTime();
+
+        String result = ImageCodec.toJpegDataUrl(ImageCodec.encodeJpeg(canvas, JPEG_QUALITY));
+        long end = System.nanoTime();
+        log.info("✅ Studio enhancement complete: {}x{} -> {}x{} (decode {} ms, filters {} ms, encode {} ms)",
+                width, height, CANVAS_SIZE, CANVAS_SIZE,
+                (decoded - start) / 1_000_000, (filtered - decoded) / 1_000_000, (end - filtered) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * LUT por canal: ganho de balanço de branco -> esticamento de contraste -> curva de sombras
+     */
+    static int[][] buildLuts(int[] pixels) {
+        int[] histR = new int[256];
+        int[] histG = new int[256];
+        int[] histB = new int[256];
+        long sumR = 0;
+        long sumG = 0;
+        long sumB = 0;
+        int count = 0;
+
+        for (int p : pixels) {
+            if ((p >>> 24) < 128) continue;
+            int r = (p >> 16) & 0xFF;
+            int g = (p >> 8) & 0xFF;
+            int b = p & 0xFF;
+            histR[r]++;
+            histG[g]++;
+            histB[b]++;
+            sumR += r;
+            sumG += g;
+            sumB += b;
+            count++;
+        }
+
+        if (count == 0) {
+            int[] identity = new int[256];
+            for (int v = 0; v < 256; v++) identity[v] = v;
+            return new int[][]{identity, identity, identity};
+        }
+
+        // Gray world: leva a média de cada canal para a média geral
+        double meanR = Math.max(1, (double) sumR / count);
+        double meanG = Math.max(1, (double) sumG / count);
+        double meanB = Math.max(1, (double) sumB / count);
+        double gray = (meanR + meanG + meanB) / 3;
+        double gainR = clamp(gray / meanR, MIN_WHITE_BALANCE_GAIN, MAX_WHITE_BALANCE_GAIN);
+        double gainG = clamp(gray / meanG, MIN_WHITE_BALANCE_GAIN, MAX_WHITE_BALANCE_GAIN);
+        double gainB = clamp(gray / meanB, MIN_WHITE_BALANCE_GAIN, MAX_WHITE_BALANCE_GAIN);
+
+        // Mesmo esticamento nos 3 canais para não desfazer o balanço de branco
+        int clip = (int) (count * CLIP_FRACTION);
+        double low = Math.min(percentile(histR, clip, false) * gainR,
+                Math.min(percentile(histG, clip, false) * gainG, percentile(histB, clip, false) * gainB));
+        double high = Math.max(percentile(histR, clip, true) * gainR,
+                Math.max(percentile(histG, clip, true) * gainG, percentile(histB, clip, true) * gainB));
+        double scale = high - low > 1 ? (TARGET_WHITE - TARGET_BLACK) / (high - low) : 1;
+        scale = Math.min(scale, MAX_CONTRAST_GAIN);
+
+        return new int[][]{
+                channelLut(gainR, low, scale),
+                channelLut(gainG, low, scale),
+                channelLut(gainB, low, scale)
+        };
+    }
+
+    private static int[] channelLut(double gain, double low, double scale) {
+        int[] lut = new int[256];
+        for (int v = 0; v < 256; v++) {
+            double stretched = clamp(TARGET_BLACK + (v * gain - low) * scale, 0, 255) / 255.0;
+            // v + k·v·(1-v)²: sobe as sombras, quase não mexe nos tons altos e mantém 0 e 1 fixos
+            double lifted = stretched + SHADOW_LIFT * stretched * (1 - stretched) * (1 - stretched);
+            lut[v] = (int) Math.round(clamp(lifted, 0, 1) * 255);
+        }
+        return lut;
+    }
+
+    private static int percentile(int[] histogram, int clip, boolean fromTop) {
+        int acc = 0;
+        for (int i = 0; i < 256; i++) {
+            int v = fromTop ? 255 - i : i;
+            acc += histogram[v];
+            if (acc > clip) {
+                return v;
+            }
+        }
+        return fromTop ? 255 : 0;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,170 @@
+package com.creaite.wardrobe_api.services.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Vetor visual do recorte para a busca por peças parecidas (GET /clothes/{id}/similar).
+ *
+ * - cor: histograma HSV dos pixels opacos (12 matizes x 2 brilhos + 4 tons de cinza, com voto
+ *   dividido entre bins vizinhos), raiz quadrada
+ *   (kernel de Hellinger: o produto escalar passa a comparar distribuições, não só o bin dominante);
+ * - forma: ocupação do alpha numa grade 8x8 sobre o quadrado que envolve a peça, então a proporção
+ *   (calça comprida x camiseta) também entra.
+ *
+ * Cada parte é normalizada e ponderada de forma que o produto escalar de dois vetores seja
+ * COLOR_WEIGHT * cosseno(cor) + SHAPE_WEIGHT * cosseno(forma), entre 0 e 1.
+ */
+@Slf4j
+@Service
+public class VisualFeatureExtractor {
+
+    private static final int HUE_BINS = 12;
+    private static final int VALUE_BINS = 2;
+    private static final int GRAY_BINS = 4;
+    private static final int COLOR_DIMENSIONS = HUE_BINS * VALUE_BINS + GRAY_BINS;
+    private static final int SHAPE_GRID = 8;
+    public static final int DIMENSIONS = COLOR_DIMENSIONS + SHAPE_GRID * SHAPE_GRID;
+
+    private static final double COLOR_WEIGHT = 0.6;
+    private static final double SHAPE_WEIGHT = 0.4;
+
+    private static final int CONVERT_DIMENSION = 128;
+    private static final int OPAQUE_ALPHA = 128;
+    // Abaixo disso saturação/brilho o matiz é ruído: vai para os bins de cinza
+    private static final float MIN_SATURATION = 0.2f;
+    private static final float MIN_VALUE = 0.15f;
+    private static final int MIN_OPAQUE_PIXELS = 32;
+
+    /**
+     * @return vetor de DIMENSIONS floats com norma 1, ou null se o recorte estiver (quase) vazio
+     */
+    public float[] extract(BufferedImage image) {
+        long start = System.nanoTime();
+
+        BufferedImage argb = ImageCodec.toArgb(image, CONVERT_DIMENSION);
+        int width = argb.getWidth();
+        int height = argb.getHeight();
+        int[] pixels = ImageCodec.pixels(argb);
+        boolean hasAlpha = argb.getColorModel().hasAlpha();
+
+        // Bounding box da peça (sem alpha: a imagem inteira)
+        int minX = width, minY = height, maxX = -1, maxY = -1;
+        double[] color = new double[COLOR_DIMENSIONS];
+        float[] hsv = new float[3];
+        int opaque = 0;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int p = pixels[y * width + x];
+                if (hasAlpha && (p >>> 24) < OPAQUE_ALPHA) continue;
+                opaque++;
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+                if (y < minY) minY = y;
+                if (y > maxY) maxY = y;
+
+                Color.RGBtoHSB((p >> 16) & 0xFF, (p >> 8) & 0xFF, p & 0xFF, hsv);
+                addToHistogram(color, hsv[0], hsv[1], hsv[2]);
+            }
+        }
+
+        if (opaque < MIN_OPAQUE_PIXELS) {
+            log.warn("⚠️ Only {} opaque pixels - skipping visual features", opaque);
+            return null;
+        }
+
+        for (int i = 0; i < COLOR_DIMENSIONS; i++) {
+            color[i] = Math.sqrt(color[i] / opaque);
+        }
+
+        // Quadrado centrado na peça: a grade guarda a silhueta e a proporção
+        int side = Math.max(maxX - minX + 1, maxY - minY + 1);
+        int originX = minX - (side - (maxX - minX + 1)) / 2;
+        int originY = minY - (side - (maxY - minY + 1)) / 2;
+        double[] shape = new double[SHAPE_GRID * SHAPE_GRID];
+        for (int y = minY; y <= maxY; y++) {
+            int cellRow = ((y - originY) * SHAPE_GRID / side) * SHAPE_GRID;
+            for (int x = minX; x <= maxX; x++) {
+                int p = pixels[y * width + x];
+                if (hasAlpha && (p >>> 24) < OPAQUE_ALPHA) continue;
+                shape[cellRow + (x - originX) * SHAPE_GRID / side]++;
+            }
+        }
+
+        float[] features = new float[DIMENSIONS];
+        write(color, features, 0, Math.sqrt(COLOR_WEIGHT));
+        write(shape, features, COLOR_DIMENSIONS, Math.sqrt(SHAPE_WEIGHT));
+
+        log.info("✅ Visual features extracted from {} pixels in {} ms", opaque, (System.nanoTime() - start) / 1_000_000);
+        return features;
+    }
+
+    /**
+     * Formato da coluna visual_features: DIMENSIONS floats little-endian
+     */
+    public static byte[] encode(float[] features) {
+        ByteBuffer buffer = ByteBuffer.allocate(features.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(features);
+        return buffer.array();
+    }
+
+    public static float[] decode(byte[] bytes) {
+        float[] features = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(features);
+        return features;
+    }
+
+    /**
+     * Voto dividido entre os dois bins vizinhos (interpolação linear): tons perto da fronteira de
+     * um bin, como azul-marinho e azul, continuam parecidos em vez de caírem em bins sem nada em comum
+     */
+    private static void addToHistogram(double[] histogram, float hue, float saturation, float value) {
+        if (saturation < MIN_SATURATION || value < MIN_VALUE) {
+            double gray = clamp(value * GRAY_BINS - 0.5, GRAY_BINS - 1);
+            int low = (int) gray;
+            int high = Math.min(GRAY_BINS - 1, low + 1);
+            double fraction = gray - low;
+            histogram[HUE_BINS * VALUE_BINS + low] += 1 - fraction;
+            histogram[HUE_BINS * VALUE_BINS + high] += fraction;
+            return;
+        }
+
+        // Matiz é circular: o último bin é vizinho do primeiro
+        double h = hue * HUE_BINS - 0.5;
+        int hueLow = (int) Math.floor(h);
+        double hueFraction = h - hueLow;
+        hueLow = Math.floorMod(hueLow, HUE_BINS);
+        int hueHigh = (hueLow + 1) % HUE_BINS;
+
+        double v = clamp(value * VALUE_BINS - 0.5, VALUE_BINS - 1);
+        int valueLow = (int) v;
+        int valueHigh = Math.min(VALUE_BINS - 1, valueLow + 1);
+        double valueFraction = v - valueLow;
+
+        histogram[hueLow * VALUE_BINS + valueLow] += (1 - hueFraction) * (1 - valueFraction);
+        histogram[hueLow * VALUE_BINS + valueHigh] += (1 - hueFraction) * valueFraction;
+        histogram[hueHigh * VALUE_BINS + valueLow] += hueFraction * (1 - valueFraction);
+        histogram[hueHigh * VALUE_BINS + valueHigh] += hueFraction * valueFraction;
+    }
+
+    private static double clamp(double position, int max) {
+        return Math.max(0, Math.min(max, position));
+    }
+
+    // Normaliza a parte para norma = weight e copia para o vetor final
+    private static void write(double[] part, float[] target, int offset, double weight) {
+        double norm = 0;
+        for (double v : part) norm += v * v;
+        norm = Math.sqrt(norm);
+        if (norm == 0) return;
+        for (int i = 0; i < part.length; i++) {
+            target[offset + i] = (float) (part[i] / norm * weight);
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Vetor visual do recorte (histograma de cor + silhueta), calculado no processamento
+-- (VisualFeatureExtractor): floats little-endian, ~370 bytes. Indexado em memória (HNSW), não no banco.
+ALTER TABLE clothing_items ADD COLUMN IF NOT EXISTS visual_features BYTEA;
@@ -0,0 +1,25 @@
+-- Feed público de descoberta (GET /feed): linha do tempo pré-calculada das peças públicas concluídas.
+--
+-- Uma linha por peça, gravada quando ela chega a COMPLETED (PublicFeedService), com os metadados
+-- e uma miniatura JPEG já prontos: a leitura é uma varredura de índice em id decrescente, sem
+-- JOIN nem ORDER BY sobre clothing_items. id (bigserial) é a ordem do feed e o cursor da paginação.
+--
+-- Limitada: a cada publicação as entradas com id <= novo id - max-entries são apagadas.
+-- Excluir a peça remove a entrada (FK em cascata); tornar a peça privada também (serviço).
+
+CREATE TABLE IF NOT EXISTS public_feed (
+    id            BIGSERIAL    NOT NULL PRIMARY KEY,
+    clothing_id   UUID         NOT NULL REFERENCES clothing_items (id) ON DELETE CASCADE,
+    user_id       UUID         NOT NULL,
+    name          VARCHAR(255),
+    category      VARCHAR(50),
+    color         VARCHAR(255),
+    color_palette VARCHAR(64),
+    brand         VARCHAR(255),
+    thumbnail     BYTEA,
+    published_at  TIMESTAMP(6) NOT NULL DEFAULT now(),
+    CONSTRAINT uk_public_feed_clothing UNIQUE (clothing_id)
+);
+
+-- WHERE category = ? AND id < ? ORDER BY id DESC (sem categoria, a própria PK)
+CREATE INDEX IF NOT EXISTS idx_public_feed_category_id ON public_feed (category, id);
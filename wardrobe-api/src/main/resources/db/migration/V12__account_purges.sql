@@ -0,0 +1,29 @@
+-- Exclusão de conta em segundo plano (AccountPurgeService).
+--
+-- DELETE /user/delete apaga a linha de users e grava aqui o pedido, na mesma transação; as peças
+-- (com as imagens base64) são apagadas depois em lotes pequenos, com pausa entre eles para não
+-- saturar WAL/IO. deleted_items e chunks são atualizados a cada lote, no mesmo commit do DELETE.
+-- status: PENDING -> RUNNING -> DONE. Pedidos não concluídos são retomados na subida da aplicação.
+
+CREATE TABLE IF NOT EXISTS account_purges (
+    user_id       UUID         NOT NULL PRIMARY KEY,
+    status        VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    deleted_items BIGINT       NOT NULL DEFAULT 0,
+    chunks        INTEGER      NOT NULL DEFAULT 0,
+    last_error    VARCHAR(255),
+    requested_at  TIMESTAMP(6) NOT NULL DEFAULT now(),
+    updated_at    TIMESTAMP(6),
+    finished_at   TIMESTAMP(6)
+);
+
+-- WHERE status <> 'DONE' na retomada: só os pedidos em aberto ficam no índice
+CREATE INDEX IF NOT EXISTS idx_account_purges_open
+    ON account_purges (requested_at)
+    WHERE status <> 'DONE';
+
+-- Contas excluídas antes desta versão deixaram as peças órfãs: entram como pedidos pendentes
+INSERT INTO account_purges (user_id)
+SELECT DISTINCT c.user_id
+FROM clothing_items c
+WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = c.user_id)
+ON CONFLICT (user_id) DO NOTHING;
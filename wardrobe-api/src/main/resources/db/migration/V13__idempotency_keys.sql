@@ -0,0 +1,21 @@
+-- Idempotency-Key dos uploads (IdempotencyFilter): a primeira requisição com a chave reserva a linha,
+-- as repetições esperam por ela e recebem a mesma resposta em vez de criar peças de novo.
+--
+-- expires_at é o prazo da reserva enquanto a requisição roda (lease curto: se o nó cair no meio,
+-- outra tentativa assume) e o TTL da resposta guardada depois. Linhas vencidas podem ser
+-- reaproveitadas por um INSERT ... ON CONFLICT e são apagadas periodicamente pelo índice abaixo.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id          UUID         NOT NULL,
+    idempotency_key  VARCHAR(255) NOT NULL,
+    -- SHA-256 de método + caminho + corpo: a mesma chave com outro pedido é erro do cliente
+    fingerprint      VARCHAR(64)  NOT NULL,
+    response_status  INTEGER,
+    response_headers TEXT,
+    response_body    BYTEA,
+    created_at       TIMESTAMP(6) NOT NULL DEFAULT now(),
+    expires_at       TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,15 @@
+-- Fila durável de processamento adiado (ProcessingAdmission).
+--
+-- Com o executor de processamento cheio, o upload com "Prefer: respond-async" (ou cuja submissão
+-- foi recusada depois de salvar a peça) grava aqui o pedido em vez de perder a peça em PENDING.
+-- Um drenador tira as linhas mais antigas (FOR UPDATE SKIP LOCKED, seguro entre réplicas) quando
+-- sobra capacidade. Excluir a peça tira o pedido da fila (FK em cascata).
+
+CREATE TABLE IF NOT EXISTS processing_queue (
+    clothing_id        UUID         NOT NULL PRIMARY KEY REFERENCES clothing_items (id) ON DELETE CASCADE,
+    enhancement        VARCHAR(20)  NOT NULL,
+    background_remover VARCHAR(20)  NOT NULL,
+    enqueued_at        TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_processing_queue_enqueued_at ON processing_queue (enqueued_at);
@@ -0,0 +1,27 @@
+-- Pedidos de exclusão de conta com dono (AccountPurgeService).
+--
+-- Cada réplica reivindica o pedido antes de apagar (owner + heartbeat_at, renovado a cada lote);
+-- outra réplica só assume um pedido sem dono ou com heartbeat mais velho que o lease, em vez de
+-- todas retomarem tudo o que não está DONE na subida.
+
+ALTER TABLE account_purges ADD COLUMN IF NOT EXISTS owner        VARCHAR(64);
+ALTER TABLE account_purges ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP(6);
+
+-- Peça nova de uma conta já excluída: um upload que passou pelo SecurityFilter antes do
+-- DELETE FROM users ainda pode inserir depois que o purge marcou DONE. Como numa FK, o
+-- FOR KEY SHARE espera o DELETE em andamento e falha se o usuário não existe mais; inserções
+-- que chegam antes seguram o DELETE até o commit e entram na contagem do purge.
+CREATE OR REPLACE FUNCTION clothing_items_require_user() RETURNS trigger AS $$
+BEGIN
+    PERFORM 1 FROM users WHERE id = NEW.user_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'user % does not exist', NEW.user_id USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_clothing_items_require_user ON clothing_items;
+CREATE TRIGGER trg_clothing_items_require_user
+    BEFORE INSERT ON clothing_items
+    FOR EACH ROW EXECUTE FUNCTION clothing_items_require_user();
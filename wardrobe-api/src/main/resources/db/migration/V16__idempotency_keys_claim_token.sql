@@ -0,0 +1,7 @@
+-- Dono da reserva de Idempotency-Key (IdempotencyStore).
+--
+-- Cada reserva recebe um token; complete/release e a renovação do lease só valem para o token
+-- atual. Assim uma requisição que perdeu a reserva (lease vencido, outra tentativa assumiu)
+-- não sobrescreve nem apaga a reserva nova.
+
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS claim_token UUID;
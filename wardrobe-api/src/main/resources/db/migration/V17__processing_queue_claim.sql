@@ -0,0 +1,8 @@
+-- Pedidos da processing_queue ficam na fila até o processamento terminar (ProcessingAdmission).
+--
+-- Antes o drenador apagava a linha ao submeter: se o nó caísse com o item na fila do executor ou no
+-- meio do processamento, a peça ficava em PENDING para sempre. Agora o drenador só marca claimed_at
+-- e o ClothesProcessingService apaga a linha em COMPLETED/FAILED; uma linha reivindicada há mais que
+-- o claim-timeout volta a ser elegível para qualquer réplica.
+
+ALTER TABLE processing_queue ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP(6);
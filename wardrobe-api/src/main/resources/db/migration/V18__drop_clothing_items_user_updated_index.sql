@@ -0,0 +1,5 @@
+-- O ETag de GET /user/clothes deixou de consultar count(*) + max(updated_at) no banco: a versão da
+-- coleção sai do ClothesMetadataCache. Nenhuma consulta usa mais (user_id, updated_at), e o índice
+-- de V4 só custava escrita a cada UPDATE de peça (updated_at muda sempre, então nada de HOT update).
+-- Buscas por user_id continuam atendidas por idx_clothing_items_user_created / _user_category.
+DROP INDEX IF EXISTS idx_clothing_items_user_updated;
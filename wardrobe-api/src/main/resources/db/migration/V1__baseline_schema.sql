@@ -0,0 +1,40 @@
+-- Schema base que antes era gerado implicitamente pelo Hibernate a partir de User/Clothes.
+-- Bancos existentes recebem baseline na versão 1 (spring.flyway.baseline-on-migrate),
+-- então este script só roda em bancos novos.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                       UUID         NOT NULL PRIMARY KEY,
+    birth_date               DATE,
+    status                   VARCHAR(255),
+    is_verified              BOOLEAN,
+    last_login               TIMESTAMP(6),
+    language                 VARCHAR(10),
+    name                     VARCHAR(255) NOT NULL,
+    username                 VARCHAR(255) NOT NULL,
+    email                    VARCHAR(255) NOT NULL,
+    password_hash            VARCHAR(255),
+    oauth_provider           VARCHAR(255),
+    profile_picture_url      VARCHAR(255),
+    bio                      VARCHAR(255),
+    has_completed_onboarding BOOLEAN,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS clothing_items (
+    id                 UUID         NOT NULL PRIMARY KEY,
+    user_id            UUID         NOT NULL,
+    name               VARCHAR(255),
+    category           VARCHAR(50),
+    color              VARCHAR(255),
+    brand              VARCHAR(255),
+    image_url          TEXT         NOT NULL,
+    original_image_url TEXT,
+    description        VARCHAR(255),
+    is_public          BOOLEAN,
+    is_favorite        BOOLEAN,
+    processing_status  VARCHAR(255) NOT NULL,
+    processing_error   VARCHAR(255),
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6)
+);
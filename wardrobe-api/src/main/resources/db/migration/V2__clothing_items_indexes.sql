@@ -0,0 +1,25 @@
+-- Índices para as consultas quentes de ClothesRepository.
+-- Planos conferidos com EXPLAIN no PostgreSQL 16 com 200k linhas / 2k usuários.
+
+-- Listagens por usuário ordenadas por criação (ORDER BY created_at sem sort extra).
+-- findByUserId é atendido por qualquer índice com user_id na frente:
+--   Bitmap Heap Scan on clothing_items
+--     ->  Bitmap Index Scan on idx_clothing_items_user_category
+--           Index Cond: (user_id = $1)
+CREATE INDEX IF NOT EXISTS idx_clothing_items_user_created
+    ON clothing_items (user_id, created_at);
+
+-- findByUserIdAndCategory.
+--   Bitmap Heap Scan on clothing_items
+--     ->  Bitmap Index Scan on idx_clothing_items_user_category
+--           Index Cond: ((user_id = $1) AND ((category)::text = $2))
+CREATE INDEX IF NOT EXISTS idx_clothing_items_user_category
+    ON clothing_items (user_id, category);
+
+-- Varredura de itens ainda em processamento (jobs presos/pendentes). Índice parcial:
+-- só contém as poucas linhas fora dos estados finais, então fica minúsculo.
+--   Index Scan using idx_clothing_items_in_flight on clothing_items
+--     Index Cond: (((processing_status)::text = $1) AND (updated_at < $2))
+CREATE INDEX IF NOT EXISTS idx_clothing_items_in_flight
+    ON clothing_items (processing_status, updated_at)
+    WHERE processing_status NOT IN ('COMPLETED', 'FAILED');
@@ -0,0 +1,3 @@
+-- Preferência do usuário pelo motor de remoção de fundo (REMOTE / LOCAL).
+-- NULL = usa processing.background-removal.default-engine.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS background_remover VARCHAR(20);
@@ -0,0 +1,8 @@
+-- Versão da coleção para o ETag de GET /user/clothes: count(*) + max(updated_at) por usuário.
+-- Com (user_id, updated_at) a consulta é respondida só pelo índice, sem tocar no heap
+-- (e nas colunas TEXT de imagem):
+--   Aggregate
+--     ->  Index Only Scan using idx_clothing_items_user_updated on clothing_items
+--           Index Cond: (user_id = $1)
+CREATE INDEX IF NOT EXISTS idx_clothing_items_user_updated
+    ON clothing_items (user_id, updated_at);
@@ -0,0 +1,69 @@
+-- Sequência de mudanças por usuário para o delta sync (GET /user/clothes/changes).
+--
+-- users.change_seq é o contador do usuário; todo INSERT/UPDATE em clothing_items incrementa
+-- o contador e grava o novo valor na linha, e todo DELETE grava um tombstone com o valor.
+-- O UPDATE em users segura o lock da linha do usuário até o commit, então escritas do mesmo
+-- usuário recebem números na ordem de commit: um cliente que leu até N nunca perde um N-1
+-- que ainda estava em andamento.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE clothing_items ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS clothing_tombstones (
+    clothing_id UUID         NOT NULL PRIMARY KEY,
+    user_id     UUID         NOT NULL,
+    change_seq  BIGINT       NOT NULL,
+    deleted_at  TIMESTAMP(6) NOT NULL DEFAULT now()
+);
+
+-- Itens existentes: numerados por usuário na ordem de atualização (antes dos triggers existirem)
+WITH numbered AS (
+    SELECT id, row_number() OVER (PARTITION BY user_id ORDER BY updated_at, id) AS seq
+    FROM clothing_items
+)
+UPDATE clothing_items c SET change_seq = n.seq FROM numbered n WHERE c.id = n.id;
+
+UPDATE users u SET change_seq = s.max_seq
+FROM (SELECT user_id, max(change_seq) AS max_seq FROM clothing_items GROUP BY user_id) s
+WHERE u.id = s.user_id;
+
+-- WHERE user_id = ? AND change_seq > ? ORDER BY change_seq
+CREATE INDEX IF NOT EXISTS idx_clothing_items_user_change_seq
+    ON clothing_items (user_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_clothing_tombstones_user_change_seq
+    ON clothing_tombstones (user_id, change_seq);
+
+CREATE OR REPLACE FUNCTION clothing_items_next_change_seq() RETURNS trigger AS $$
+BEGIN
+    UPDATE users SET change_seq = change_seq + 1 WHERE id = NEW.user_id
+    RETURNING change_seq INTO NEW.change_seq;
+    NEW.change_seq := COALESCE(NEW.change_seq, 0);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION clothing_items_record_tombstone() RETURNS trigger AS $$
+DECLARE
+    seq BIGINT;
+BEGIN
+    UPDATE users SET change_seq = change_seq + 1 WHERE id = OLD.user_id
+    RETURNING change_seq INTO seq;
+    -- Usuário já removido: não há cliente para sincronizar
+    IF seq IS NOT NULL THEN
+        INSERT INTO clothing_tombstones (clothing_id, user_id, change_seq)
+        VALUES (OLD.id, OLD.user_id, seq)
+        ON CONFLICT (clothing_id) DO UPDATE SET change_seq = EXCLUDED.change_seq, deleted_at = now();
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_clothing_items_change_seq ON clothing_items;
+CREATE TRIGGER trg_clothing_items_change_seq
+    BEFORE INSERT OR UPDATE ON clothing_items
+    FOR EACH ROW EXECUTE FUNCTION clothing_items_next_change_seq();
+
+DROP TRIGGER IF EXISTS trg_clothing_items_tombstone ON clothing_items;
+CREATE TRIGGER trg_clothing_items_tombstone
+    AFTER DELETE ON clothing_items
+    FOR EACH ROW EXECUTE FUNCTION clothing_items_record_tombstone();
@@ -0,0 +1,38 @@
+-- Barramento de invalidação de cache entre réplicas (CacheInvalidationBus).
+--
+-- Toda escrita em clothing_items publica 'wardrobe:<user_id>' no canal cache_invalidation.
+-- O NOTIFY só é entregue no commit (e descartado no rollback), e payloads iguais na mesma
+-- transação são entregues uma vez só. Triggers por statement com transition tables: um
+-- INSERT/UPDATE/DELETE em lote gera uma notificação por usuário, não por linha.
+-- Transition tables não aceitam mais de um evento por trigger, daí os três triggers.
+
+CREATE OR REPLACE FUNCTION clothing_items_notify_invalidation() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('cache_invalidation', 'wardrobe:' || user_id)
+        FROM (SELECT DISTINCT user_id FROM old_rows) u;
+    ELSE
+        PERFORM pg_notify('cache_invalidation', 'wardrobe:' || user_id)
+        FROM (SELECT DISTINCT user_id FROM new_rows) u;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_clothing_items_notify_insert ON clothing_items;
+CREATE TRIGGER trg_clothing_items_notify_insert
+    AFTER INSERT ON clothing_items
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION clothing_items_notify_invalidation();
+
+DROP TRIGGER IF EXISTS trg_clothing_items_notify_update ON clothing_items;
+CREATE TRIGGER trg_clothing_items_notify_update
+    AFTER UPDATE ON clothing_items
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION clothing_items_notify_invalidation();
+
+DROP TRIGGER IF EXISTS trg_clothing_items_notify_delete ON clothing_items;
+CREATE TRIGGER trg_clothing_items_notify_delete
+    AFTER DELETE ON clothing_items
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION clothing_items_notify_invalidation();
@@ -0,0 +1,20 @@
+-- Busca textual em nome, marca, cor e descrição (GET /user/clothes/search).
+--
+-- Índice GIN por expressão em vez de coluna tsvector gerada: adicionar uma coluna STORED
+-- reescreveria a tabela inteira, incluindo as imagens base64. A consulta precisa usar a
+-- mesma expressão, clothing_search_vector(name, brand, color, description), para usar o índice.
+--
+-- Configuração 'simple' (só minúsculas, sem stemming nem stopwords): os usuários escrevem em
+-- vários idiomas e nomes de marca não devem ser reduzidos a radicais.
+
+CREATE OR REPLACE FUNCTION clothing_search_vector(name TEXT, brand TEXT, color TEXT, description TEXT)
+RETURNS tsvector
+LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT setweight(to_tsvector('simple'::regconfig, coalesce(name, '')), 'A')
+        || setweight(to_tsvector('simple'::regconfig, coalesce(brand, '')), 'B')
+        || setweight(to_tsvector('simple'::regconfig, coalesce(color, '')), 'B')
+        || setweight(to_tsvector('simple'::regconfig, coalesce(description, '')), 'C')
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_clothing_items_search
+    ON clothing_items USING gin (clothing_search_vector(name, brand, color, description));
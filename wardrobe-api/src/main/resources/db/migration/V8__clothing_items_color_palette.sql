@@ -0,0 +1,3 @@
+-- Paleta extraída do recorte no processamento (ColorExtractor): "#1F2A44:62,#E8E6E1:21", até 5 cores.
+-- Sem default: itens antigos ficam null até serem reprocessados.
+ALTER TABLE clothing_items ADD COLUMN IF NOT EXISTS color_palette VARCHAR(64);
@@ -0,0 +1,3 @@
+-- Hash perceptual (dHash, 64 bits) da foto original, calculado no upload (PerceptualHasher).
+-- Só é lido em bloco por usuário para montar o índice de duplicatas em memória: sem índice próprio.
+ALTER TABLE clothing_items ADD COLUMN IF NOT EXISTS image_hash BIGINT;
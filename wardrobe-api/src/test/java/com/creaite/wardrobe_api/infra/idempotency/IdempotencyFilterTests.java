@@ -0,0 +1,204 @@
+package com.creaite.wardrobe_api.infra.idempotency;
+
+import com.creaite.wardrobe_api.domain.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class IdempotencyFilterTests {
+
+	private static final String BODY = "{\"imageBase64\":\"data:image/png;base64,AAAA\",\"processWithAI\":\"NONE\"}";
+	private static final String RESPONSE = "{\"id\":\"42\",\"processingStatus\":\"PENDING\"}";
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IdempotencyStore store;
+
+	private final UUID userId = UUID.randomUUID();
+	private final String key = UUID.randomUUID().toString();
+	private final AtomicInteger executions = new AtomicInteger();
+	private IdempotencyFilter filter;
+
+	@BeforeEach
+	void authenticate() {
+		User user = new User();
+		user.setId(userId);
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+		filter = filter(store, Duration.ofMillis(300));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		SecurityContextHolder.clearContext();
+		jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = :userId", new MapSqlParameterSource("userId", userId));
+	}
+
+	@Test
+	void repeatedRequestReplaysStoredResponse() throws Exception {
+		MockHttpServletResponse first = send(filter, BODY, accepted());
+		MockHttpServletResponse replay = send(filter, BODY, accepted());
+
+		assertEquals(1, executions.get());
+		assertEquals(202, first.getStatus());
+		assertEquals(RESPONSE, first.getContentAsString());
+		assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+
+		assertEquals(202, replay.getStatus());
+		assertEquals(RESPONSE, replay.getContentAsString());
+		assertEquals("true", replay.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals("respond-async", replay.getHeader("Preference-Applied"));
+		assertEquals("7f0c6a8e-0000-0000-0000-000000000001", replay.getHeader("X-Duplicate-Of"));
+	}
+
+	@Test
+	void sameKeyWithDifferentBodyIsRejected() throws Exception {
+		send(filter, BODY, accepted());
+		MockHttpServletResponse mismatch = send(filter, BODY.replace("NONE", "STUDIO"), accepted());
+
+		assertEquals(422, mismatch.getStatus());
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void retryWhileFirstRequestRunsTimesOut() throws Exception {
+		MockHttpServletRequest request = request(BODY);
+		IdempotencyStore.Claim running = store.claim(userId, key,
+				IdempotencyFilter.fingerprint(request, BODY.getBytes(StandardCharsets.UTF_8))).orElseThrow();
+		try {
+			MockHttpServletResponse response = send(filter, BODY, accepted());
+
+			assertEquals(HttpServletResponse.SC_CONFLICT, response.getStatus());
+			assertEquals(0, executions.get());
+		} finally {
+			running.close();
+			store.release(running);
+		}
+	}
+
+	@Test
+	void failedRequestReleasesKey() throws Exception {
+		FilterChain badRequest = (req, res) -> {
+			executions.incrementAndGet();
+			((HttpServletResponse) res).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+		};
+
+		send(filter, BODY, badRequest);
+		MockHttpServletResponse retry = send(filter, BODY, accepted());
+
+		assertEquals(2, executions.get());
+		assertEquals(202, retry.getStatus());
+	}
+
+	@Test
+	void responseIsSentEvenIfStoringItFails() throws Exception {
+		IdempotencyStore failing = new IdempotencyStore(jdbcTemplate, Duration.ofSeconds(60), Duration.ofHours(1)) {
+			@Override
+			boolean complete(Claim claim, int status, String headers, byte[] body) {
+				throw new IllegalStateException("database unavailable");
+			}
+		};
+		try {
+			MockHttpServletResponse response = send(filter(failing, Duration.ofMillis(300)), BODY, accepted());
+
+			assertEquals(202, response.getStatus());
+			assertEquals(RESPONSE, response.getContentAsString());
+		} finally {
+			failing.shutdown();
+		}
+	}
+
+	@Test
+	void cachedBodyCanBeReadWithReadListener() throws Exception {
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		AtomicInteger allDataRead = new AtomicInteger();
+		FilterChain nonBlocking = (req, res) -> {
+			executions.incrementAndGet();
+			ServletInputStream input = req.getInputStream();
+			input.setReadListener(new ReadListener() {
+				@Override
+				public void onDataAvailable() throws IOException {
+					byte[] buffer = new byte[16];
+					while (input.isReady() && !input.isFinished()) {
+						received.write(buffer, 0, input.read(buffer));
+					}
+				}
+
+				@Override
+				public void onAllDataRead() {
+					allDataRead.incrementAndGet();
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					throw new AssertionError(t);
+				}
+			});
+			((HttpServletResponse) res).setStatus(HttpServletResponse.SC_ACCEPTED);
+		};
+
+		MockHttpServletResponse response = send(filter, BODY, nonBlocking);
+
+		assertEquals(202, response.getStatus());
+		assertEquals(1, allDataRead.get());
+		assertEquals(BODY, received.toString(StandardCharsets.UTF_8));
+	}
+
+	private IdempotencyFilter filter(IdempotencyStore idempotencyStore, Duration waitTimeout) {
+		return new IdempotencyFilter(idempotencyStore, new ObjectMapper(), new SimpleMeterRegistry(), waitTimeout);
+	}
+
+	private FilterChain accepted() {
+		return (req, res) -> {
+			executions.incrementAndGet();
+			HttpServletResponse response = (HttpServletResponse) res;
+			response.setStatus(HttpServletResponse.SC_ACCEPTED);
+			response.setContentType("application/json");
+			response.setHeader("Preference-Applied", "respond-async");
+			response.setHeader("X-Duplicate-Of", "7f0c6a8e-0000-0000-0000-000000000001");
+			req.getInputStream().readAllBytes();
+			response.getOutputStream().write(RESPONSE.getBytes(StandardCharsets.UTF_8));
+		};
+	}
+
+	private MockHttpServletResponse send(IdempotencyFilter idempotencyFilter, String body, FilterChain chain) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		idempotencyFilter.doFilter(request(body), response, chain);
+		return response;
+	}
+
+	private MockHttpServletRequest request(String body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/clothes/upload");
+		request.addHeader(IdempotencyFilter.HEADER, key);
+		request.setContentType("application/json");
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
@@ -0,0 +1,109 @@
+package com.creaite.wardrobe_api.infra.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class IdempotencyStoreTests {
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private IdempotencyStore store;
+
+	private final UUID userId = UUID.randomUUID();
+	private final String key = UUID.randomUUID().toString();
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = :userId", new MapSqlParameterSource("userId", userId));
+	}
+
+	@Test
+	void claimIsExclusiveUntilReleased() {
+		Optional<IdempotencyStore.Claim> first = store.claim(userId, key, "a");
+		assertTrue(first.isPresent());
+		assertTrue(store.claim(userId, key, "a").isEmpty());
+		assertNull(store.find(userId, key).orElseThrow().status());
+
+		store.release(first.get());
+		first.get().close();
+
+		Optional<IdempotencyStore.Claim> second = store.claim(userId, key, "a");
+		assertTrue(second.isPresent());
+		second.get().close();
+	}
+
+	@Test
+	void storesResponseForReplay() {
+		IdempotencyStore.Claim claim = store.claim(userId, key, "a").orElseThrow();
+		byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+		assertTrue(store.complete(claim, 202, "Preference-Applied: respond-async\n", body));
+		claim.close();
+
+		IdempotencyStore.Entry entry = store.find(userId, key).orElseThrow();
+		assertEquals("a", entry.fingerprint());
+		assertEquals(202, entry.status());
+		assertEquals("Preference-Applied: respond-async\n", entry.headers());
+		assertArrayEquals(body, entry.body());
+		// Resposta guardada: ninguém reserva de novo até o TTL
+		assertTrue(store.claim(userId, key, "a").isEmpty());
+	}
+
+	@Test
+	void takenOverClaimCannotCompleteOrRelease() {
+		// Lease zero: a reserva vence na hora, como a de um nó que caiu
+		IdempotencyStore expiring = new IdempotencyStore(jdbcTemplate, Duration.ZERO, Duration.ofHours(1));
+		try {
+			IdempotencyStore.Claim stale = expiring.claim(userId, key, "a").orElseThrow();
+			stale.close();
+			IdempotencyStore.Claim current = expiring.claim(userId, key, "b").orElseThrow();
+			current.close();
+
+			assertFalse(expiring.complete(stale, 200, null, new byte[0]));
+			expiring.release(stale);
+			assertEquals("b", expiring.find(userId, key).orElseThrow().fingerprint());
+
+			assertTrue(expiring.complete(current, 201, null, new byte[0]));
+			assertEquals(201, expiring.find(userId, key).orElseThrow().status());
+		} finally {
+			expiring.shutdown();
+		}
+	}
+
+	@Test
+	void leaseIsRenewedWhileRequestRuns() throws InterruptedException {
+		IdempotencyStore shortLease = new IdempotencyStore(jdbcTemplate, Duration.ofSeconds(1), Duration.ofHours(1));
+		try {
+			IdempotencyStore.Claim running = shortLease.claim(userId, key, "a").orElseThrow();
+			Thread.sleep(2500);
+			assertTrue(shortLease.claim(userId, key, "a").isEmpty(), "in-progress request must keep its key");
+
+			// Sem renovação (nó caiu) a reserva vence e outra tentativa assume
+			running.close();
+			Thread.sleep(2500);
+			Optional<IdempotencyStore.Claim> retry = shortLease.claim(userId, key, "a");
+			assertTrue(retry.isPresent());
+			retry.get().close();
+		} finally {
+			shortLease.shutdown();
+		}
+	}
+}
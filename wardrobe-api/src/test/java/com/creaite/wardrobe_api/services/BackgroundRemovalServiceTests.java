@@ -0,0 +1,79 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.BackgroundRemovalEngine;
+import com.creaite.wardrobe_api.infra.metrics.ProcessingMetrics;
+import com.creaite.wardrobe_api.services.image.LocalBackgroundRemover;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BackgroundRemovalServiceTests {
+
+	private final Deque<RuntimeException> remoteFailures = new ArrayDeque<>();
+	private final AtomicInteger remoteCalls = new AtomicInteger();
+
+	private final RemoveBGService remote = new RemoveBGService(null) {
+		@Override
+		public String removeBackground(String imageBase64) {
+			remoteCalls.incrementAndGet();
+			RuntimeException failure = remoteFailures.poll();
+			if (failure != null) throw failure;
+			return "remote";
+		}
+	};
+
+	private final LocalBackgroundRemover local = new LocalBackgroundRemover() {
+		@Override
+		public String removeBackground(String imageBase64) {
+			return "local";
+		}
+	};
+
+	private final BackgroundRemovalService service = service();
+
+	@Test
+	void imageRejectionFallsBackForThatItemOnly() {
+		remoteFailures.add(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "unknown_foreground", null, null, null));
+		remoteFailures.add(HttpClientErrorException.create(HttpStatus.PAYLOAD_TOO_LARGE, "too large", null, null, null));
+
+		assertEquals("local", service.removeBackground("img", BackgroundRemovalEngine.REMOTE));
+		assertEquals("local", service.removeBackground("img", BackgroundRemovalEngine.REMOTE));
+		assertEquals("remote", service.removeBackground("img", BackgroundRemovalEngine.REMOTE));
+		assertEquals(3, remoteCalls.get());
+	}
+
+	@Test
+	void providerFailuresSuspendRemote() {
+		for (RuntimeException failure : new RuntimeException[]{
+				HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "down", null, null, null),
+				HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "slow down", null, null, null),
+				HttpClientErrorException.create(HttpStatus.PAYMENT_REQUIRED, "no credits", null, null, null),
+				new ResourceAccessException("Read timed out")}) {
+			BackgroundRemovalService suspended = service();
+			remoteCalls.set(0);
+			remoteFailures.add(failure);
+
+			assertEquals("local", suspended.removeBackground("img", BackgroundRemovalEngine.REMOTE));
+			assertEquals("local", suspended.removeBackground("img", BackgroundRemovalEngine.REMOTE));
+			assertEquals(1, remoteCalls.get(), failure.getMessage());
+		}
+	}
+
+	private BackgroundRemovalService service() {
+		BackgroundRemovalService removal = new BackgroundRemovalService(remote, local, new ProcessingMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(removal, "defaultEngine", BackgroundRemovalEngine.REMOTE);
+		ReflectionTestUtils.setField(removal, "remoteCooldown", Duration.ofSeconds(30));
+		return removal;
+	}
+}
@@ -0,0 +1,176 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.domain.user.ClothingCategory;
+import com.creaite.wardrobe_api.dto.ClothesBulkRequestDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ClothesBulkServiceTests {
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ClothesBulkService bulkService;
+
+	private final UUID userId = UUID.randomUUID();
+	private final UUID otherUserId = UUID.randomUUID();
+	private final UUID first = UUID.randomUUID();
+	private final UUID second = UUID.randomUUID();
+	private final UUID foreign = UUID.randomUUID();
+
+	@BeforeEach
+	void createWardrobes() {
+		insertUser(userId);
+		insertUser(otherUserId);
+		insertClothing(first, userId, "Shirt", true, false);
+		insertClothing(second, userId, "Jeans", false, true);
+		insertClothing(foreign, otherUserId, "Coat", true, false);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		MapSqlParameterSource users = new MapSqlParameterSource("users", List.of(userId, otherUserId));
+		jdbcTemplate.update("DELETE FROM clothing_items WHERE user_id IN (:users)", users);
+		jdbcTemplate.update("DELETE FROM clothing_tombstones WHERE user_id IN (:users)", users);
+		jdbcTemplate.update("DELETE FROM users WHERE id IN (:users)", users);
+	}
+
+	@Test
+	void missingOrForeignIdsApplyNothing() {
+		UUID unknown = UUID.randomUUID();
+
+		ClothesBulkService.Outcome outcome = bulkService.apply(userId, List.of(
+				set(List.of(first), fields("Renamed", null, null)),
+				new ClothesBulkRequestDTO.Operation(ClothesBulkRequestDTO.Type.DELETE, List.of(second, foreign, unknown), null)));
+
+		assertEquals(Set.of(foreign, unknown), outcome.missing());
+		assertEquals("Shirt", column(first, "name"));
+		assertEquals(3, count("SELECT count(*) FROM clothing_items WHERE id IN (:ids)",
+				new MapSqlParameterSource("ids", List.of(first, second, foreign))));
+	}
+
+	@Test
+	void setWritesOnlyGivenFields() {
+		ClothesBulkService.Outcome outcome = bulkService.apply(userId,
+				List.of(set(List.of(first, second), new ClothesBulkRequestDTO.Fields(
+						null, ClothingCategory.PANTS, "Navy", null, null, null, null))));
+
+		assertEquals(List.of(2), outcome.affected());
+		assertEquals(Set.of(first, second), outcome.touched());
+		for (UUID id : List.of(first, second)) {
+			assertEquals("PANTS", column(id, "category"));
+			assertEquals("Navy", column(id, "color"));
+			assertEquals("Acme", column(id, "brand"));
+		}
+		assertEquals("Shirt", column(first, "name"));
+		assertEquals("Jeans", column(second, "name"));
+	}
+
+	@Test
+	void toggleFavoriteFlipsEachItem() {
+		bulkService.apply(userId, List.of(
+				new ClothesBulkRequestDTO.Operation(ClothesBulkRequestDTO.Type.TOGGLE_FAVORITE, List.of(first, second), null)));
+
+		assertEquals(true, column(first, "is_favorite"));
+		assertEquals(false, column(second, "is_favorite"));
+	}
+
+	@Test
+	void deleteRemovesItemsAndFeedEntries() {
+		publish(first);
+
+		ClothesBulkService.Outcome outcome = bulkService.apply(userId, List.of(
+				new ClothesBulkRequestDTO.Operation(ClothesBulkRequestDTO.Type.DELETE, List.of(first), null)));
+
+		assertEquals(List.of(1), outcome.affected());
+		assertEquals(Set.of(first), outcome.deleted());
+		assertTrue(outcome.touched().isEmpty());
+		MapSqlParameterSource params = new MapSqlParameterSource("ids", List.of(first));
+		assertEquals(0, count("SELECT count(*) FROM clothing_items WHERE id IN (:ids)", params));
+		assertEquals(0, count("SELECT count(*) FROM public_feed WHERE clothing_id IN (:ids)", params));
+		assertEquals("Jeans", column(second, "name"));
+	}
+
+	@Test
+	void feedSnapshotFollowsBulkChanges() {
+		publish(first);
+
+		bulkService.apply(userId, List.of(set(List.of(first), fields("Linen shirt", null, null))));
+		assertEquals("Linen shirt", feedName(first));
+
+		// Privada sai do feed na mesma transação; a que ficou pública volta para publicar com miniatura
+		ClothesBulkService.Outcome outcome = bulkService.apply(userId, List.of(
+				set(List.of(first), fields(null, false, null)),
+				set(List.of(second), fields(null, true, null))));
+
+		assertEquals(0, count("SELECT count(*) FROM public_feed WHERE clothing_id IN (:ids)",
+				new MapSqlParameterSource("ids", List.of(first))));
+		assertEquals(Set.of(second), outcome.toPublish());
+	}
+
+	private static ClothesBulkRequestDTO.Operation set(List<UUID> ids, ClothesBulkRequestDTO.Fields fields) {
+		return new ClothesBulkRequestDTO.Operation(ClothesBulkRequestDTO.Type.SET, ids, fields);
+	}
+
+	private static ClothesBulkRequestDTO.Fields fields(String name, Boolean isPublic, Boolean isFavorite) {
+		return new ClothesBulkRequestDTO.Fields(name, null, null, null, null, isPublic, isFavorite);
+	}
+
+	private void insertUser(UUID id) {
+		jdbcTemplate.update("INSERT INTO users (id, name, email, username) VALUES (:id, 'Bulk', :email, :username)",
+				new MapSqlParameterSource("id", id)
+						.addValue("email", id + "@bulk.test")
+						.addValue("username", "bulk-" + id));
+	}
+
+	private void insertClothing(UUID id, UUID owner, String name, boolean isPublic, boolean isFavorite) {
+		jdbcTemplate.update("""
+				INSERT INTO clothing_items (id, user_id, name, category, color, brand, image_url, is_public, is_favorite,
+				                            processing_status, created_at, updated_at)
+				VALUES (:id, :userId, :name, 'SHIRT', 'White', 'Acme', 'data:image/png;base64,AAAA', :isPublic, :isFavorite,
+				        'COMPLETED', now(), now())""",
+				new MapSqlParameterSource("id", id)
+						.addValue("userId", owner)
+						.addValue("name", name)
+						.addValue("isPublic", isPublic)
+						.addValue("isFavorite", isFavorite));
+	}
+
+	private void publish(UUID clothingId) {
+		jdbcTemplate.update("""
+				INSERT INTO public_feed (clothing_id, user_id, name, category, color, brand)
+				SELECT id, user_id, name, category, color, brand FROM clothing_items WHERE id = :id""",
+				new MapSqlParameterSource("id", clothingId));
+	}
+
+	private Object column(UUID id, String column) {
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT " + column + " FROM clothing_items WHERE id = :id",
+				new MapSqlParameterSource("id", id));
+		return row.get(column);
+	}
+
+	private String feedName(UUID clothingId) {
+		return jdbcTemplate.queryForObject("SELECT name FROM public_feed WHERE clothing_id = :id",
+				new MapSqlParameterSource("id", clothingId), String.class);
+	}
+
+	private long count(String sql, MapSqlParameterSource params) {
+		Long count = jdbcTemplate.queryForObject(sql, params, Long.class);
+		return count != null ? count : 0;
+	}
+}
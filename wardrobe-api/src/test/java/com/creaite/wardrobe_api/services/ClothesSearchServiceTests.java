@@ -0,0 +1,42 @@
+package com.creaite.wardrobe_api.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClothesSearchServiceTests {
+
+	@Test
+	void buildsPrefixQueryFromWords() {
+		assertEquals("cam:* & azu:*", ClothesSearchService.toTsQuery("cam azu"));
+		assertEquals("camisa:* & 2024:*", ClothesSearchService.toTsQuery("  Camisa   2024 "));
+		assertEquals("calção:* & été:*", ClothesSearchService.toTsQuery("CALÇÃO Été"));
+	}
+
+	@Test
+	void stripsTsQueryOperatorsAndPunctuation() {
+		// Sem escapar, cada um destes quebraria o to_tsquery ou mudaria o sentido da busca
+		assertEquals("a:* & b:*", ClothesSearchService.toTsQuery("a&b"));
+		assertEquals("a:* & b:*", ClothesSearchService.toTsQuery("a|b"));
+		assertEquals("jeans:*", ClothesSearchService.toTsQuery("!jeans"));
+		assertEquals("tag:* & x:*", ClothesSearchService.toTsQuery("tag:x*"));
+		assertEquals("saia:* & midi:*", ClothesSearchService.toTsQuery("(saia) | (midi)"));
+		assertEquals("levi:* & s:*", ClothesSearchService.toTsQuery("levi's"));
+		assertEquals("a:* & b:* & c:*", ClothesSearchService.toTsQuery("a & | ! : * ( ) ' b,c"));
+	}
+
+	@Test
+	void keepsAtMostEightTerms() {
+		assertEquals("a:* & b:* & c:* & d:* & e:* & f:* & g:* & h:*",
+				ClothesSearchService.toTsQuery("a b c d e f g h i j"));
+	}
+
+	@Test
+	void returnsNullWithoutTerms() {
+		assertNull(ClothesSearchService.toTsQuery(null));
+		assertNull(ClothesSearchService.toTsQuery(""));
+		assertNull(ClothesSearchService.toTsQuery("   "));
+		assertNull(ClothesSearchService.toTsQuery("&|!:*()'"));
+	}
+}
@@ -0,0 +1,109 @@
+package com.creaite.wardrobe_api.services;
+
+import com.creaite.wardrobe_api.dto.ClothesChangesDTO;
+import com.creaite.wardrobe_api.dto.ClothesField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ClothesSyncServiceTests {
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ClothesSyncService syncService;
+
+	private final UUID userId = UUID.randomUUID();
+
+	@BeforeEach
+	void createUser() {
+		jdbcTemplate.update("INSERT INTO users (id, name, email, username) VALUES (:id, 'Sync', :email, :username)",
+				new MapSqlParameterSource("id", userId)
+						.addValue("email", userId + "@sync.test")
+						.addValue("username", "sync-" + userId));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+		jdbcTemplate.update("DELETE FROM clothing_items WHERE user_id = :userId", params);
+		jdbcTemplate.update("DELETE FROM clothing_tombstones WHERE user_id = :userId", params);
+		jdbcTemplate.update("DELETE FROM users WHERE id = :userId", params);
+	}
+
+	@Test
+	void returnsOnlyChangesAfterToken() {
+		insertClothing("Shirt");
+		UUID updated = insertClothing("Jeans");
+		UUID deleted = insertClothing("Coat");
+
+		ClothesChangesDTO initial = changes(null);
+		assertEquals(3, initial.changed().size());
+		assertTrue(initial.deleted().isEmpty());
+
+		UUID inserted = insertClothing("Scarf");
+		jdbcTemplate.update("UPDATE clothing_items SET name = 'Blue jeans' WHERE id = :id", new MapSqlParameterSource("id", updated));
+		jdbcTemplate.update("DELETE FROM clothing_items WHERE id = :id", new MapSqlParameterSource("id", deleted));
+
+		ClothesChangesDTO delta = changes(initial.nextToken());
+
+		// Em ordem de change_seq: o insert veio antes do update
+		assertEquals(List.of(inserted, updated), delta.changed().stream().map(item -> item.get("id")).toList());
+		assertEquals("Blue jeans", delta.changed().get(1).get("name"));
+		assertEquals(List.of(deleted), delta.deleted());
+		assertFalse(delta.hasMore());
+		assertTrue(ClothesSyncService.decodeToken(delta.nextToken()) > ClothesSyncService.decodeToken(initial.nextToken()));
+
+		ClothesChangesDTO caughtUp = changes(delta.nextToken());
+		assertTrue(caughtUp.changed().isEmpty());
+		assertTrue(caughtUp.deleted().isEmpty());
+		assertEquals(delta.nextToken(), caughtUp.nextToken());
+	}
+
+	@Test
+	void pagesByLimitWithoutSkippingChanges() {
+		for (int i = 0; i < 5; i++) {
+			insertClothing("Item " + i);
+		}
+
+		ClothesChangesDTO first = syncService.changesSince(userId, null, 2, ClothesField.SUMMARY);
+		ClothesChangesDTO second = syncService.changesSince(userId, first.nextToken(), 2, ClothesField.SUMMARY);
+		ClothesChangesDTO third = syncService.changesSince(userId, second.nextToken(), 2, ClothesField.SUMMARY);
+
+		assertTrue(first.hasMore());
+		assertTrue(second.hasMore());
+		assertFalse(third.hasMore());
+		assertEquals(List.of("Item 0", "Item 1", "Item 2", "Item 3", "Item 4"), List.of(first, second, third).stream()
+				.flatMap(page -> page.changed().stream())
+				.map(item -> (String) item.get("name"))
+				.toList());
+	}
+
+	private ClothesChangesDTO changes(String token) {
+		return syncService.changesSince(userId, token, ClothesSyncService.DEFAULT_LIMIT, ClothesField.SUMMARY);
+	}
+
+	private UUID insertClothing(String name) {
+		UUID id = UUID.randomUUID();
+		jdbcTemplate.update("""
+				INSERT INTO clothing_items (id, user_id, name, category, image_url, processing_status, created_at, updated_at)
+				VALUES (:id, :userId, :name, 'SHIRT', 'data:image/png;base64,AAAA', 'COMPLETED', now(), now())""",
+				new MapSqlParameterSource("id", id)
+						.addValue("userId", userId)
+						.addValue("name", name));
+		return id;
+	}
+}
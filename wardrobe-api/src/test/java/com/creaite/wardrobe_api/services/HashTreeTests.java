@@ -0,0 +1,51 @@
+package com.creaite.wardrobe_api.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HashTreeTests {
+
+	@Test
+	void nearestMatchesLinearScan() {
+		SplittableRandom random = new SplittableRandom(42);
+		long[] hashes = new long[2000];
+		UUID[] ids = new UUID[hashes.length];
+		HashTree tree = new HashTree();
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = random.nextLong();
+			ids[i] = UUID.randomUUID();
+			tree.add(hashes[i], ids[i]);
+		}
+
+		for (int query = 0; query < 200; query++) {
+			// Vizinho de um hash existente com até 8 bits trocados
+			long hash = hashes[random.nextInt(hashes.length)];
+			for (int flips = random.nextInt(9); flips > 0; flips--) {
+				hash ^= 1L << random.nextInt(64);
+			}
+
+			int bestDistance = 7;
+			UUID bestId = null;
+			for (int i = 0; i < hashes.length; i++) {
+				int distance = Long.bitCount(hashes[i] ^ hash);
+				if (distance < bestDistance) {
+					bestDistance = distance;
+					bestId = ids[i];
+				}
+			}
+
+			HashTree.Match match = tree.nearest(hash, 6);
+			if (bestId == null) {
+				assertNull(match);
+			} else {
+				assertEquals(bestId, match.id());
+				assertEquals(bestDistance, match.distance());
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.creaite.wardrobe_api.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswGraphTests {
+
+	private static final int DIMENSIONS = 92;
+
+	@Test
+	void recallAgainstExactSearch() {
+		SplittableRandom random = new SplittableRandom(7);
+		int count = 3000;
+		float[][] vectors = new float[count][];
+		UUID[] ids = new UUID[count];
+		HnswGraph graph = new HnswGraph(DIMENSIONS);
+		for (int i = 0; i < count; i++) {
+			vectors[i] = randomUnit(random);
+			ids[i] = UUID.randomUUID();
+			graph.add(ids[i], vectors[i]);
+		}
+
+		int k = 10;
+		int found = 0;
+		int queries = 100;
+		for (int q = 0; q < queries; q++) {
+			int query = random.nextInt(count);
+			List<HnswGraph.Match> matches = graph.search(vectors[query], k, 64, ids[query]);
+
+			// Exato: ordena todos pela similaridade
+			Integer[] order = new Integer[count];
+			for (int i = 0; i < count; i++) order[i] = i;
+			float[] similarity = new float[count];
+			for (int i = 0; i < count; i++) similarity[i] = dot(vectors[query], vectors[i]);
+			Arrays.sort(order, (a, b) -> Float.compare(similarity[b], similarity[a]));
+			List<UUID> exact = Arrays.stream(order).filter(i -> i != query).limit(k).map(i -> ids[i]).toList();
+
+			assertEquals(k, matches.size());
+			found += (int) matches.stream().filter(match -> exact.contains(match.id())).count();
+		}
+
+		double recall = (double) found / (queries * k);
+		assertTrue(recall > 0.9, "recall " + recall);
+	}
+
+	@Test
+	void removedAndReplacedItemsAreNotReturned() {
+		SplittableRandom random = new SplittableRandom(11);
+		HnswGraph graph = new HnswGraph(DIMENSIONS);
+		UUID removed = UUID.randomUUID();
+		UUID replaced = UUID.randomUUID();
+		float[] target = randomUnit(random);
+		graph.add(removed, target);
+		graph.add(replaced, target);
+		for (int i = 0; i < 200; i++) {
+			graph.add(UUID.randomUUID(), randomUnit(random));
+		}
+
+		graph.remove(removed);
+		graph.add(replaced, randomUnit(random));
+
+		List<HnswGraph.Match> matches = graph.search(target, 5, 64, null);
+		assertFalse(matches.stream().anyMatch(match -> match.id().equals(removed)));
+		// Só a versão nova (outro vetor) do item substituído pode aparecer
+		assertFalse(matches.stream().anyMatch(match -> match.id().equals(replaced) && match.similarity() > 0.99f));
+		assertEquals(201, graph.size());
+	}
+
+	private static float[] randomUnit(SplittableRandom random) {
+		float[] vector = new float[DIMENSIONS];
+		double norm = 0;
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) random.nextDouble(-1, 1);
+			norm += vector[i] * vector[i];
+		}
+		for (int i = 0; i < DIMENSIONS; i++) vector[i] /= (float) Math.sqrt(norm);
+		return vector;
+	}
+
+	private static float dot(float[] a, float[] b) {
+		float dot = 0;
+		for (int i = 0; i < a.length; i++) dot += a[i] * b[i];
+		return dot;
+	}
+}
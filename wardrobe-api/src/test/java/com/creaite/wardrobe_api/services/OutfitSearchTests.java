@@ -0,0 +1,87 @@
+package com.creaite.wardrobe_api.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutfitSearchTests {
+
+	private static final int ITEMS = 160;
+
+	private final float[][] harmony = new float[ITEMS][ITEMS];
+	private final boolean[] favorite = new boolean[ITEMS];
+	private final int[] tops = IntStream.range(0, 60).toArray();
+	private final int[] bottoms = IntStream.range(60, 100).toArray();
+	private final int[] shoes = IntStream.range(100, 130).toArray();
+	private final int[] extras = IntStream.range(130, 160).toArray();
+
+	OutfitSearchTests() {
+		SplittableRandom random = new SplittableRandom(3);
+		for (int a = 0; a < ITEMS; a++) {
+			favorite[a] = random.nextInt(5) == 0;
+			for (int b = a; b < ITEMS; b++) {
+				harmony[a][b] = harmony[b][a] = (float) random.nextDouble();
+			}
+		}
+	}
+
+	@Test
+	void prunedSearchMatchesExhaustiveSearch() {
+		for (OutfitSearch.ExtraMode mode : OutfitSearch.ExtraMode.values()) {
+			float[] expected = exhaustive(mode, 10);
+
+			assertArrayEquals(expected, scores(search(mode).run(null)), 1e-5f, mode.name());
+			assertArrayEquals(expected, scores(search(mode).run(ForkJoinPool.commonPool())), 1e-5f, mode.name());
+		}
+	}
+
+	@Test
+	void pruningSkipsMostCombinations() {
+		OutfitSearch search = search(OutfitSearch.ExtraMode.NONE);
+		List<OutfitSearch.Candidate> best = search.run(null);
+
+		assertEquals(10, best.size());
+		assertTrue(search.evaluated() < search.combinations() / 2,
+				search.evaluated() + " of " + search.combinations());
+	}
+
+	private OutfitSearch search(OutfitSearch.ExtraMode mode) {
+		return new OutfitSearch((a, b) -> harmony[a][b], tops, bottoms, shoes, extras, favorite, mode, 10);
+	}
+
+	private float[] exhaustive(OutfitSearch.ExtraMode mode, int k) {
+		List<Float> all = new ArrayList<>();
+		float weight = OutfitSearch.FAVORITE_WEIGHT;
+		for (int t : tops) for (int b : bottoms) for (int s : shoes) {
+			float base = harmony[t][b] + harmony[t][s] + harmony[b][s];
+			int favorites = (favorite[t] ? 1 : 0) + (favorite[b] ? 1 : 0) + (favorite[s] ? 1 : 0);
+			float best = mode == OutfitSearch.ExtraMode.REQUIRED ? Float.NEGATIVE_INFINITY : base / 3 + weight * favorites / 3;
+			if (mode != OutfitSearch.ExtraMode.NONE) {
+				for (int e : extras) {
+					float score = (base + harmony[e][t] + harmony[e][b] + harmony[e][s]) / 6
+							+ weight * (favorites + (favorite[e] ? 1 : 0)) / 4;
+					best = Math.max(best, score);
+				}
+			}
+			all.add(best);
+		}
+		all.sort((a, b) -> Float.compare(b, a));
+		float[] top = new float[k];
+		for (int i = 0; i < k; i++) top[i] = all.get(i);
+		return top;
+	}
+
+	private static float[] scores(List<OutfitSearch.Candidate> candidates) {
+		float[] scores = new float[candidates.size()];
+		for (int i = 0; i < scores.length; i++) scores[i] = candidates.get(i).score();
+		return scores;
+	}
+}
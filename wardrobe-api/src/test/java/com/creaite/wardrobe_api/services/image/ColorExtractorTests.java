@@ -0,0 +1,42 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColorExtractorTests {
+
+	private final ColorExtractor extractor = new ColorExtractor();
+
+	@Test
+	void namesDominantColorIgnoringTransparentBackground() {
+		BufferedImage cutout = new BufferedImage(600, 800, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = cutout.createGraphics();
+		g.setColor(new Color(30, 42, 70));
+		g.fillRect(150, 100, 300, 600);
+		// Estampa pequena: entra na paleta, mas não muda a cor predominante
+		g.setColor(new Color(240, 240, 236));
+		g.fillRect(250, 250, 100, 100);
+		g.dispose();
+
+		ColorPalette palette = extractor.extract(cutout);
+
+		assertEquals("Navy", palette.name());
+		assertTrue(palette.swatches().get(0).share() > 0.8);
+		assertEquals("White", ColorExtractor.name(palette.swatches().get(1).rgb()));
+		assertTrue(palette.encoded().matches("#[0-9A-F]{6}:\\d+(,#[0-9A-F]{6}:\\d+)*"));
+	}
+
+	@Test
+	void returnsNullForEmptyCutout() {
+		BufferedImage empty = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+
+		assertNull(extractor.extract(empty));
+	}
+}
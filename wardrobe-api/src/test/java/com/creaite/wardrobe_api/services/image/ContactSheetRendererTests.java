@@ -0,0 +1,49 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactSheetRendererTests {
+
+	private final ContactSheetRenderer renderer = new ContactSheetRenderer();
+
+	@Test
+	void placesThumbnailsRowByRow() {
+		String red = cutout(new Color(200, 30, 30));
+		String blue = cutout(new Color(30, 30, 200));
+
+		BufferedImage sheet = ImageCodec.readImage(renderer.render(Arrays.asList(red, null, blue), 2, 100));
+
+		assertEquals(200, sheet.getWidth());
+		assertEquals(200, sheet.getHeight());
+		assertNear(new Color(200, 30, 30), sheet.getRGB(50, 50));
+		// Imagem ausente: célula vazia, as seguintes não se deslocam
+		assertNear(Color.WHITE, sheet.getRGB(150, 50));
+		assertNear(new Color(30, 30, 200), sheet.getRGB(50, 150));
+		// Fundo transparente do recorte sai branco
+		assertNear(Color.WHITE, sheet.getRGB(8, 108));
+	}
+
+	private static String cutout(Color color) {
+		BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(color);
+		g.fillRect(100, 100, 200, 200);
+		g.dispose();
+		return ImageCodec.toPngDataUrl(ImageCodec.encodePng(image));
+	}
+
+	private static void assertNear(Color expected, int rgb) {
+		Color actual = new Color(rgb);
+		int distance = Math.abs(expected.getRed() - actual.getRed()) + Math.abs(expected.getGreen() - actual.getGreen())
+				+ Math.abs(expected.getBlue() - actual.getBlue());
+		assertTrue(distance < 30, "expected " + expected + " but was " + actual);
+	}
+}
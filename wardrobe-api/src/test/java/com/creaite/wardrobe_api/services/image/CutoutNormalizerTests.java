@@ -0,0 +1,112 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CutoutNormalizerTests {
+
+	private static final int ITEM = 0xFF2850A0;
+	// Transparente mas com RGB "sujo", como sai de alguns removedores de fundo
+	private static final int DIRTY_TRANSPARENT = 0x00FF00FF;
+
+	private final CutoutNormalizer normalizer = new CutoutNormalizer();
+
+	@Test
+	void trimsToPaddedSquareAroundItem() {
+		BufferedImage cutout = filled(400, 300, DIRTY_TRANSPARENT);
+		fill(cutout, 100, 50, 100, 200, ITEM);
+		// Furo transparente dentro do bounding box: vem na cópia e precisa sair zerado
+		fill(cutout, 140, 100, 20, 20, DIRTY_TRANSPARENT);
+
+		NormalizedCutout result = normalizer.normalize(toDataUrl(cutout));
+		BufferedImage image = ImageCodec.readImage(result.dataUrl());
+
+		// 100x200 + margem de 8 de cada lado, completado até quadrado pelo lado maior
+		assertEquals(216, image.getWidth());
+		assertEquals(216, image.getHeight());
+		assertEquals(216, result.image().getWidth());
+		// Peça centralizada: de (58, 8) a (157, 207)
+		assertEquals(ITEM, image.getRGB(58, 8));
+		assertEquals(ITEM, image.getRGB(157, 207));
+		assertEquals(0, image.getRGB(57, 8) >>> 24);
+		assertEquals(0, image.getRGB(58, 7) >>> 24);
+		assertEquals(0, image.getRGB(158, 207) >>> 24);
+		assertEquals(0, image.getRGB(58, 208) >>> 24);
+		assertEquals(0, image.getRGB(0, 0));
+		assertEquals(0, image.getRGB(58 + 45, 8 + 55));
+	}
+
+	@Test
+	void clearsRgbOfEveryTransparentPixel() {
+		BufferedImage cutout = filled(300, 300, DIRTY_TRANSPARENT);
+		fill(cutout, 20, 20, 260, 120, ITEM);
+		fill(cutout, 60, 40, 100, 60, DIRTY_TRANSPARENT);
+
+		BufferedImage image = normalizer.normalize(toDataUrl(cutout)).image();
+
+		for (int pixel : ImageCodec.pixels(image)) {
+			if ((pixel >>> 24) == 0) {
+				assertEquals(0, pixel);
+			}
+		}
+	}
+
+	@Test
+	void scalesLargeCutoutDownToMaxDimension() {
+		BufferedImage cutout = filled(2400, 2400, 0);
+		fill(cutout, 100, 600, 2200, 1000, ITEM);
+
+		BufferedImage image = normalizer.normalize(toDataUrl(cutout)).image();
+
+		assertEquals(1024, image.getWidth());
+		assertEquals(1024, image.getHeight());
+		assertEquals(ITEM, image.getRGB(512, 512));
+		assertEquals(0, image.getRGB(512, 100));
+	}
+
+	@Test
+	void keepsImagesWithoutTransparencyUntouched() {
+		BufferedImage photo = new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB);
+		String opaque = toDataUrl(photo);
+		assertSame(opaque, normalizer.normalize(opaque).dataUrl());
+
+		String empty = toDataUrl(filled(120, 80, DIRTY_TRANSPARENT));
+		assertSame(empty, normalizer.normalize(empty).dataUrl());
+	}
+
+	@Test
+	void boundsIgnoreResidualAlpha() {
+		int[] pixels = new int[10 * 10];
+		pixels[0] = 0x05FFFFFF;
+		pixels[3 * 10 + 2] = ITEM;
+		pixels[6 * 10 + 7] = 0x80000000;
+
+		assertArrayEquals(new int[]{2, 3, 7, 6}, CutoutNormalizer.alphaBounds(pixels, 10, 10));
+		assertNull(CutoutNormalizer.alphaBounds(new int[]{0x05FFFFFF, 0}, 2, 1));
+	}
+
+	private static BufferedImage filled(int width, int height, int argb) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Arrays.fill(ImageCodec.pixels(image), argb);
+		return image;
+	}
+
+	private static void fill(BufferedImage image, int x, int y, int width, int height, int argb) {
+		for (int row = y; row < y + height; row++) {
+			for (int col = x; col < x + width; col++) {
+				image.setRGB(col, row, argb);
+			}
+		}
+	}
+
+	private static String toDataUrl(BufferedImage image) {
+		return ImageCodec.toPngDataUrl(ImageCodec.encodePng(image));
+	}
+}
@@ -0,0 +1,64 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalBackgroundRemoverTests {
+
+	private final LocalBackgroundRemover remover = new LocalBackgroundRemover();
+
+	@Test
+	void removesUniformBackgroundAndKeepsItem() {
+		BufferedImage photo = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(7);
+		for (int y = 0; y < photo.getHeight(); y++) {
+			for (int x = 0; x < photo.getWidth(); x++) {
+				int v = 220 + random.nextInt(11) - 5;
+				photo.setRGB(x, y, (v << 16) | (v << 8) | (v - 10));
+			}
+		}
+		Graphics2D g = photo.createGraphics();
+		g.setColor(new Color(40, 70, 140));
+		g.fillRect(120, 80, 160, 140);
+		// Mesma cor do fundo no meio da peça: não é alcançável pela borda, continua opaca
+		g.setColor(new Color(220, 220, 210));
+		g.fillRect(180, 130, 40, 40);
+		g.dispose();
+
+		BufferedImage result = ImageCodec.readImage(remover.removeBackground(toDataUrl(photo)));
+
+		assertEquals(0, alpha(result, 5, 5));
+		assertEquals(0, alpha(result, 395, 295));
+		assertEquals(255, alpha(result, 200, 100));
+		assertEquals(255, alpha(result, 200, 150));
+	}
+
+	@Test
+	void rejectsImageWithoutIsolatedItem() {
+		BufferedImage blank = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = blank.createGraphics();
+		g.setColor(Color.WHITE);
+		g.fillRect(0, 0, 200, 200);
+		g.dispose();
+
+		assertThrows(IllegalStateException.class, () -> remover.removeBackground(toDataUrl(blank)));
+	}
+
+	private static int alpha(BufferedImage image, int x, int y) {
+		return image.getRGB(x, y) >>> 24;
+	}
+
+	private static String toDataUrl(BufferedImage image) {
+		byte[] png = ImageCodec.encodePng(image);
+		assertTrue(png.length > 0);
+		return ImageCodec.toPngDataUrl(png);
+	}
+}
@@ -0,0 +1,60 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerceptualHasherTests {
+
+	private final PerceptualHasher hasher = new PerceptualHasher();
+
+	@Test
+	void resizedRecompressedCopyStaysClose() {
+		BufferedImage original = shirt(800, 1000, new Color(30, 42, 70));
+		BufferedImage smaller = ImageCodec.toArgb(original, 300);
+		// Ida e volta por JPEG, como uma foto reenviada pelo celular
+		BufferedImage rgb = new BufferedImage(smaller.getWidth(), smaller.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = rgb.createGraphics();
+		g.drawImage(smaller, 0, 0, null);
+		g.dispose();
+		BufferedImage recompressed = ImageCodec.readImage(ImageCodec.encodeJpeg(rgb, 0.6f));
+
+		int distance = PerceptualHasher.distance(hasher.hash(original), hasher.hash(recompressed));
+
+		assertTrue(distance <= 6, "distance " + distance);
+	}
+
+	@Test
+	void differentPiecesAreFarApart() {
+		BufferedImage shirt = shirt(800, 1000, new Color(30, 42, 70));
+		BufferedImage trousers = new BufferedImage(800, 1000, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = trousers.createGraphics();
+		g.setPaint(new GradientPaint(0, 0, Color.WHITE, 800, 0, new Color(120, 80, 40)));
+		g.fillRect(0, 0, 800, 1000);
+		g.setColor(new Color(60, 40, 20));
+		g.fillRect(250, 50, 120, 900);
+		g.fillRect(430, 50, 120, 900);
+		g.dispose();
+
+		int distance = PerceptualHasher.distance(hasher.hash(shirt), hasher.hash(trousers));
+
+		assertTrue(distance > 16, "distance " + distance);
+	}
+
+	private static BufferedImage shirt(int width, int height, Color color) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setPaint(new GradientPaint(0, 0, new Color(235, 235, 230), 0, height, new Color(180, 180, 175)));
+		g.fillRect(0, 0, width, height);
+		g.setColor(color);
+		g.fillRect(width / 4, height / 8, width / 2, height * 3 / 4);
+		g.fillRect(width / 10, height / 8, width / 6, height / 3);
+		g.dispose();
+		return image;
+	}
+}
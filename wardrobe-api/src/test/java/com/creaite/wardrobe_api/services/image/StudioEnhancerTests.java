@@ -0,0 +1,100 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudioEnhancerTests {
+
+	// Dominante azulada multiplicativa sobre dois cinzas (100 e 200)
+	private static final Color DARK_CAST = new Color(90, 100, 125);
+	private static final Color LIGHT_CAST = new Color(180, 200, 250);
+
+	private final StudioEnhancer enhancer = new StudioEnhancer();
+
+	@Test
+	void lutsRemoveColorCastAndStretchContrast() {
+		int[] pixels = new int[200];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (i % 2 == 0 ? DARK_CAST : LIGHT_CAST).getRGB();
+		}
+
+		int[][] luts = StudioEnhancer.buildLuts(pixels);
+
+		int[] dark = apply(luts, DARK_CAST);
+		int[] light = apply(luts, LIGHT_CAST);
+		// Balanço de branco: os canais de cada cinza voltam a coincidir
+		assertTrue(spread(dark) <= 2, "dark " + Arrays.toString(dark));
+		assertTrue(spread(light) <= 2, "light " + Arrays.toString(light));
+		// Contraste: o cinza escuro desce para perto do preto e o claro sobe para perto do branco
+		assertTrue(dark[0] < 20, "dark " + dark[0]);
+		assertTrue(light[0] > 240, "light " + light[0]);
+		for (int[] lut : luts) {
+			for (int v = 1; v < 256; v++) {
+				assertTrue(lut[v] >= lut[v - 1], "LUT must be monotonic");
+			}
+		}
+	}
+
+	@Test
+	void transparentImageKeepsIdentityLuts() {
+		int[] identity = new int[256];
+		for (int v = 0; v < 256; v++) identity[v] = v;
+
+		int[][] luts = StudioEnhancer.buildLuts(new int[]{0x00FF0000, 0x4000FF00});
+
+		for (int[] lut : luts) {
+			assertArrayEquals(identity, lut);
+		}
+	}
+
+	@Test
+	void enhancesOnNeutralSquareCanvas() {
+		BufferedImage photo = new BufferedImage(400, 300, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < 300; y++) {
+			for (int x = 0; x < 400; x++) {
+				// Últimas 60 linhas transparentes: compostas sobre o fundo neutro
+				int rgb = y >= 240 ? 0 : (x < 200 ? DARK_CAST : LIGHT_CAST).getRGB();
+				photo.setRGB(x, y, rgb);
+			}
+		}
+
+		BufferedImage result = ImageCodec.readImage(enhancer.enhance(ImageCodec.toPngDataUrl(ImageCodec.encodePng(photo))));
+
+		assertEquals(StudioEnhancer.CANVAS_SIZE, result.getWidth());
+		assertEquals(StudioEnhancer.CANVAS_SIZE, result.getHeight());
+		assertNear(new Color(0xF4F4F2), result.getRGB(10, 10));
+		// Foto centralizada: origem em (312, 362)
+		assertNear(new Color(0xF4F4F2), result.getRGB(512, 640));
+		assertTrue(spread(rgb(result.getRGB(412, 480))) <= 10, "dark area should be neutral");
+		assertTrue(spread(rgb(result.getRGB(612, 480))) <= 10, "light area should be neutral");
+		assertTrue(new Color(result.getRGB(412, 480)).getRed() < new Color(result.getRGB(612, 480)).getRed() - 150);
+	}
+
+	private static int[] apply(int[][] luts, Color color) {
+		return new int[]{luts[0][color.getRed()], luts[1][color.getGreen()], luts[2][color.getBlue()]};
+	}
+
+	private static int[] rgb(int rgb) {
+		Color color = new Color(rgb);
+		return new int[]{color.getRed(), color.getGreen(), color.getBlue()};
+	}
+
+	private static int spread(int[] channels) {
+		return Math.max(channels[0], Math.max(channels[1], channels[2]))
+				- Math.min(channels[0], Math.min(channels[1], channels[2]));
+	}
+
+	private static void assertNear(Color expected, int rgb) {
+		Color actual = new Color(rgb);
+		int distance = Math.abs(expected.getRed() - actual.getRed()) + Math.abs(expected.getGreen() - actual.getGreen())
+				+ Math.abs(expected.getBlue() - actual.getBlue());
+		assertTrue(distance < 30, "expected " + expected + " but was " + actual);
+	}
+}
@@ -0,0 +1,66 @@
+package com.creaite.wardrobe_api.services.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VisualFeatureExtractorTests {
+
+	private final VisualFeatureExtractor extractor = new VisualFeatureExtractor();
+
+	@Test
+	void sameGarmentAtAnotherScaleIsNearlyIdentical() {
+		float[] small = extractor.extract(shirt(300, new Color(30, 42, 90)));
+		float[] large = extractor.extract(shirt(900, new Color(30, 42, 90)));
+
+		assertEquals(VisualFeatureExtractor.DIMENSIONS, small.length);
+		assertEquals(1.0, dot(small, small), 1e-4);
+		assertTrue(dot(small, large) > 0.97, "similarity " + dot(small, large));
+	}
+
+	@Test
+	void closerShadeRanksAboveOtherColor() {
+		float[] navy = extractor.extract(shirt(400, new Color(30, 42, 90)));
+		float[] blue = extractor.extract(shirt(400, new Color(40, 60, 140)));
+		float[] red = extractor.extract(shirt(400, new Color(190, 30, 40)));
+
+		assertTrue(dot(navy, blue) > dot(navy, red) + 0.3);
+	}
+
+	@Test
+	void encodesAsCompactFloats() {
+		float[] features = extractor.extract(shirt(300, new Color(190, 30, 40)));
+		byte[] encoded = VisualFeatureExtractor.encode(features);
+
+		assertEquals(VisualFeatureExtractor.DIMENSIONS * Float.BYTES, encoded.length);
+		assertArrayEquals(features, VisualFeatureExtractor.decode(encoded));
+	}
+
+	@Test
+	void returnsNullForEmptyCutout() {
+		assertNull(extractor.extract(new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB)));
+	}
+
+	private static BufferedImage shirt(int size, Color color) {
+		BufferedImage cutout = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = cutout.createGraphics();
+		g.setColor(color);
+		g.fillRect(size / 4, size / 5, size / 2, size * 7 / 10);
+		g.fillRect(size / 10, size / 5, size * 4 / 5, size / 5);
+		g.dispose();
+		return cutout;
+	}
+
+	private static double dot(float[] a, float[] b) {
+		double dot = 0;
+		for (int i = 0; i < a.length; i++) dot += a[i] * b[i];
+		return dot;
+	}
+}